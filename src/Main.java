@@ -4,6 +4,7 @@ import controller.ImageController;
 import controller.ImageService;
 import controller.TextBasedControllerV3;
 import controller.ViewController;
+import model.ConcurrentImageModel;
 import model.ImageModelImplV2;
 import model.ImageModelImplV3;
 import model.ImageModelV2;
@@ -45,11 +46,13 @@ public class Main {
     }
 
     ImageView view = new ConsoleBasedView();
-    ImageModelV3 model = new ImageModelImplV3();
-
-    ImageModelV2 model1 = new ImageModelImplV2();
+    // Independent commands of the script run at the same time, so they share a concurrent model
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    // Scripts only need the images they save, so the others are never computed
+    model.setLazy(true);
     ImageService imageService = new ImageService(model);
-    ImageController controller = new TextBasedControllerV3(model, model1, view, imageService);
+    TextBasedControllerV3 controller = new TextBasedControllerV3(model, model, view, imageService);
+    controller.setParallel(true);
 
     String scriptPath = System.getProperty("user.dir") + File.separator + scriptFilePath;
     File scriptFile = new File(scriptPath);
@@ -3,6 +3,7 @@ package controller;
 import java.io.IOException;
 
 import model.Image;
+import model.ImageStatistics;
 
 /**
  * Interface that defines the features and operations supported for images operation in GUI.
@@ -148,6 +149,15 @@ public interface GUIFeatures {
    */
   Image getImage(String imageName);
 
+  /**
+   * Puts back the image stored under a name before an operation replaced it, for instance when
+   * the operation is cancelled after storing its result.
+   *
+   * @param imageName the name of the image.
+   * @param image     the image stored before the operation, or null to remove the name.
+   */
+  void restoreImage(String imageName, Image image);
+
   /**
    * Retrieves the histogram of the specified image.
    *
@@ -156,6 +166,14 @@ public interface GUIFeatures {
    */
   Image getHistogram(String imageName);
 
+  /**
+   * Retrieves the histograms and statistics of the specified image.
+   *
+   * @param imageName the name of the image for which to retrieve the statistics.
+   * @return the statistics of the specified image.
+   */
+  ImageStatistics getStatistics(String imageName);
+
   /**
    * Applies a blur effect with split operations to the specified image and saves it with a new
    * name.
@@ -2,98 +2,80 @@ package controller;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Scanner;
 
 import javax.imageio.ImageIO;
 
 import model.Image;
-import model.NothingThereException;
-
-import static model.ImageUtil.getDimensions;
 
 /**
  * Utility class for handling image file operations, such as reading and saving
- * images in various formats (PPM, PNG, JPEG, JPG).
+ * images in various formats (PPM, PPX, PNG, JPEG, JPG).
  */
 public class ImageFileUtils {
   /**
-   * This functions reads the ppm image file.
+   * This functions reads the ppm image file, in the plain (P3) or binary (P6) format. Greyscale
+   * pgm files (P2 and P5) are read as well.
    *
    * @param filename the filename of the image.
    * @return returns the loaded image.
-   * @throws FileNotFoundException throws exception if file not found.
+   * @throws IOException throws exception if file not found or cannot be read.
    */
-  protected static Image readPPM(String filename) throws FileNotFoundException {
-    Scanner sc = new Scanner(new FileInputStream(filename));
-
-    StringBuilder builder = new StringBuilder();
-    while (sc.hasNextLine()) {
-      String s = sc.nextLine();
-      if (!s.startsWith("#")) {
-        builder.append(s).append(System.lineSeparator());
-      }
-    }
-
-    sc = new Scanner(builder.toString());
-    String token = sc.next();
-    if (!token.equals("P3")) {
-      throw new IllegalArgumentException("Invalid PPM file: plain RAW file should begin with P3");
-    }
-
-    int width = sc.nextInt();
-    int height = sc.nextInt();
-    int maxPixel = sc.nextInt();
-
-    if (height == 0 && width == 0) {
-      throw new NothingThereException("Empty File");
-    }
-
-    int[][] redChannel = new int[height][width];
-    int[][] greenChannel = new int[height][width];
-    int[][] blueChannel = new int[height][width];
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        redChannel[i][j] = sc.nextInt();
-        greenChannel[i][j] = sc.nextInt();
-        blueChannel[i][j] = sc.nextInt();
-      }
-    }
-
-    return new Image(redChannel, greenChannel, blueChannel);
+  protected static Image readPPM(String filename) throws IOException {
+    return new PPMReader(filename).read();
   }
 
   /**
-   * THis function saves a loaded image as a ppm file.
+   * THis function saves a loaded image as a plain (P3) ppm file.
    *
    * @param filename the output filename.
    * @param image    the image to be saved.
    * @throws IOException throws error if file is not found.
    */
   protected static void savePPM(String filename, Image image) throws IOException {
-    FileOutputStream fos = new FileOutputStream(filename);
-    StringBuilder sb = new StringBuilder();
+    savePPM(filename, image, false);
+  }
 
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
+  /**
+   * THis function saves a loaded image as a ppm file, streaming it to the file row by row.
+   *
+   * @param filename the output filename.
+   * @param image    the image to be saved.
+   * @param binary   true for the binary (P6) format, false for the plain (P3) format.
+   * @throws IOException throws error if file is not found.
+   */
+  protected static void savePPM(String filename, Image image, boolean binary)
+          throws IOException {
+    try (FileOutputStream fos = new FileOutputStream(filename)) {
+      new PPMWriter(fos).write(image, binary);
+    }
+  }
 
-    sb.append("P3\n").append(width).append(" ").append(height).append("\n")
-            .append(255).append("\n");
+  /**
+   * This functions reads the ppx wavelet image file.
+   *
+   * @param filename the filename of the image.
+   * @return returns the loaded image.
+   * @throws IOException throws exception if file not found or cannot be read.
+   */
+  protected static Image readPPX(String filename) throws IOException {
+    return new PPXReader(filename).read();
+  }
 
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        sb.append(image.getRedChannel()[i][j]).append(" ").append(image.getGreenChannel()[i][j])
-                .append(" ").append(image.getBlueChannel()[i][j]).append(" ");
-      }
-      sb.append("\n");
+  /**
+   * This function saves a loaded image as a ppx wavelet file, storing its Haar coefficients
+   * sparsely. Pixels read back may differ by 1 from the saved ones, as coefficients are rounded.
+   *
+   * @param filename the output filename.
+   * @param image    the image to be saved.
+   * @throws IOException throws error if file is not found.
+   */
+  protected static void savePPX(String filename, Image image) throws IOException {
+    try (FileOutputStream fos = new FileOutputStream(filename)) {
+      new PPXWriter(fos).write(image);
     }
-
-    fos.write(sb.toString().getBytes());
-    fos.close();
   }
 
   /**
@@ -135,24 +117,15 @@ public class ImageFileUtils {
    * @throws IOException throws error if file is not found.
    */
   protected static void saveOther(String filename, Image image) throws IOException {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
+    int height = image.getHeight();
+    int width = image.getWidth();
 
     BufferedImage outputImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
-    int[][] redChannel = image.getRedChannel();
-    int[][] greenChannel = image.getGreenChannel();
-    int[][] blueChannel = image.getBlueChannel();
-
+    int[] row = new int[width];
     for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int red = redChannel[y][x];
-        int green = greenChannel[y][x];
-        int blue = blueChannel[y][x];
-
-        int rgb = (red << 16) | (green << 8) | blue;
-        outputImage.setRGB(x, y, rgb);
-      }
+      image.getRow(y, row);
+      outputImage.setRGB(0, y, width, 1, row, 0, width);
     }
 
     // Adding default extension as png, if not provided
@@ -4,11 +4,14 @@ import java.io.IOException;
 
 import model.Image;
 import model.ImageModel;
+import model.Mask;
 
 import static controller.ImageFileUtils.readOther;
 import static controller.ImageFileUtils.readPPM;
+import static controller.ImageFileUtils.readPPX;
 import static controller.ImageFileUtils.saveOther;
 import static controller.ImageFileUtils.savePPM;
+import static controller.ImageFileUtils.savePPX;
 
 /**
  * Service class responsible for handling image loading and saving operations.
@@ -33,17 +36,43 @@ public class ImageService {
    * @throws IOException if there is an error with reading files.
    */
   public void loadImage(String path, String imageName) throws IOException {
+    // Nothing else refers to the image read, so the model may update it in place
+    imageModel.adoptImage(imageName, read(path));
+  }
+
+  /**
+   * Loads a mask image from the specified filepath, keeping only the pixels it selects, those
+   * whose red value is 0. The image is stored under its name as usual, but takes the memory of
+   * the runs of selected pixels until it is read as an image, and masked operations use the runs
+   * as they are.
+   *
+   * @param path     the filepath of the mask image to load.
+   * @param maskName the name of the mask to load.
+   * @throws IOException if there is an error with reading files.
+   */
+  public void loadMask(String path, String maskName) throws IOException {
+    imageModel.adoptImage(maskName, Mask.of(read(path)).toImage());
+  }
+
+  /**
+   * Reads an image in any of the supported formats, chosen by the extension of the filepath.
+   *
+   * @param path the filepath of the image to read.
+   * @return the image read.
+   * @throws IOException if there is an error with reading files.
+   */
+  private static Image read(String path) throws IOException {
     try {
-      Image image;
       if (path.toLowerCase().endsWith("ppm")) {
-        image = readPPM(path);
+        return readPPM(path);
+      } else if (path.toLowerCase().endsWith("ppx")) {
+        return readPPX(path);
       } else if (path.toLowerCase().endsWith("png") || path.toLowerCase().endsWith(("jpeg"))
               || path.toLowerCase().endsWith("jpg")) {
-        image = readOther(path);
+        return readOther(path);
       } else {
         throw new IllegalArgumentException("Unsupported image type: " + path);
       }
-      imageModel.putImage(imageName, image);
     } catch (IOException e) {
       throw new IOException(e);
     }
@@ -57,13 +86,35 @@ public class ImageService {
    * @throws IOException if there is an error with saving files.
    */
   public void saveImage(String path, String imageName) throws IOException {
-    Image image = imageModel.getImage(imageName);
+    saveImage(path, imageName, false);
+  }
+
+  /**
+   * Saves an image to the specified filepath, as a binary (P6) ppm file if asked to.
+   *
+   * @param path      the filepath of the image to save to.
+   * @param imageName the name of the image to save.
+   * @param binary    true to save a ppm file in the binary (P6) format rather than the plain
+   *                  (P3) one.
+   * @throws IOException if there is an error with saving files.
+   * @throws IllegalArgumentException if the binary format is asked for another type of file.
+   */
+  public void saveImage(String path, String imageName, boolean binary) throws IOException {
+    // The writers do not keep the image, so it may still be updated in place afterwards
+    Image image = imageModel.borrowImage(imageName);
     if (image == null) {
       throw new IllegalArgumentException("No image found with name: " + imageName);
     }
+    boolean ppm = path.toLowerCase().endsWith(".ppm");
+    if (binary && !ppm) {
+      throw new IllegalArgumentException("The binary format is only supported for ppm files: "
+              + path);
+    }
     try {
-      if (path.toLowerCase().endsWith(".ppm")) {
-        savePPM(path, image);
+      if (ppm) {
+        savePPM(path, image, binary);
+      } else if (path.toLowerCase().endsWith(".ppx")) {
+        savePPX(path, image);
       } else {
         saveOther(path, image);
       }
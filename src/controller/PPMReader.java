@@ -0,0 +1,196 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import model.Image;
+import model.ImageUtil;
+import model.NothingThereException;
+import model.PixelStorage;
+
+/**
+ * Reads PPM and PGM files, in their plain (P3, P2) and binary (P6, P5) formats. The file is read
+ * through a large buffer and tokenized byte by byte, and pixels are written straight into the
+ * storage of the new image. Values are scaled from the maxval of the file to 0..255, and comments
+ * are skipped anywhere in the header.
+ */
+class PPMReader {
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int MAX_SAMPLE = 65535;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+
+  /**
+   * Opens the file to read.
+   *
+   * @param filename the file to read.
+   * @throws IOException if the file cannot be opened.
+   */
+  PPMReader(String filename) throws IOException {
+    this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+    this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    this.buffer.flip();
+  }
+
+  /**
+   * Reads the image in the file and closes it.
+   *
+   * @return the image read.
+   * @throws IOException if the file cannot be read.
+   */
+  Image read() throws IOException {
+    try {
+      return readImage();
+    } finally {
+      channel.close();
+    }
+  }
+
+  private Image readImage() throws IOException {
+    int first = nextByte();
+    int second = nextByte();
+    if (first != 'P' || (second != '3' && second != '6' && second != '2' && second != '5')) {
+      throw new IllegalArgumentException("Invalid PPM file: file should begin with P2, P3, P5 "
+              + "or P6");
+    }
+    boolean binary = second == '6' || second == '5';
+    boolean grey = second == '2' || second == '5';
+
+    int width = nextInt(Integer.MAX_VALUE);
+    int height = nextInt(Integer.MAX_VALUE);
+    int maxValue = nextInt(MAX_SAMPLE);
+
+    if (height == 0 && width == 0) {
+      throw new NothingThereException("Empty File");
+    }
+    if (width <= 0 || height <= 0 || maxValue <= 0) {
+      throw new IllegalArgumentException("Invalid PPM file: bad dimensions or maximum value");
+    }
+    try {
+      Math.multiplyExact(height, width);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Invalid PPM file: image too large");
+    }
+
+    PixelStorage storage = ImageUtil.newStorage(height, width);
+    int[] scale = scaleTable(maxValue);
+    int[] row = new int[width];
+
+    // The whitespace ending the maxval, already consumed, is the last byte of a binary header
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        int red = scale[readValue(binary, maxValue)];
+        if (grey) {
+          row[j] = (red << 16) | (red << 8) | red;
+        } else {
+          int green = scale[readValue(binary, maxValue)];
+          int blue = scale[readValue(binary, maxValue)];
+          row[j] = (red << 16) | (green << 8) | blue;
+        }
+      }
+      storage.setRow(i, row);
+    }
+
+    return new Image(storage);
+  }
+
+  /**
+   * Maps every value up to the maxval of the file to 0..255. Values are kept unchanged for the
+   * usual maxval of 255.
+   */
+  private static int[] scaleTable(int maxValue) {
+    int[] table = new int[maxValue + 1];
+    for (int i = 0; i <= maxValue; i++) {
+      table[i] = maxValue == 255 ? i : (int) ((i * 255L + maxValue / 2) / maxValue);
+    }
+    return table;
+  }
+
+  private int readValue(boolean binary, int maxValue) throws IOException {
+    int value;
+    if (!binary) {
+      value = nextInt(MAX_SAMPLE);
+    } else if (maxValue < 256) {
+      value = nextRequiredByte();
+    } else {
+      value = (nextRequiredByte() << 8) | nextRequiredByte();
+    }
+    return Math.min(value, maxValue);
+  }
+
+  private int nextRequiredByte() throws IOException {
+    int b = nextByte();
+    if (b < 0) {
+      throw new NoSuchElementException("Unexpected end of PPM file");
+    }
+    return b;
+  }
+
+  /**
+   * Parses the next decimal number, skipping whitespace and comments before it.
+   *
+   * @param limit the largest number allowed.
+   */
+  private int nextInt(int limit) throws IOException {
+    int b = nextByte();
+    while (true) {
+      if (b == '#') {
+        while (b >= 0 && b != '\n' && b != '\r') {
+          b = nextByte();
+        }
+      } else if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f') {
+        b = nextByte();
+      } else {
+        break;
+      }
+    }
+
+    if (b < 0) {
+      throw new NoSuchElementException("Unexpected end of PPM file");
+    }
+    if (b < '0' || b > '9') {
+      throw new InputMismatchException("Invalid PPM file: expected a number");
+    }
+
+    int value = 0;
+    while (b >= '0' && b <= '9') {
+      int digit = b - '0';
+      if (value > (limit - digit) / 10) {
+        throw new InputMismatchException("Invalid PPM file: number too large");
+      }
+      value = value * 10 + digit;
+      b = nextByte();
+    }
+    if (b >= 0 && b != '#' && !Character.isWhitespace(b)) {
+      throw new InputMismatchException("Invalid PPM file: expected a number");
+    }
+    if (b == '#') {
+      buffer.position(buffer.position() - 1);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the next byte of the file, or -1 once the end is reached.
+   */
+  private int nextByte() throws IOException {
+    if (!buffer.hasRemaining()) {
+      buffer.clear();
+      int read;
+      do {
+        read = channel.read(buffer);
+      } while (read == 0);
+      buffer.flip();
+      if (read < 0) {
+        return -1;
+      }
+    }
+    return buffer.get() & 0xFF;
+  }
+}
@@ -0,0 +1,114 @@
+package controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import model.Image;
+
+/**
+ * Streams an image out as a PPM file, either plain (P3) or binary (P6). Pixels are encoded one
+ * row at a time into a fixed size buffer, so the memory used does not depend on the image size.
+ */
+class PPMWriter {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /*
+  The ASCII encoding of every channel value followed by a space, computed once so that the plain
+  format never has to convert numbers to strings.
+  */
+  private static final byte[][] PLAIN_VALUES = new byte[256][];
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      PLAIN_VALUES[i] = (i + " ").getBytes();
+    }
+  }
+
+  private final OutputStream out;
+  private final byte[] buffer;
+  private int position;
+
+  /**
+   * Creates a writer over the provided stream. The stream is not closed by the writer.
+   *
+   * @param out the stream to write the file to.
+   */
+  PPMWriter(OutputStream out) {
+    this.out = out;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.position = 0;
+  }
+
+  /**
+   * Writes the whole image, header included, and flushes the stream.
+   *
+   * @param image  the image to write.
+   * @param binary true for the binary P6 format, false for the plain P3 format.
+   * @throws IOException if the stream cannot be written to.
+   */
+  void write(Image image, boolean binary) throws IOException {
+    int height = image.getHeight();
+    int width = image.getWidth();
+
+    writeAscii((binary ? "P6" : "P3") + "\n" + width + " " + height + "\n" + 255 + "\n");
+
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      image.getRow(i, row);
+      if (binary) {
+        writeBinaryRow(row, width);
+      } else {
+        writePlainRow(row, width);
+      }
+    }
+
+    flushBuffer();
+    out.flush();
+  }
+
+  private void writePlainRow(int[] row, int width) throws IOException {
+    for (int j = 0; j < width; j++) {
+      // Three values of at most four bytes each
+      ensureSpace(12);
+      putValue((row[j] >> 16) & 0xFF);
+      putValue((row[j] >> 8) & 0xFF);
+      putValue(row[j] & 0xFF);
+    }
+    ensureSpace(1);
+    buffer[position++] = '\n';
+  }
+
+  private void writeBinaryRow(int[] row, int width) throws IOException {
+    for (int j = 0; j < width; j++) {
+      ensureSpace(3);
+      buffer[position++] = (byte) (row[j] >> 16);
+      buffer[position++] = (byte) (row[j] >> 8);
+      buffer[position++] = (byte) row[j];
+    }
+  }
+
+  private void putValue(int value) {
+    byte[] encoded = PLAIN_VALUES[value];
+    System.arraycopy(encoded, 0, buffer, position, encoded.length);
+    position += encoded.length;
+  }
+
+  private void writeAscii(String text) throws IOException {
+    byte[] bytes = text.getBytes();
+    flushBuffer();
+    out.write(bytes);
+  }
+
+  private void ensureSpace(int bytes) throws IOException {
+    if (position + bytes > buffer.length) {
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import model.HaarTransform;
+import model.Image;
+import model.ImageUtil;
+import model.PixelStorage;
+
+/**
+ * Reads PPX files written by {@link PPXWriter}. The coefficients of each channel are decoded into
+ * a 2D array, transformed back with the inverse Haar transform, then rounded and clamped into the
+ * storage of the new image.
+ */
+class PPXReader {
+  private static final int BUFFER_SIZE = 1 << 16;
+  // The largest array the virtual machine reliably allocates
+  private static final int MAX_PIXELS = Integer.MAX_VALUE - 8;
+
+  private final String filename;
+
+  /**
+   * Creates a reader for the provided file.
+   *
+   * @param filename the file to read.
+   */
+  PPXReader(String filename) {
+    this.filename = filename;
+  }
+
+  /**
+   * Reads the image in the file and closes it.
+   *
+   * @return the image read.
+   * @throws IOException if the file cannot be read.
+   */
+  Image read() throws IOException {
+    try (InputStream in = new BufferedInputStream(new FileInputStream(filename), BUFFER_SIZE)) {
+      return readImage(in);
+    } catch (EOFException e) {
+      throw new NoSuchElementException("Unexpected end of PPX file");
+    }
+  }
+
+  private static Image readImage(InputStream in) throws IOException {
+    DataInputStream header = new DataInputStream(in);
+    byte[] magic = new byte[PPXWriter.MAGIC.length];
+    header.readFully(magic);
+    for (int i = 0; i < magic.length; i++) {
+      if (magic[i] != PPXWriter.MAGIC[i]) {
+        throw new IllegalArgumentException("Invalid PPX file: file should begin with PPX1");
+      }
+    }
+
+    int width = header.readInt();
+    int height = header.readInt();
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Invalid PPX file: bad dimensions");
+    }
+    long pixelCount = (long) height * width;
+    if (pixelCount > MAX_PIXELS) {
+      throw new IOException("Invalid PPX file: image too large");
+    }
+
+    Inflater inflater = new Inflater();
+    try {
+      InputStream tokens = new BufferedInputStream(
+              new InflaterInputStream(in, inflater, BUFFER_SIZE), BUFFER_SIZE);
+      int[] pixels = new int[(int) pixelCount];
+      for (int shift = 16; shift >= 0; shift -= 8) {
+        double[][] values = readCoefficients(tokens, height, width);
+        HaarTransform.inverse(values);
+        for (int i = 0; i < height; i++) {
+          for (int j = 0; j < width; j++) {
+            pixels[i * width + j] |= ImageUtil.clampPixel((int) Math.round(values[i][j]))
+                    << shift;
+          }
+        }
+      }
+
+      PixelStorage storage = ImageUtil.newStorage(height, width);
+      int[] row = new int[width];
+      for (int i = 0; i < height; i++) {
+        System.arraycopy(pixels, i * width, row, 0, width);
+        storage.setRow(i, row);
+      }
+      return new Image(storage);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static double[][] readCoefficients(InputStream tokens, int height, int width)
+          throws IOException {
+    double[][] coefficients = new double[height][width];
+    long total = (long) height * width;
+    long position = 0;
+    while (position < total) {
+      position += readVarint(tokens);
+      if (position < total) {
+        int encoded = readVarint(tokens);
+        int value = (encoded >>> 1) ^ -(encoded & 1);
+        coefficients[(int) (position / width)][(int) (position % width)] = value;
+        position++;
+      }
+    }
+    if (position > total) {
+      throw new IllegalArgumentException("Invalid PPX file: too many coefficients");
+    }
+    return coefficients;
+  }
+
+  private static int readVarint(InputStream tokens) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = tokens.read();
+      if (b < 0) {
+        throw new NoSuchElementException("Unexpected end of PPX file");
+      }
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Invalid PPX file: malformed number");
+  }
+}
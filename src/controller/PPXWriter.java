@@ -0,0 +1,108 @@
+package controller;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import model.HaarTransform;
+import model.Image;
+import model.WaveletEncoder;
+
+/**
+ * Writes an image as a PPX file, a wavelet format that stores the Haar coefficients of each
+ * channel rather than its pixels. The coefficients are rounded to integers and encoded by
+ * {@link WaveletEncoder}. A compressed image keeps the encoding of the coefficients it was
+ * reconstructed from, and that is written as it is, so the coefficients the compression dropped
+ * are stored as zeros and the file shrinks with the percentage of coefficients dropped. The
+ * coefficients of any other image are found by transforming its pixels.
+ *
+ * <p>The file starts with the magic number PPX1 and the width and height of the image as 4 byte
+ * integers. The deflated coefficients of the red, green and blue channels follow, each as many as
+ * the pixels, in row order. The transform covers the image itself, with no padding to a power of
+ * 2, see {@link HaarTransform}.
+ */
+class PPXWriter {
+  static final byte[] MAGIC = {'P', 'P', 'X', '1'};
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final OutputStream out;
+
+  /**
+   * Creates a writer over the provided stream. The stream is not closed by the writer.
+   *
+   * @param out the stream to write the file to.
+   */
+  PPXWriter(OutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Writes the whole image, header included, and flushes the stream.
+   *
+   * @param image the image to write.
+   * @throws IOException if the stream cannot be written to.
+   */
+  void write(Image image) throws IOException {
+    int height = image.getHeight();
+    int width = image.getWidth();
+
+    DataOutputStream header = new DataOutputStream(out);
+    header.write(MAGIC);
+    header.writeInt(width);
+    header.writeInt(height);
+    header.flush();
+
+    byte[] encoding = image.getWaveletEncoding();
+    if (encoding != null) {
+      out.write(encoding);
+      out.flush();
+      return;
+    }
+
+    Deflater deflater = new Deflater();
+    try {
+      DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+      OutputStream tokens = new BufferedOutputStream(deflated, BUFFER_SIZE);
+      // One channel at a time, so only one channel of coefficients is held
+      for (int shift = 16; shift >= 0; shift -= 8) {
+        WaveletEncoder.writeChannel(tokens, transformChannel(image, shift));
+      }
+      tokens.flush();
+      deflated.finish();
+    } finally {
+      deflater.end();
+    }
+    out.flush();
+  }
+
+  /**
+   * Finds the Haar coefficients of one channel of the image, rounded to integers.
+   */
+  private static int[][] transformChannel(Image image, int shift) {
+    int height = image.getHeight();
+    int width = image.getWidth();
+    double[][] channel = new double[height][width];
+
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      image.getRow(i, row);
+      for (int j = 0; j < width; j++) {
+        channel[i][j] = (row[j] >> shift) & 0xFF;
+      }
+    }
+    HaarTransform.forward(channel);
+
+    int[][] coefficients = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        coefficients[i][j] = (int) Math.round(channel[i][j]);
+      }
+      // Each row of doubles is released as soon as it is rounded
+      channel[i] = null;
+    }
+    return coefficients;
+  }
+}
@@ -0,0 +1,201 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import controller.commands.Command;
+import controller.commands.CommandFactory;
+import view.ImageView;
+
+/**
+ * Executes the commands of a script on a pool of threads. The whole script is parsed first, and
+ * every command waits only for the earlier commands writing an image or file it reads or writes,
+ * and for the earlier commands reading what it writes. The other commands are executed at the
+ * same time. Commands that do not tell what they read and write are executed alone. The results
+ * are reported in the order of the script, as if the commands had been executed one by one.
+ */
+class ScriptScheduler {
+  private final Map<String, CommandFactory> commandMap;
+  private final ImageView view;
+  private final int threads;
+
+  /**
+   * A line of the script, with its command or the error parsing it, and the future completing
+   * with the error executing it, or null once it succeeded.
+   */
+  private static final class Step {
+    private final String line;
+    private Command command;
+    private Exception error;
+    private CompletableFuture<Exception> done;
+
+    private Step(String line) {
+      this.line = line;
+    }
+  }
+
+  /**
+   * Creates a scheduler for the commands of a controller.
+   *
+   * @param commandMap the factories of the commands, by keyword.
+   * @param view       the view the results are reported to.
+   * @param threads    the number of commands executed at the same time.
+   */
+  ScriptScheduler(Map<String, CommandFactory> commandMap, ImageView view, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be positive.");
+    }
+    this.commandMap = commandMap;
+    this.view = view;
+    this.threads = threads;
+  }
+
+  /**
+   * Executes the commands of a script and reports their results in order.
+   *
+   * @param lines the commands of the script, without comments and blank lines.
+   */
+  void run(List<String> lines) {
+    List<Step> steps = new ArrayList<>();
+    for (String line : lines) {
+      steps.add(parse(line));
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "script-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      schedule(steps, pool);
+      for (Step step : steps) {
+        report(step);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Creates the command of a line of the script.
+   *
+   * @param line the line.
+   * @return the step holding the command, or the error creating it.
+   */
+  private Step parse(String line) {
+    Step step = new Step(line);
+    String[] args = line.split("\\s+");
+    CommandFactory factory = commandMap.get(args[0]);
+    if (factory != null) {
+      try {
+        step.command = factory.create(args);
+      } catch (Exception e) {
+        step.error = e;
+      }
+    }
+    return step;
+  }
+
+  /**
+   * Submits every command once the commands it depends on are done.
+   *
+   * @param steps the steps of the script, in order.
+   * @param pool  the threads executing the commands.
+   */
+  private void schedule(List<Step> steps, ExecutorService pool) {
+    Map<String, CompletableFuture<Exception>> lastWriters = new HashMap<>();
+    Map<String, List<CompletableFuture<Exception>>> readers = new HashMap<>();
+    List<CompletableFuture<Exception>> sinceBarrier = new ArrayList<>();
+    CompletableFuture<Exception> barrier = CompletableFuture.completedFuture(null);
+
+    for (Step step : steps) {
+      if (step.command == null) {
+        continue;
+      }
+      Set<String> reads = step.command.getReadNames();
+      Set<String> writes = step.command.getWriteNames();
+      boolean alone = reads == null || writes == null;
+
+      List<CompletableFuture<Exception>> dependencies = new ArrayList<>();
+      dependencies.add(barrier);
+      if (alone) {
+        dependencies.addAll(sinceBarrier);
+      } else {
+        for (String name : reads) {
+          addIfPresent(dependencies, lastWriters.get(name));
+        }
+        for (String name : writes) {
+          addIfPresent(dependencies, lastWriters.get(name));
+          dependencies.addAll(readers.getOrDefault(name, new ArrayList<>()));
+        }
+      }
+
+      Command command = step.command;
+      step.done = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+              .thenApplyAsync(ignored -> execute(command), pool);
+
+      if (alone) {
+        barrier = step.done;
+        sinceBarrier.clear();
+        lastWriters.clear();
+        readers.clear();
+      } else {
+        sinceBarrier.add(step.done);
+        for (String name : reads) {
+          readers.computeIfAbsent(name, key -> new ArrayList<>()).add(step.done);
+        }
+        for (String name : writes) {
+          lastWriters.put(name, step.done);
+          readers.remove(name);
+        }
+      }
+    }
+  }
+
+  private static void addIfPresent(List<CompletableFuture<Exception>> dependencies,
+                                   CompletableFuture<Exception> dependency) {
+    if (dependency != null) {
+      dependencies.add(dependency);
+    }
+  }
+
+  /**
+   * Executes a command, keeping its error so that it is reported in order.
+   *
+   * @param command the command to execute.
+   * @return the error executing the command, or null if it succeeded.
+   */
+  private static Exception execute(Command command) {
+    try {
+      command.execute();
+      return null;
+    } catch (Exception e) {
+      return e;
+    }
+  }
+
+  /**
+   * Waits for the command of a step and reports its result the way the sequential execution does.
+   *
+   * @param step the step to report.
+   */
+  private void report(Step step) {
+    if (step.command == null && step.error == null) {
+      view.printStatements("Invalid command: " + step.line + "\n");
+      return;
+    }
+    Exception error = step.error != null ? step.error : step.done.join();
+    if (error == null) {
+      view.printStatements("Successfully executed command: "
+              + String.join(" ", step.line.split("\\s+")) + "\n");
+    } else {
+      System.err.println("Error executing command \"" + step.line + "\": " + error);
+    }
+  }
+}
@@ -4,7 +4,9 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import controller.commands.BlueComponentCommand;
@@ -42,6 +44,7 @@ public class TextBasedController implements ImageController {
   protected final ImageView view;
   protected final Map<String, CommandFactory> commandMap;
   protected final ImageService imageService;
+  private boolean parallel;
 
   /**
    * Constructor to initialize a TextBasedController objects.
@@ -74,6 +77,9 @@ public class TextBasedController implements ImageController {
       if (args.length < 3) {
         throw new IllegalArgumentException("save command requires 2 arguments.");
       }
+      if (args.length > 3 && args[3].equals("binary")) {
+        return new SaveCommand(imageService, args[1], args[2], true);
+      }
       return new SaveCommand(imageService, args[1], args[2]);
     });
 
@@ -247,6 +253,18 @@ public class TextBasedController implements ImageController {
     });
   }
 
+  /**
+   * Turns the parallel execution of script files on or off. In parallel, the whole script is read
+   * first and the commands that do not depend on each other are executed at the same time, their
+   * results still being reported in the order of the script. The models and the image service
+   * must then be safe to use from several threads, such as a {@link model.ConcurrentImageModel}.
+   *
+   * @param parallel true to execute independent commands of a script at the same time.
+   */
+  public void setParallel(boolean parallel) {
+    this.parallel = parallel;
+  }
+
   /**
    * This executes all the commands.
    *
@@ -275,10 +293,15 @@ public class TextBasedController implements ImageController {
     if (scriptFilePath != null) {
       // Script file mode
       try (BufferedReader reader = new BufferedReader(new FileReader(scriptFilePath))) {
+        List<String> commands = new ArrayList<>();
         String command;
         while ((command = reader.readLine()) != null) {
           command = command.trim();
           if (!command.startsWith("#") && !command.isEmpty()) {
+            if (parallel) {
+              commands.add(command);
+              continue;
+            }
             try {
               execute(command);
             } catch (Exception e) {
@@ -286,6 +309,10 @@ public class TextBasedController implements ImageController {
             }
           }
         }
+        if (parallel) {
+          new ScriptScheduler(commandMap, view, Runtime.getRuntime().availableProcessors())
+                  .run(commands);
+        }
       } catch (IOException e) {
         System.err.println("Error reading script file: " + e.getMessage());
       }
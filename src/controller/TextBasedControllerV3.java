@@ -10,6 +10,7 @@ import controller.commands.GreenComponentCommand;
 import controller.commands.GreenComponentMaskedCommand;
 import controller.commands.IntensityComponentCommand;
 import controller.commands.IntensityMaskedCommand;
+import controller.commands.LoadMaskCommand;
 import controller.commands.LumaComponentCommand;
 import controller.commands.LumaMaskedCommand;
 import controller.commands.RedComponentCommand;
@@ -48,6 +49,13 @@ public class TextBasedControllerV3 extends TextBasedController {
   @Override
   void initializeCommands() {
     super.initializeCommands();
+    commandMap.put("load-mask", args -> {
+      if (args.length < 3) {
+        throw new IllegalArgumentException("load-mask command requires 2 arguments.");
+      }
+      return new LoadMaskCommand(imageService, args[1], args[2]);
+    });
+
     commandMap.put("blur", args -> {
       if (args.length == 3) {
         return new BlurCommand(imageModel, args[1], args[2]);
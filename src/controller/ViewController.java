@@ -19,6 +19,7 @@ import controller.commands.SharpenCommand;
 import controller.commands.VerticalFlipCommand;
 import model.Image;
 import model.ImageModelV2;
+import model.ImageStatistics;
 import view.ImageView;
 
 /**
@@ -258,16 +259,45 @@ public class ViewController implements GUIFeatures {
   }
 
   /**
-   * Generates a histogram for the specified image and retrieves it from the model.
+   * Stores the image back under its name, or removes the name if there was no image before.
+   *
+   * @param imageName the name of the image.
+   * @param image     the image stored before the operation, or null to remove the name.
+   */
+  @Override
+  public void restoreImage(String imageName, Image image) {
+    if (image == null) {
+      imageModel.removeImage(imageName);
+    } else {
+      imageModel.putImage(imageName, image);
+    }
+  }
+
+  /**
+   * Draws the histogram of the specified image from the statistics the image keeps, without
+   * adding a histogram image to the model.
    *
    * @param imageName the name of the image to generate a histogram for.
    * @return the image representing the histogram.
    */
   @Override
   public Image getHistogram(String imageName) {
-    String histImageName = imageName + "_histogram";
-    imageModel.applyHistogramVisualization(imageName, histImageName);
-    return imageModel.getImage(histImageName);
+    return getStatistics(imageName).toHistogramImage();
+  }
+
+  /**
+   * Retrieves the statistics of the specified image, computed once per image.
+   *
+   * @param imageName the name of the image for which to retrieve the statistics.
+   * @return the statistics of the specified image.
+   */
+  @Override
+  public ImageStatistics getStatistics(String imageName) {
+    Image image = imageModel.getImage(imageName);
+    if (image == null) {
+      throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
+    }
+    return image.getStatistics();
   }
 
   /**
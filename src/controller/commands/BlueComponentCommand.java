@@ -1,5 +1,7 @@
 package controller.commands;
 
+import java.util.Set;
+
 import model.ComponentType;
 import model.ImageModelV2;
 
@@ -24,6 +26,16 @@ public class BlueComponentCommand implements Command {
     this.newImageName = newImageName;
   }
 
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(imageName);
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(newImageName);
+  }
+
   @Override
   public void execute() {
     imageModel.applyComponent(imageName, newImageName, ComponentType.BLUE);
@@ -1,6 +1,7 @@
 package controller.commands;
 
 import java.io.FileNotFoundException;
+import java.util.Set;
 
 import model.ImageModelV2;
 
@@ -43,6 +44,16 @@ public class BlurCommand implements Command {
     this.percent = splitPercentage;
   }
 
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(imageName);
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(newImageName);
+  }
+
   @Override
   public void execute() throws FileNotFoundException {
     if (percent != null) {
@@ -1,6 +1,7 @@
 package controller.commands;
 
 import java.io.FileNotFoundException;
+import java.util.Set;
 
 import model.ImageModelV3;
 
@@ -34,6 +35,17 @@ public class BlurMaskedCommand implements Command {
     this.operationName = operationName;
   }
 
+  @Override
+  public Set<String> getReadNames() {
+    // The model reads the mask from newImageName and writes to maskedImageName
+    return Command.names(imageName, newImageName);
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(maskedImageName);
+  }
+
   @Override
   public void execute() throws FileNotFoundException {
     imageModel.applyPartialImageManipulation(operationName, imageName,
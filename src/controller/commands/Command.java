@@ -1,9 +1,16 @@
 package controller.commands;
 
 import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Represents a command that can be executed to perform numerous image processing operations.
+ * A command can also tell the images and files it reads and writes, so that the commands of a
+ * script that do not depend on each other can be executed at the same time.
  */
 public interface Command {
 
@@ -13,4 +20,49 @@ public interface Command {
    * @throws IOException for any errors during the I\O operations.
    */
   void execute() throws IOException;
-}
\ No newline at end of file
+
+  /**
+   * Returns the names of the images, and the paths of the files, this command reads.
+   *
+   * @return the names read, or null if they are unknown, in which case the command is never
+   *         executed at the same time as any other command.
+   */
+  default Set<String> getReadNames() {
+    return null;
+  }
+
+  /**
+   * Returns the names of the images, and the paths of the files, this command writes.
+   *
+   * @return the names written, or null if they are unknown, in which case the command is never
+   *         executed at the same time as any other command.
+   */
+  default Set<String> getWriteNames() {
+    return null;
+  }
+
+  /**
+   * Collects names into a set, for the commands describing what they read and write.
+   *
+   * @param names the names.
+   * @return the set of names.
+   */
+  static Set<String> names(String... names) {
+    return new HashSet<>(Arrays.asList(names));
+  }
+
+  /**
+   * Spells the path of a file the same way whichever way the script spells it, absolute and
+   * normalized, so that commands reading and writing the same file depend on each other.
+   *
+   * @param path the path of the file, as written in the script.
+   * @return the absolute and normalized path, or the path as it is if it is not valid.
+   */
+  static String path(String path) {
+    try {
+      return Paths.get(path).toAbsolutePath().normalize().toString();
+    } catch (InvalidPathException e) {
+      return path;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package controller.commands;
 
+import java.util.Set;
+
 import model.ImageModelV2;
 
 /**
@@ -27,6 +29,16 @@ public class CompressCommand implements Command {
     this.newImageName = newImageName;
   }
 
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(imageName);
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(newImageName);
+  }
+
   @Override
   public void execute() {
     imageModel.applyCompression(imageName, newImageName, percent);
@@ -1,5 +1,7 @@
 package controller.commands;
 
+import java.util.Set;
+
 import model.ComponentType;
 import model.ImageModelV2;
 
@@ -43,6 +45,16 @@ public class IntensityComponentCommand implements Command {
     this.percent = splitPercentage;
   }
 
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(imageName);
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(newImageName);
+  }
+
   @Override
   public void execute() {
     if (percent != null) {
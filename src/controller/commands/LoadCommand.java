@@ -1,6 +1,7 @@
 package controller.commands;
 
 import java.io.IOException;
+import java.util.Set;
 
 import controller.ImageService;
 
@@ -25,6 +26,16 @@ public class LoadCommand implements Command {
     this.imageName = imageName;
   }
 
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(Command.path(sourcePath));
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(imageName);
+  }
+
   @Override
   public void execute() throws IOException {
     try {
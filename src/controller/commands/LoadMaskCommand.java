@@ -0,0 +1,47 @@
+package controller.commands;
+
+import java.io.IOException;
+import java.util.Set;
+
+import controller.ImageService;
+
+/**
+ * Command class to load a mask image, keeping only the pixels it selects.
+ */
+public class LoadMaskCommand implements Command {
+  private final ImageService imageService;
+  private final String sourcePath;
+  private final String imageName;
+
+  /**
+   * Constructor to initialize the class object.
+   *
+   * @param imageService the imageService object to perform load.
+   * @param sourcePath   the filepath of the mask image to load.
+   * @param imageName    the name of the mask.
+   */
+  public LoadMaskCommand(ImageService imageService, String sourcePath, String imageName) {
+    this.imageService = imageService;
+    this.sourcePath = sourcePath;
+    this.imageName = imageName;
+  }
+
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(Command.path(sourcePath));
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(imageName);
+  }
+
+  @Override
+  public void execute() throws IOException {
+    try {
+      imageService.loadMask(sourcePath, imageName);
+    } catch (IOException e) {
+      throw new IOException("Error loading mask: " + e.getMessage());
+    }
+  }
+}
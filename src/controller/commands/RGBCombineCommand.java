@@ -1,5 +1,7 @@
 package controller.commands;
 
+import java.util.Set;
+
 import model.ImageModelV2;
 
 /**
@@ -30,6 +32,16 @@ public class RGBCombineCommand implements Command {
     this.blueImage = blueImage;
   }
 
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(redImage, greenImage, blueImage);
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(newImageName);
+  }
+
   @Override
   public void execute() {
     imageModel.rgbCombine(newImageName, redImage, greenImage, blueImage);
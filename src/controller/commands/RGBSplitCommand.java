@@ -1,5 +1,7 @@
 package controller.commands;
 
+import java.util.Set;
+
 import model.ImageModelV2;
 
 /**
@@ -30,6 +32,16 @@ public class RGBSplitCommand implements Command {
     this.blueImage = blueImage;
   }
 
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(imageName);
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(redImage, greenImage, blueImage);
+  }
+
   @Override
   public void execute() {
     imageModel.rgbSplit(imageName, redImage, greenImage, blueImage);
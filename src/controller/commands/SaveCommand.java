@@ -1,6 +1,7 @@
 package controller.commands;
 
 import java.io.IOException;
+import java.util.Set;
 
 import controller.ImageService;
 
@@ -11,6 +12,7 @@ public class SaveCommand implements Command {
   private final ImageService imageService;
   private final String destinationPath;
   private final String imageName;
+  private final boolean binary;
 
   /**
    * Constructor to initialize the class object.
@@ -20,15 +22,40 @@ public class SaveCommand implements Command {
    * @param imageName       the name of the image.
    */
   public SaveCommand(ImageService imageService, String destinationPath, String imageName) {
+    this(imageService, destinationPath, imageName, false);
+  }
+
+  /**
+   * Constructor to initialize the class object, saving ppm files in the binary format if asked
+   * to.
+   *
+   * @param imageService    the imageService object to perform load.
+   * @param destinationPath the filepath of image to save.
+   * @param imageName       the name of the image.
+   * @param binary          true to save a ppm file in the binary (P6) format.
+   */
+  public SaveCommand(ImageService imageService, String destinationPath, String imageName,
+                     boolean binary) {
     this.imageService = imageService;
     this.destinationPath = destinationPath;
     this.imageName = imageName;
+    this.binary = binary;
+  }
+
+  @Override
+  public Set<String> getReadNames() {
+    return Command.names(imageName);
+  }
+
+  @Override
+  public Set<String> getWriteNames() {
+    return Command.names(Command.path(destinationPath));
   }
 
   @Override
   public void execute() throws IOException {
     try {
-      imageService.saveImage(destinationPath, imageName);
+      imageService.saveImage(destinationPath, imageName, binary);
     } catch (IOException e) {
       throw new IOException("Error saving image: " + e.getMessage());
     }
@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * The ways a filter can read the pixels beyond the edges of an image.
+ */
+public enum BorderMode {
+  /**
+   * Repeats the closest edge pixel.
+   */
+  CLAMP,
+  /**
+   * Reflects the image about its edge pixels, without repeating them.
+   */
+  MIRROR,
+  /**
+   * Continues from the opposite edge of the image.
+   */
+  WRAP,
+  /**
+   * Treats every pixel outside the image as black.
+   */
+  ZERO;
+
+  /**
+   * Maps a coordinate, possibly outside the image, to the coordinate of the pixel to read.
+   *
+   * @param index  the coordinate to map.
+   * @param length the number of rows or columns of the image.
+   * @return the coordinate to read, or -1 when the pixel is black.
+   */
+  public int map(int index, int length) {
+    if (index >= 0 && index < length) {
+      return index;
+    }
+    switch (this) {
+      case CLAMP:
+        return index < 0 ? 0 : length - 1;
+      case MIRROR:
+        if (length == 1) {
+          return 0;
+        }
+        int period = 2 * (length - 1);
+        int folded = Math.floorMod(index, period);
+        return folded < length ? folded : period - folded;
+      case WRAP:
+        return Math.floorMod(index, length);
+      default:
+        return -1;
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps images in memory up to a budget of bytes. When the pixels of the stored images take more
+ * than the budget, the least recently used images are written to files in a spill directory and
+ * dropped from memory. They are read back transparently the next time they are asked for.
+ * A deferred image is counted at the size its pixels take once computed, since it holds on to
+ * the image it is computed from until then. Before anything is spilled, the deferred images are
+ * computed, which lets go of those images, so spilling one of them does free its memory. An
+ * evicted image is only freed once nothing else, such as a view, refers to it.
+ */
+public class BoundedImageStore implements ImageStore {
+  private final long budgetBytes;
+  private final Path spillDirectory;
+  // Access ordered, the least recently used image comes first
+  private final LinkedHashMap<String, Resident> resident;
+  private final Map<String, Path> spilled;
+  // The sum of the sizes of the resident images, updated as they come and go
+  private long residentBytes;
+  private long spillCount;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * An image held in memory, with the size it was counted at.
+   */
+  private static final class Resident {
+    private final Image image;
+    private long bytes;
+
+    private Resident(Image image) {
+      this.image = image;
+    }
+  }
+
+  /**
+   * Creates an empty store.
+   *
+   * @param budgetBytes    the bytes of pixels the store may hold in memory.
+   * @param spillDirectory the directory evicted images are written to.
+   */
+  public BoundedImageStore(long budgetBytes, Path spillDirectory) {
+    if (budgetBytes < 0) {
+      throw new IllegalArgumentException("Memory budget cannot be negative.");
+    }
+    this.budgetBytes = budgetBytes;
+    this.spillDirectory = spillDirectory;
+    this.resident = new LinkedHashMap<>(16, 0.75f, true);
+    this.spilled = new HashMap<>();
+  }
+
+  /**
+   * Creates an empty store spilling to a new temporary directory.
+   *
+   * @param budgetBytes the bytes of pixels the store may hold in memory.
+   * @throws IOException if the temporary directory cannot be created.
+   */
+  public BoundedImageStore(long budgetBytes) throws IOException {
+    this(budgetBytes, Files.createTempDirectory("perfectpixel-spill"));
+    spillDirectory.toFile().deleteOnExit();
+  }
+
+  @Override
+  public synchronized Image get(String name) {
+    Resident entry = resident.get(name);
+    if (entry != null) {
+      hits++;
+      // The image may have been computed, or grown, since it was counted
+      recount(entry);
+      evict(name);
+      return entry.image;
+    }
+
+    misses++;
+    Path file = spilled.remove(name);
+    if (file == null) {
+      return null;
+    }
+    Image image = readSpill(file);
+    add(name, image);
+    evict(name);
+    return image;
+  }
+
+  @Override
+  public synchronized void put(String name, Image image) {
+    Path file = spilled.remove(name);
+    if (file != null) {
+      deleteSpill(file);
+    }
+    drop(resident.remove(name));
+    add(name, image);
+    evict(name);
+  }
+
+  @Override
+  public synchronized void remove(String name) {
+    drop(resident.remove(name));
+    Path file = spilled.remove(name);
+    if (file != null) {
+      deleteSpill(file);
+    }
+  }
+
+  @Override
+  public synchronized ImageStoreMetrics getMetrics() {
+    return new ImageStoreMetrics(hits, misses, evictions, residentBytes);
+  }
+
+  /**
+   * Finds the memory an image takes, or will take once computed for a deferred image.
+   */
+  private static long measure(Resident entry) {
+    Image image = entry.image;
+    if (image.isMaterialized()) {
+      return image.getResidentBytes();
+    }
+    return (long) image.getHeight() * image.getWidth()
+            * ImageUtil.getStorageType().bytesPerPixel();
+  }
+
+  private void add(String name, Image image) {
+    Resident entry = new Resident(image);
+    entry.bytes = measure(entry);
+    residentBytes += entry.bytes;
+    resident.put(name, entry);
+  }
+
+  private void drop(Resident entry) {
+    if (entry != null) {
+      residentBytes -= entry.bytes;
+    }
+  }
+
+  private void recount(Resident entry) {
+    long bytes = measure(entry);
+    residentBytes += bytes - entry.bytes;
+    entry.bytes = bytes;
+  }
+
+  /**
+   * Spills the least recently used images until the budget is met, keeping the image just used.
+   * The deferred images are computed first, so that no resident image holds on to another one.
+   */
+  private void evict(String keep) {
+    if (residentBytes <= budgetBytes) {
+      return;
+    }
+    for (Resident entry : resident.values()) {
+      if (!entry.image.isMaterialized()) {
+        entry.image.materialize();
+        recount(entry);
+      }
+    }
+
+    Iterator<Map.Entry<String, Resident>> entries = resident.entrySet().iterator();
+    while (residentBytes > budgetBytes && entries.hasNext()) {
+      Map.Entry<String, Resident> entry = entries.next();
+      if (entry.getKey().equals(keep)) {
+        continue;
+      }
+      spilled.put(entry.getKey(), writeSpill(entry.getValue().image));
+      entries.remove();
+      drop(entry.getValue());
+      evictions++;
+    }
+  }
+
+  private Path writeSpill(Image image) {
+    Path file = spillDirectory.resolve("image-" + (spillCount++) + ".spill");
+    int height = image.getHeight();
+    int width = image.getWidth();
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(file), 1 << 16))) {
+      out.writeInt(height);
+      out.writeInt(width);
+      int[] row = new int[width];
+      byte[] bytes = new byte[3 * width];
+      for (int i = 0; i < height; i++) {
+        image.getRow(i, row);
+        for (int j = 0; j < width; j++) {
+          bytes[3 * j] = (byte) (row[j] >> 16);
+          bytes[3 * j + 1] = (byte) (row[j] >> 8);
+          bytes[3 * j + 2] = (byte) row[j];
+        }
+        out.write(bytes);
+      }
+      // The coefficients kept by the compression, for the wavelet file format
+      byte[] encoding = image.getWaveletEncoding();
+      out.writeInt(encoding == null ? -1 : encoding.length);
+      if (encoding != null) {
+        out.write(encoding);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not spill image to " + file, e);
+    }
+    file.toFile().deleteOnExit();
+    return file;
+  }
+
+  private Image readSpill(Path file) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Files.newInputStream(file), 1 << 16))) {
+      int height = in.readInt();
+      int width = in.readInt();
+      PixelStorage storage = ImageUtil.newStorage(height, width);
+      int[] row = new int[width];
+      byte[] bytes = new byte[3 * width];
+      for (int i = 0; i < height; i++) {
+        in.readFully(bytes);
+        for (int j = 0; j < width; j++) {
+          row[j] = ((bytes[3 * j] & 0xFF) << 16) | ((bytes[3 * j + 1] & 0xFF) << 8)
+                  | (bytes[3 * j + 2] & 0xFF);
+        }
+        storage.setRow(i, row);
+      }
+      Image image = new Image(storage);
+      int encodingLength = in.readInt();
+      if (encodingLength >= 0) {
+        byte[] encoding = new byte[encodingLength];
+        in.readFully(encoding);
+        image.keepWaveletEncoding(encoding);
+      }
+      return image;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not reload image from " + file, e);
+    } finally {
+      deleteSpill(file);
+    }
+  }
+
+  private static void deleteSpill(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // The file is deleted on exit anyway
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package model;
+
+/**
+ * A read-only view of one of the channels of an {@link Image}. Reading through a view does not
+ * copy the channel, unlike {@link Image#getRedChannel()} and its siblings.
+ */
+public interface ChannelView {
+
+  /**
+   * Returns the value of the channel at the given pixel.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the channel value, between 0 and 255.
+   */
+  int get(int row, int col);
+
+  /**
+   * Returns the number of columns of the channel.
+   *
+   * @return the width in pixels.
+   */
+  int width();
+
+  /**
+   * Returns the number of rows of the channel.
+   *
+   * @return the height in pixels.
+   */
+  int height();
+
+  /**
+   * Copies one row of the channel into the provided buffer.
+   *
+   * @param row  the row to read.
+   * @param dest the buffer to fill, at least as long as the width.
+   */
+  void getRow(int row, int[] dest);
+}
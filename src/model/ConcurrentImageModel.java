@@ -0,0 +1,62 @@
+package model;
+
+/**
+ * Implementation of the ImageModelV3 interface that can be used by several threads at once, for
+ * instance to run independent commands of a script in parallel or to serve several GUI actions.
+ * The images are kept in a {@link ConcurrentImageStore}. Images are immutable and are only stored
+ * once computed, so a reader of a name sees either the previous image or the new one, never a
+ * partially written one. Writers to different names do not share any lock.
+ */
+public class ConcurrentImageModel extends ImageModelImplV3 {
+  private final ConcurrentImageStore store;
+
+  /**
+   * Constructs a model over an empty concurrent store.
+   */
+  public ConcurrentImageModel() {
+    this(new ConcurrentImageStore());
+  }
+
+  /**
+   * Constructs a model over the provided concurrent store.
+   *
+   * @param store the store the images are kept in.
+   */
+  public ConcurrentImageModel(ConcurrentImageStore store) {
+    super(store);
+    this.store = store;
+  }
+
+  /**
+   * Images are never updated in place, since another thread may be reading the image replaced.
+   *
+   * @return false.
+   */
+  @Override
+  protected boolean supportsInPlace() {
+    return false;
+  }
+
+  /**
+   * Returns the version of an image name, increased each time an image is stored under it.
+   *
+   * @param imageName the name of the image.
+   * @return the version of the name, 0 if no image was ever stored under this name.
+   */
+  public long getVersion(String imageName) {
+    return store.getVersion(imageName);
+  }
+
+  /**
+   * Stores an image under a name only if no other image was stored under it since the expected
+   * version was read.
+   *
+   * @param imageName       the name of the image.
+   * @param expectedVersion the version the name must be at, 0 for a name with no image yet.
+   * @param image           the image to store.
+   * @return true if the image was stored, false if another image was stored under the name first.
+   */
+  public boolean putImage(String imageName, long expectedVersion, Image image) {
+    return store.put(imageName, expectedVersion, image);
+  }
+}
@@ -0,0 +1,108 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps every image in memory in a concurrent map, so that several threads can read and write
+ * images at once. Every name carries a version, increased each time an image is stored under it.
+ * Writers to different names never wait for each other, and an image is only visible once it has
+ * been stored whole.
+ */
+public class ConcurrentImageStore implements ImageStore {
+
+  /**
+   * An image together with the version it was stored as. Entries are never modified, a new one
+   * replaces the old one. A removed image leaves an entry without image, so the version of its
+   * name keeps increasing.
+   */
+  private static final class Entry {
+    private final Image image;
+    private final long version;
+
+    private Entry(Image image, long version) {
+      this.image = image;
+      this.version = version;
+    }
+  }
+
+  private final Map<String, Entry> images;
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  /**
+   * Creates an empty store.
+   */
+  public ConcurrentImageStore() {
+    this.images = new ConcurrentHashMap<>();
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+  }
+
+  @Override
+  public Image get(String name) {
+    Entry entry = images.get(name);
+    if (entry == null || entry.image == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.image;
+  }
+
+  @Override
+  public void put(String name, Image image) {
+    images.compute(name, (key, old) -> new Entry(image, old == null ? 1 : old.version + 1));
+  }
+
+  @Override
+  public void remove(String name) {
+    // A writer that read the version before the removal must not store its image over it
+    images.computeIfPresent(name, (key, old) -> new Entry(null, old.version + 1));
+  }
+
+  /**
+   * Stores an image under a name only if the name is still at the expected version, that is if no
+   * other image was stored under it since that version was read.
+   *
+   * @param name            the name of the image.
+   * @param expectedVersion the version the name must be at, 0 for a name with no image yet.
+   * @param image           the image to store.
+   * @return true if the image was stored, false if the name is at another version.
+   */
+  public boolean put(String name, long expectedVersion, Image image) {
+    boolean[] stored = new boolean[1];
+    images.compute(name, (key, old) -> {
+      long version = old == null ? 0 : old.version;
+      if (version != expectedVersion) {
+        return old;
+      }
+      stored[0] = true;
+      return new Entry(image, version + 1);
+    });
+    return stored[0];
+  }
+
+  /**
+   * Returns the version of a name, increased each time an image is stored under it.
+   *
+   * @param name the name of the image.
+   * @return the version of the name, 0 if no image was ever stored under this name.
+   */
+  public long getVersion(String name) {
+    Entry entry = images.get(name);
+    return entry == null ? 0 : entry.version;
+  }
+
+  @Override
+  public ImageStoreMetrics getMetrics() {
+    long residentBytes = 0;
+    for (Entry entry : images.values()) {
+      if (entry.image != null) {
+        residentBytes += entry.image.getResidentBytes();
+      }
+    }
+    return new ImageStoreMetrics(hits.sum(), misses.sum(), 0, residentBytes);
+  }
+}
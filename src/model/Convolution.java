@@ -0,0 +1,268 @@
+package model;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Applies a square kernel of any odd size to an image. Kernels of rank one, such as the Gaussian
+ * blur, are split into a row and a column kernel and applied in two passes, which takes 2k
+ * multiplications per pixel instead of k * k. Sums are accumulated in floats and rounded once.
+ */
+class Convolution {
+  private static final float RANK_TOLERANCE = 1e-6f;
+
+  private final float[][] kernel;
+  private final int radius;
+  private final BorderMode border;
+  private final float[] rowKernel;
+  private final float[] columnKernel;
+
+  /**
+   * Prepares a kernel to be applied, splitting it when it has rank one.
+   *
+   * @param kernel the square kernel, with an odd size.
+   * @param border how pixels beyond the edges are read.
+   */
+  Convolution(float[][] kernel, BorderMode border) {
+    if (kernel == null || kernel.length % 2 == 0) {
+      throw new IllegalArgumentException("Kernel size must be odd.");
+    }
+    for (float[] row : kernel) {
+      if (row.length != kernel.length) {
+        throw new IllegalArgumentException("Kernel must be square.");
+      }
+    }
+    if (border == null) {
+      throw new IllegalArgumentException("Border mode cannot be null.");
+    }
+
+    this.kernel = kernel;
+    this.radius = kernel.length / 2;
+    this.border = border;
+
+    float[][] factors = separate(kernel);
+    this.columnKernel = factors == null ? null : factors[0];
+    this.rowKernel = factors == null ? null : factors[1];
+  }
+
+  /**
+   * Getter for the number of pixels the kernel reads on each side of a pixel.
+   *
+   * @return the radius of the kernel.
+   */
+  int radius() {
+    return radius;
+  }
+
+  /**
+   * Tells if the kernel is applied as a row and a column pass.
+   *
+   * @return true if the kernel has rank one.
+   */
+  boolean isSeparable() {
+    return rowKernel != null;
+  }
+
+  /**
+   * Splits a kernel of rank one into a column and a row kernel whose product gives it back.
+   *
+   * @param kernel the kernel to split.
+   * @return the column and the row kernel, or null if the kernel cannot be split.
+   */
+  private static float[][] separate(float[][] kernel) {
+    int size = kernel.length;
+    int pivotRow = 0;
+    int pivotColumn = 0;
+    float largest = 0;
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (Math.abs(kernel[i][j]) > largest) {
+          largest = Math.abs(kernel[i][j]);
+          pivotRow = i;
+          pivotColumn = j;
+        }
+      }
+    }
+    if (largest == 0) {
+      return null;
+    }
+
+    float[] column = new float[size];
+    float[] row = new float[size];
+    for (int i = 0; i < size; i++) {
+      column[i] = kernel[i][pivotColumn];
+      row[i] = kernel[pivotRow][i] / kernel[pivotRow][pivotColumn];
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (Math.abs(column[i] * row[j] - kernel[i][j]) > RANK_TOLERANCE * largest) {
+          return null;
+        }
+      }
+    }
+    return new float[][]{column, row};
+  }
+
+  /**
+   * Applies the kernel to the whole image, one band of rows per thread.
+   *
+   * @param image the image to filter.
+   * @return returns the filtered image.
+   */
+  Image apply(Image image) {
+    PixelStorage result = ImageUtil.newStorage(image.getHeight(), image.getWidth());
+    RowExecutor.forEachBand(image.getHeight(), image.getWidth(),
+            (rowStart, rowEnd) -> apply(image, result, rowStart, rowEnd));
+    return new Image(result);
+  }
+
+  /**
+   * Applies the kernel to a band of rows of the image, writing them into the result.
+   *
+   * @param image    the image to filter.
+   * @param result   the storage the filtered rows are written into.
+   * @param rowStart the first row to filter.
+   * @param rowEnd   the row after the last one to filter.
+   */
+  void apply(Image image, PixelStorage result, int rowStart, int rowEnd) {
+    apply(image, rowStart, rowEnd, 0, image.getWidth(), (row, i) -> result.setRow(i, row));
+  }
+
+  /**
+   * Applies the kernel to a window of the image only, reading the pixels around the window the
+   * kernel needs from the image, or from the border beyond its edges. The cost follows the size
+   * of the window, not of the image.
+   *
+   * @param image    the image to filter.
+   * @param rowStart the first row of the window.
+   * @param rowEnd   the row after the last one of the window.
+   * @param colStart the first column of the window.
+   * @param colEnd   the column after the last one of the window.
+   * @param rows     receives each filtered row of the window, starting at colStart, with its
+   *                 row index. The array is reused for the next row.
+   */
+  void apply(Image image, int rowStart, int rowEnd, int colStart, int colEnd,
+             ObjIntConsumer<int[]> rows) {
+    int width = colEnd - colStart;
+    if (width <= 0) {
+      return;
+    }
+    RowCache cache = new RowCache(image, kernel.length, colStart, colEnd);
+    float[] sums = new float[3 * width];
+    int[] row = new int[width];
+
+    for (int i = rowStart; i < rowEnd; i++) {
+      Arrays.fill(sums, 0f);
+      for (int k = 0; k < kernel.length; k++) {
+        int source = border.map(i + k - radius, image.getHeight());
+        if (source < 0) {
+          continue;
+        }
+        if (isSeparable()) {
+          addScaled(sums, cache.filteredRow(source), columnKernel[k]);
+        } else {
+          addKernelRow(sums, cache.paddedRow(source), kernel[k], width);
+        }
+      }
+
+      for (int j = 0; j < width; j++) {
+        row[j] = ImageUtil.packPixel(Math.round(sums[3 * j]), Math.round(sums[3 * j + 1]),
+                Math.round(sums[3 * j + 2]));
+      }
+      rows.accept(row, i);
+    }
+  }
+
+  private static void addScaled(float[] sums, float[] values, float weight) {
+    for (int j = 0; j < sums.length; j++) {
+      sums[j] += weight * values[j];
+    }
+  }
+
+  /**
+   * Adds one row of the kernel applied along a padded row to the sums.
+   */
+  private static void addKernelRow(float[] sums, float[] padded, float[] weights, int width) {
+    for (int t = 0; t < weights.length; t++) {
+      float weight = weights[t];
+      if (weight == 0) {
+        continue;
+      }
+      int offset = 3 * t;
+      for (int j = 0; j < 3 * width; j++) {
+        sums[j] += weight * padded[offset + j];
+      }
+    }
+  }
+
+  /**
+   * Keeps the last few source rows the kernel read, padded with the border, and for separable
+   * kernels already filtered along the row, so that each source row is prepared only once. Only
+   * the columns of the window, and the ones around it the kernel reads, are kept.
+   */
+  private class RowCache {
+    private final Image image;
+    private final int imageWidth;
+    private final int colStart;
+    private final int width;
+    private final int[] tags;
+    private final float[][] padded;
+    private final float[][] filtered;
+    private final int[] pixels;
+
+    RowCache(Image image, int slots, int colStart, int colEnd) {
+      this.image = image;
+      this.imageWidth = image.getWidth();
+      this.colStart = colStart;
+      this.width = colEnd - colStart;
+      this.tags = new int[slots];
+      Arrays.fill(tags, -1);
+      this.padded = new float[slots][3 * (width + 2 * radius)];
+      this.filtered = isSeparable() ? new float[slots][3 * width] : null;
+      // A narrow window reads its pixels one by one rather than whole rows
+      this.pixels = 4 * width >= imageWidth ? new int[imageWidth] : null;
+    }
+
+    private int load(int source) {
+      int slot = source % tags.length;
+      if (tags[slot] == source) {
+        return slot;
+      }
+
+      if (pixels != null) {
+        image.getRow(source, pixels);
+      }
+      float[] pad = padded[slot];
+      for (int j = -radius; j < width + radius; j++) {
+        int column = border.map(colStart + j, imageWidth);
+        int at = 3 * (j + radius);
+        if (column < 0) {
+          pad[at] = 0;
+          pad[at + 1] = 0;
+          pad[at + 2] = 0;
+        } else {
+          int rgb = pixels != null ? pixels[column] : image.getRGB(source, column);
+          pad[at] = (rgb >> 16) & 0xFF;
+          pad[at + 1] = (rgb >> 8) & 0xFF;
+          pad[at + 2] = rgb & 0xFF;
+        }
+      }
+
+      if (filtered != null) {
+        float[] out = filtered[slot];
+        Arrays.fill(out, 0f);
+        addKernelRow(out, pad, rowKernel, width);
+      }
+      tags[slot] = source;
+      return slot;
+    }
+
+    float[] paddedRow(int source) {
+      return padded[load(source)];
+    }
+
+    float[] filteredRow(int source) {
+      return filtered[load(source)];
+    }
+  }
+}
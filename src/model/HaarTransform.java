@@ -0,0 +1,169 @@
+package model;
+
+import static model.RowExecutor.forEachBand;
+
+/**
+ * The 2D Haar wavelet transform used by the compression, applied in place to a rectangle of
+ * coefficients of any size. Each level splits the rows, then the columns, of the top-left
+ * rectangle into averages followed by differences, dividing both by the square root of 2. Each
+ * axis has its own number of levels: an axis of length 1 is no longer split, and the last value
+ * of an axis of odd length is carried over with the averages, so nothing is padded.
+ * Rows are transformed through one scratch row per band of rows. Columns are transformed a pair
+ * of rows at a time across their whole width, which reads memory in order, and the rows are then
+ * reordered by moving the row references only. Both passes run on the shared row executor.
+ * It is also used by the wavelet file format, which stores the coefficients themselves.
+ */
+public final class HaarTransform {
+  private static final double SQRT_2 = Math.sqrt(2);
+
+  private HaarTransform() {
+  }
+
+  /**
+   * Transforms a rectangle of values into its Haar coefficients, in place.
+   *
+   * @param values the values, as rows of the same length.
+   */
+  public static void forward(double[][] values) {
+    int rows = values.length;
+    int cols = rows == 0 ? 0 : values[0].length;
+    while (rows > 1 || cols > 1) {
+      if (cols > 1) {
+        forwardRows(values, rows, cols);
+      }
+      if (rows > 1) {
+        forwardColumns(values, rows, cols);
+      }
+      rows = (rows + 1) / 2;
+      cols = (cols + 1) / 2;
+    }
+  }
+
+  /**
+   * Transforms a rectangle of Haar coefficients back into values, in place.
+   *
+   * @param values the coefficients, as rows of the same length.
+   */
+  public static void inverse(double[][] values) {
+    int rows = values.length;
+    int cols = rows == 0 ? 0 : values[0].length;
+
+    // The levels are undone from the smallest rectangle back to the whole one
+    int levels = 0;
+    for (int r = rows, c = cols; r > 1 || c > 1; r = (r + 1) / 2, c = (c + 1) / 2) {
+      levels++;
+    }
+    for (int level = levels - 1; level >= 0; level--) {
+      int r = rows;
+      int c = cols;
+      for (int i = 0; i < level; i++) {
+        r = (r + 1) / 2;
+        c = (c + 1) / 2;
+      }
+      if (r > 1) {
+        inverseColumns(values, r, c);
+      }
+      if (c > 1) {
+        inverseRows(values, r, c);
+      }
+    }
+  }
+
+  private static void forwardRows(double[][] values, int rows, int cols) {
+    int half = cols / 2;
+    int averages = (cols + 1) / 2;
+    forEachBand(rows, cols, (rowStart, rowEnd) -> {
+      double[] scratch = new double[cols];
+      for (int i = rowStart; i < rowEnd; i++) {
+        double[] row = values[i];
+        for (int k = 0; k < half; k++) {
+          double first = row[2 * k];
+          double second = row[2 * k + 1];
+          scratch[k] = (first + second) / SQRT_2;
+          scratch[k + averages] = (first - second) / SQRT_2;
+        }
+        if (averages > half) {
+          scratch[half] = row[cols - 1];
+        }
+        System.arraycopy(scratch, 0, row, 0, cols);
+      }
+    });
+  }
+
+  private static void inverseRows(double[][] values, int rows, int cols) {
+    int half = cols / 2;
+    int averages = (cols + 1) / 2;
+    forEachBand(rows, cols, (rowStart, rowEnd) -> {
+      double[] scratch = new double[cols];
+      for (int i = rowStart; i < rowEnd; i++) {
+        double[] row = values[i];
+        for (int k = 0; k < half; k++) {
+          double avg = row[k];
+          double diff = row[k + averages];
+          scratch[2 * k] = (avg + diff) / SQRT_2;
+          scratch[2 * k + 1] = (avg - diff) / SQRT_2;
+        }
+        if (averages > half) {
+          scratch[cols - 1] = row[half];
+        }
+        System.arraycopy(scratch, 0, row, 0, cols);
+      }
+    });
+  }
+
+  private static void forwardColumns(double[][] values, int rows, int cols) {
+    int half = rows / 2;
+    int averages = (rows + 1) / 2;
+    // Rows 2k and 2k+1 become their average and difference in place
+    forEachBand(half, 2 * cols, (pairStart, pairEnd) -> {
+      for (int k = pairStart; k < pairEnd; k++) {
+        double[] first = values[2 * k];
+        double[] second = values[2 * k + 1];
+        for (int j = 0; j < cols; j++) {
+          double sum = (first[j] + second[j]) / SQRT_2;
+          second[j] = (first[j] - second[j]) / SQRT_2;
+          first[j] = sum;
+        }
+      }
+    });
+
+    // The averages, and the last row of an odd count, move to the top and the differences below
+    double[][] reordered = new double[rows][];
+    for (int k = 0; k < half; k++) {
+      reordered[k] = values[2 * k];
+      reordered[k + averages] = values[2 * k + 1];
+    }
+    if (averages > half) {
+      reordered[half] = values[rows - 1];
+    }
+    System.arraycopy(reordered, 0, values, 0, rows);
+  }
+
+  private static void inverseColumns(double[][] values, int rows, int cols) {
+    int half = rows / 2;
+    int averages = (rows + 1) / 2;
+    // The average of row k and the difference of row k+averages go back to rows 2k and 2k+1
+    double[][] reordered = new double[rows][];
+    for (int k = 0; k < half; k++) {
+      reordered[2 * k] = values[k];
+      reordered[2 * k + 1] = values[k + averages];
+    }
+    if (averages > half) {
+      reordered[rows - 1] = values[half];
+    }
+    System.arraycopy(reordered, 0, values, 0, rows);
+
+    forEachBand(half, 2 * cols, (pairStart, pairEnd) -> {
+      for (int k = pairStart; k < pairEnd; k++) {
+        double[] first = values[2 * k];
+        double[] second = values[2 * k + 1];
+        for (int j = 0; j < cols; j++) {
+          double avg = first[j];
+          double diff = second[j];
+          first[j] = (avg + diff) / SQRT_2;
+          second[j] = (avg - diff) / SQRT_2;
+        }
+      }
+    });
+  }
+}
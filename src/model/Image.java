@@ -1,43 +1,313 @@
 package model;
 
+import java.util.function.Supplier;
+
 /**
  * This is the representation class of any Image that is going to be processed in the entire
- * application. It contains 3 channels, Red, Green and Blue as 2D Arrays.
- * It also contains logic for intensity, luma and value for a particular pixel.
+ * application. It contains 3 channels, Red, Green and Blue, kept in a {@link PixelStorage}
+ * backend chosen through {@link ImageUtil#setStorageType(StorageType)}.
+ * It also contains row and pixel accessors that the operations use to read the image.
  */
 public class Image {
 
   /**
-   * This represents each of the channel, namely R G B.
-   * Represented as final, so that channels can't be modified later on anyhow.
+   * This represents the pixels of the image, namely R G B. It stays null for a deferred image
+   * until its pixels are first read.
    */
-  private final int[][] redChannel;
-  private final int[][] greenChannel;
-  private final int[][] blueChannel;
+  private volatile PixelStorage storage;
+  private final int height;
+  private final int width;
+  private final ChannelView redView;
+  private final ChannelView greenView;
+  private final ChannelView blueView;
+
+  /*
+  What a deferred image is computed from, either point-wise steps applied to a source image or
+  any other computation. Both are dropped once the pixels exist, releasing the source images.
+  */
+  private Image source;
+  private PixelPipeline pipeline;
+  private Supplier<Image> computation;
+
+  /*
+  Set once the image may be referenced from outside the model that created it, that is once it
+  was given to or read by a caller, or captured by a deferred image. A model only updates the
+  pixels of an image in place while nothing else can observe them.
+  */
+  private volatile boolean shared;
+
+  /*
+  The histograms of the pixels, counted the first time they are asked for. They are dropped
+  whenever the pixels are overwritten in place.
+  */
+  private volatile ImageStatistics statistics;
+
+  /*
+  The pixels whose red value is 0, found the first time the image is used as a mask. They are
+  dropped whenever the pixels are overwritten in place.
+  */
+  private volatile Mask mask;
+
+  /*
+  The Haar coefficients the pixels were reconstructed from, kept by the compression as the
+  deflated tokens of the wavelet file format, so that the format stores the dropped coefficients as
+  the zeros they are. They take about as much memory as the file. They are dropped whenever the
+  pixels are overwritten in place.
+  */
+  private volatile byte[] waveletEncoding;
 
   /**
-   * Initiates a new image object given R G B values.
+   * Initiates a new image object given R G B values. The channels are kept as they are when the
+   * planar backend is selected, otherwise they are copied into the selected backend.
    *
    * @param redChannel   Red Component.
    * @param greenChannel Green Component.
    * @param blueChannel  Blue Component.
    */
   public Image(int[][] redChannel, int[][] greenChannel, int[][] blueChannel) {
-    this.redChannel = redChannel;
-    this.greenChannel = greenChannel;
-    this.blueChannel = blueChannel;
+    this(toStorage(redChannel, greenChannel, blueChannel));
+  }
+
+  /**
+   * Initiates a new image object backed by the provided storage.
+   *
+   * @param storage the pixels of the image.
+   */
+  public Image(PixelStorage storage) {
+    this(storage.getHeight(), storage.getWidth());
+    this.storage = storage;
+  }
+
+  private Image(int height, int width) {
+    this.height = height;
+    this.width = width;
+    this.redView = new StorageChannelView(this, 16);
+    this.greenView = new StorageChannelView(this, 8);
+    this.blueView = new StorageChannelView(this, 0);
+  }
+
+  /**
+   * Creates an image whose pixels are computed from the source the first time they are read.
+   * Point-wise steps deferred on top of a deferred point-wise image are fused with its steps, so
+   * the image in between is never computed unless it is read itself.
+   *
+   * @param source   the image the steps are applied to.
+   * @param pipeline the point-wise steps.
+   * @return the deferred image.
+   */
+  static Image deferred(Image source, PixelPipeline pipeline) {
+    Image root = source;
+    PixelPipeline steps = pipeline;
+    synchronized (source) {
+      if (source.storage == null && source.pipeline != null) {
+        root = source.source;
+        steps = source.pipeline.then(pipeline);
+      }
+    }
+
+    Image image = new Image(source.height, source.width);
+    image.source = root;
+    image.pipeline = steps;
+    return image;
+  }
+
+  /**
+   * Creates an image whose pixels are computed the first time they are read.
+   *
+   * @param height      the number of rows the computed image has.
+   * @param width       the number of columns the computed image has.
+   * @param computation computes the image.
+   * @return the deferred image.
+   */
+  static Image deferred(int height, int width, Supplier<Image> computation) {
+    Image image = new Image(height, width);
+    image.computation = computation;
+    return image;
+  }
+
+  /**
+   * Creates the image of a mask, black where it selects and white elsewhere. Its pixels are only
+   * computed when read, and until then the image takes the memory of the runs of the mask alone.
+   *
+   * @param mask the mask.
+   * @return the deferred image, which already knows its mask.
+   */
+  static Image fromMask(Mask mask) {
+    Image image = deferred(mask.getHeight(), mask.getWidth(), mask::render);
+    image.mask = mask;
+    return image;
+  }
+
+  /**
+   * Tells if the pixels of the image have been computed.
+   *
+   * @return false for a deferred image that was never read, true otherwise.
+   */
+  public boolean isMaterialized() {
+    return storage != null;
+  }
+
+  /**
+   * Computes the pixels of a deferred image now, which lets go of what it is computed from.
+   */
+  void materialize() {
+    storage();
+  }
+
+  /**
+   * Marks the image as referenced from outside the model, so that its pixels are never updated in
+   * place.
+   */
+  void share() {
+    shared = true;
+  }
+
+  /**
+   * Tells if the image may be referenced from outside the model that created it.
+   *
+   * @return true once the image was shared.
+   */
+  boolean isShared() {
+    return shared;
+  }
+
+  /**
+   * Returns the histograms and statistics of the pixels. They are computed in one pass the first
+   * time and kept with the image, so later calls cost nothing.
+   *
+   * @return the statistics of the image.
+   */
+  public ImageStatistics getStatistics() {
+    ImageStatistics result = statistics;
+    if (result == null) {
+      result = ImageStatistics.of(this);
+      statistics = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the pixels selected when the image is used as a mask, those whose red value is 0.
+   * They are found in one pass the first time and kept with the image, so the same mask used by
+   * several masked operations is only scanned once.
+   *
+   * @return the mask of the image.
+   */
+  Mask getMask() {
+    Mask result = mask;
+    if (result == null) {
+      result = Mask.scan(this);
+      mask = result;
+    }
+    return result;
+  }
+
+  /**
+   * Keeps the Haar coefficients the pixels were reconstructed from.
+   *
+   * @param encoding the coefficients of the red, green and blue channels, encoded by
+   *                 {@link WaveletEncoder#encode}.
+   */
+  void keepWaveletEncoding(byte[] encoding) {
+    this.waveletEncoding = encoding;
   }
 
   /**
-   * Creates a clone of the provided 2D array(channel).
+   * Returns the Haar coefficients the pixels were reconstructed from, if the image is the result
+   * of a compression, computing the image first if it is deferred.
    *
-   * @param originalArray the 2D array/ channel whose clone is to be created.
-   * @return the clone of the 2D array/channel.
+   * @return a copy of the coefficients of the red, green and blue channels, encoded by
+   *         {@link WaveletEncoder#encode}, or null if the image does not keep them.
    */
-  private static int[][] copyArray2D(int[][] originalArray) {
-    int[][] copyArray = new int[originalArray.length][originalArray[0].length];
-    for (int i = 0; i < originalArray.length; i++) {
-      copyArray[i] = originalArray[i].clone();
+  public byte[] getWaveletEncoding() {
+    storage();
+    byte[] kept = waveletEncoding;
+    return kept == null ? null : kept.clone();
+  }
+
+  /**
+   * Estimates the memory taken by the pixels of the image, and by the coefficients it keeps.
+   *
+   * @return the size of the pixels in bytes, 0 for a deferred image that was never read.
+   */
+  public long getResidentBytes() {
+    PixelStorage pixels = storage;
+    if (pixels == null) {
+      return 0;
+    }
+    byte[] encoding = waveletEncoding;
+    long encodingBytes = encoding == null ? 0 : encoding.length;
+    return (long) height * width * pixels.getType().bytesPerPixel() + encodingBytes;
+  }
+
+  /**
+   * Returns the pixels of the image, computing them first for a deferred image.
+   *
+   * @return the storage of the image.
+   */
+  private PixelStorage storage() {
+    PixelStorage pixels = storage;
+    if (pixels == null) {
+      synchronized (this) {
+        pixels = storage;
+        if (pixels == null) {
+          Image computed = pipeline != null ? pipeline.apply(source) : computation.get();
+          pixels = computed.storage();
+          waveletEncoding = computed.waveletEncoding;
+          storage = pixels;
+          source = null;
+          pipeline = null;
+          computation = null;
+        }
+      }
+    }
+    return pixels;
+  }
+
+  /**
+   * Wraps or copies the provided channels into the selected storage backend.
+   *
+   * @param redChannel   Red Component.
+   * @param greenChannel Green Component.
+   * @param blueChannel  Blue Component.
+   * @return the storage holding the channels.
+   */
+  private static PixelStorage toStorage(int[][] redChannel, int[][] greenChannel,
+                                        int[][] blueChannel) {
+    if (ImageUtil.getStorageType() == StorageType.PLANAR) {
+      return new PlanarPixelStorage(redChannel, greenChannel, blueChannel);
+    }
+
+    int height = redChannel.length;
+    int width = height == 0 ? 0 : redChannel[0].length;
+    PixelStorage storage = ImageUtil.newStorage(height, width);
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        storage.setRGB(i, j, redChannel[i][j], greenChannel[i][j], blueChannel[i][j]);
+      }
+    }
+    return storage;
+  }
+
+  /**
+   * Copies one of the channels out of the storage as a 2D array.
+   *
+   * @param channel 0 for red, 1 for green and 2 for blue.
+   * @return the channel as a new 2D array.
+   */
+  private int[][] copyChannel(int channel) {
+    PixelStorage storage = storage();
+    int[][] copyArray = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        if (channel == 0) {
+          copyArray[i][j] = storage.getRed(i, j);
+        } else if (channel == 1) {
+          copyArray[i][j] = storage.getGreen(i, j);
+        } else {
+          copyArray[i][j] = storage.getBlue(i, j);
+        }
+      }
     }
 
     return copyArray;
@@ -49,7 +319,7 @@ public class Image {
    * @return Red Channel as 2D Array.
    */
   public int[][] getRedChannel() {
-    return copyArray2D(redChannel);
+    return copyChannel(0);
   }
 
   /**
@@ -58,7 +328,7 @@ public class Image {
    * @return Green Channel as 2D Array.
    */
   public int[][] getGreenChannel() {
-    return copyArray2D(greenChannel);
+    return copyChannel(1);
   }
 
   /**
@@ -67,7 +337,128 @@ public class Image {
    * @return Blue Channel as 2D Array.
    */
   public int[][] getBlueChannel() {
-    return copyArray2D(blueChannel);
+    return copyChannel(2);
+  }
+
+  /**
+   * Read-only view of the Red Channel, without copying it.
+   *
+   * @return Red Channel as a view.
+   */
+  public ChannelView getRedView() {
+    return redView;
+  }
+
+  /**
+   * Read-only view of the Green Channel, without copying it.
+   *
+   * @return Green Channel as a view.
+   */
+  public ChannelView getGreenView() {
+    return greenView;
+  }
+
+  /**
+   * Read-only view of the Blue Channel, without copying it.
+   *
+   * @return Blue Channel as a view.
+   */
+  public ChannelView getBlueView() {
+    return blueView;
+  }
+
+  /**
+   * Getter for the height of the image.
+   *
+   * @return the number of rows.
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Getter for the width of the image.
+   *
+   * @return the number of columns.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Getter for the red value of a pixel.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the red value.
+   */
+  public int getRed(int row, int col) {
+    return storage().getRed(row, col);
+  }
+
+  /**
+   * Getter for the green value of a pixel.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the green value.
+   */
+  public int getGreen(int row, int col) {
+    return storage().getGreen(row, col);
+  }
+
+  /**
+   * Getter for the blue value of a pixel.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the blue value.
+   */
+  public int getBlue(int row, int col) {
+    return storage().getBlue(row, col);
+  }
+
+  /**
+   * Getter for a pixel packed as 0xRRGGBB.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the packed pixel.
+   */
+  public int getRGB(int row, int col) {
+    return storage().getRGB(row, col);
+  }
+
+  /**
+   * Copies one row of packed 0xRRGGBB pixels into the provided buffer.
+   *
+   * @param row  the row to read.
+   * @param dest the buffer to fill, at least as long as the width.
+   */
+  public void getRow(int row, int[] dest) {
+    storage().getRow(row, dest);
+  }
+
+  /**
+   * Getter for the kind of backend storing this image.
+   *
+   * @return the storage type.
+   */
+  public StorageType getStorageType() {
+    return storage().getType();
+  }
+
+  /**
+   * Getter for the storage itself, for the operations of this package overwriting the pixels in
+   * place. The statistics, mask and coefficients kept for the old pixels are dropped.
+   *
+   * @return the storage backing this image.
+   */
+  PixelStorage getStorage() {
+    statistics = null;
+    mask = null;
+    waveletEncoding = null;
+    return storage();
   }
 
   /**
@@ -75,27 +466,9 @@ public class Image {
    * CLAMPING DYNAMIC VALUES
    */
   protected void clamp() {
-    for (int i = 0; i < redChannel.length; i++) {
-      for (int j = 0; j < redChannel[i].length; j++) {
-        if (redChannel[i][j] > 255) {
-          redChannel[i][j] = 255;
-        }
-        if (greenChannel[i][j] > 255) {
-          greenChannel[i][j] = 255;
-        }
-        if (blueChannel[i][j] > 255) {
-          blueChannel[i][j] = 255;
-        }
-        if (redChannel[i][j] < 0) {
-          redChannel[i][j] = 0;
-        }
-        if (greenChannel[i][j] < 0) {
-          greenChannel[i][j] = 0;
-        }
-        if (blueChannel[i][j] < 0) {
-          blueChannel[i][j] = 0;
-        }
-      }
-    }
+    statistics = null;
+    mask = null;
+    waveletEncoding = null;
+    storage().clamp();
   }
 }
@@ -102,4 +102,35 @@ public interface ImageModel {
    * @param image     the actual image object.
    */
   void putImage(String imageName, Image image);
+
+  /**
+   * Retrieves the image associated with the given name for a caller that only reads it before
+   * returning and does not keep the reference, such as a writer saving it to a file. Unlike
+   * {@link #getImage}, the image may still be updated in place by later operations.
+   *
+   * @param imageName the name of the image to get.
+   * @return returns the fetched image object.
+   */
+  default Image borrowImage(String imageName) {
+    return getImage(imageName);
+  }
+
+  /**
+   * Assigns an image nothing else refers to, such as an image just read from a file, to its
+   * name. Unlike {@link #putImage}, the caller gives the image up, so the model may update it in
+   * place.
+   *
+   * @param imageName name of the image.
+   * @param image     the actual image object, not used by the caller afterwards.
+   */
+  default void adoptImage(String imageName, Image image) {
+    putImage(imageName, image);
+  }
+
+  /**
+   * Removes the image associated with the given name, if there is one.
+   *
+   * @param imageName name of the image.
+   */
+  void removeImage(String imageName);
 }
@@ -1,20 +1,12 @@
 package model;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-import static model.ImageOperations.blur;
-import static model.ImageOperations.brighten;
 import static model.ImageOperations.combineRGB;
-import static model.ImageOperations.extractBlueComponent;
-import static model.ImageOperations.extractGreenComponent;
-import static model.ImageOperations.extractRedComponent;
-import static model.ImageOperations.pixelIntensity;
-import static model.ImageOperations.pixelLuma;
-import static model.ImageOperations.pixelValue;
-import static model.ImageOperations.sepia;
-import static model.ImageOperations.sharpen;
-import static model.ImageOperations.splitRGB;
+
 
 /**
  * This class provides functionality to manage and manipulate images. It supports operations like
@@ -25,52 +17,221 @@ import static model.ImageOperations.splitRGB;
  */
 public class ImageModelImpl implements ImageModel {
   /*
-  This class uses a Map to store images by their names and applies different operations
+  This class uses an ImageStore to store images by their names and applies different operations
   such as flipping, brightening, and applying filters on these images.
   */
-  protected Map<String, Image> images;
+  protected ImageStore images;
+
+  /*
+  In lazy mode the operations store deferred images, whose pixels are only computed when they are
+  read, for instance to save or display them, or to compute another image that is read. Chains of
+  point-wise operations are fused into a single pass. Deferred images refer to the images they are
+  computed from rather than to their names, so replacing a name later does not change them.
+  */
+  private volatile boolean lazy;
 
   /**
-   * This constructor initializes the HashMap.
+   * This constructor initializes the store of images. Images are kept in memory without limit,
+   * unless the perfectpixel.memoryBudget system property sets a budget in megabytes. The lazy
+   * mode is off unless the perfectpixel.lazy system property is set to true.
    */
   public ImageModelImpl() {
-    this.images = new HashMap<>();
+    this(defaultStore());
+  }
+
+  /**
+   * This constructor initializes the model over the provided store of images.
+   *
+   * @param store the store the images are kept in.
+   */
+  public ImageModelImpl(ImageStore store) {
+    if (store == null) {
+      throw new IllegalArgumentException("Image store cannot be null.");
+    }
+    this.images = store;
+    this.lazy = Boolean.getBoolean("perfectpixel.lazy");
+  }
+
+  /**
+   * Creates the store selected through the perfectpixel.memoryBudget system property.
+   *
+   * @return the store of images.
+   */
+  private static ImageStore defaultStore() {
+    Long budget = Long.getLong("perfectpixel.memoryBudget");
+    if (budget == null) {
+      return new MapImageStore();
+    }
+    try {
+      return new BoundedImageStore(budget * 1024 * 1024);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not create the spill directory.", e);
+    }
+  }
+
+  /**
+   * Returns how the store of images has been used so far.
+   *
+   * @return the metrics of the store.
+   */
+  public ImageStoreMetrics getStoreMetrics() {
+    return images.getMetrics();
+  }
+
+  /**
+   * Turns the lazy mode on or off for the operations applied from now on.
+   *
+   * @param lazy true to defer computing images until they are read.
+   */
+  public void setLazy(boolean lazy) {
+    this.lazy = lazy;
+  }
+
+  /**
+   * Tells if the operations defer computing images until they are read.
+   *
+   * @return true in lazy mode.
+   */
+  public boolean isLazy() {
+    return lazy;
+  }
+
+  /**
+   * Applies point-wise operations to an image, or defers them in lazy mode.
+   *
+   * @param original the image to process.
+   * @param pipeline the operations to apply.
+   * @return the processed or deferred image.
+   */
+  protected Image compute(Image original, PixelPipeline pipeline) {
+    if (lazy) {
+      original.share();
+      return Image.deferred(original, pipeline);
+    }
+    return keepShared(pipeline.apply(original), original);
+  }
+
+  /**
+   * Applies an operation keeping the size of the image, or defers it in lazy mode.
+   *
+   * @param original  the image to process.
+   * @param operation the operation to apply.
+   * @return the processed or deferred image.
+   */
+  protected Image compute(Image original, ImageEffectProcessor operation) {
+    return compute(original.getHeight(), original.getWidth(),
+            () -> operation.applyEffect(original), original);
+  }
+
+  /**
+   * Computes an image, or defers it in lazy mode.
+   *
+   * @param height      the number of rows of the computed image.
+   * @param width       the number of columns of the computed image.
+   * @param computation computes the image.
+   * @param inputs      the images the computation reads.
+   * @return the computed or deferred image.
+   */
+  protected Image compute(int height, int width, Supplier<Image> computation,
+                          Image... inputs) {
+    if (lazy) {
+      for (Image input : inputs) {
+        input.share();
+      }
+      return Image.deferred(height, width, computation);
+    }
+    return keepShared(computation.get(), inputs);
+  }
+
+  /**
+   * Marks a computed image as shared when it is one of the images it was computed from, which
+   * are then stored under several names.
+   *
+   * @param result the computed image.
+   * @param inputs the images it was computed from.
+   * @return the computed image.
+   */
+  private static Image keepShared(Image result, Image... inputs) {
+    for (Image input : inputs) {
+      if (result == input) {
+        result.share();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Tells if this model may update the pixels of its images in place. The pixels are only ever
+   * updated by the thread applying the operation, so a model used by several threads at once
+   * must not.
+   *
+   * @return true if images may be updated in place.
+   */
+  protected boolean supportsInPlace() {
+    return true;
   }
 
   /**
-   * Extracts a specified component from the given image based on the provided ComponentType. It
-   * supports extracting the image components - red, green, blue, value, intensity, and luma.
+   * Tells if an operation can overwrite the pixels of its source instead of creating a new image.
+   * This is the case when the result replaces the source under the same name, and nothing else
+   * can reference the source: it was never given to or read by a caller, nor captured by a
+   * deferred image.
    *
-   * @param image         the image from which the component is to be extracted.
-   * @param componentType the type of component to be extracted.
-   * @return an image with just component of original image.
+   * @param imageName    the name of the source image.
+   * @param newImageName the name of the resulting image.
+   * @param original     the source image.
+   * @return true if the source can be updated in place.
    */
-  private Image extractComponent(Image image, ComponentType componentType) {
-    switch (componentType) {
-      case RED:
-        return extractRedComponent(image);
-      case GREEN:
-        return extractGreenComponent(image);
-      case BLUE:
-        return extractBlueComponent(image);
-      case VALUE:
-        return pixelValue(image);
-      case INTENSITY:
-        return pixelIntensity(image);
-      case LUMA:
-        return pixelLuma(image);
-      default:
-        throw new IllegalArgumentException("Unknown component type: " + componentType);
+  protected boolean canUpdateInPlace(String imageName, String newImageName, Image original) {
+    return !lazy && supportsInPlace() && imageName.equals(newImageName)
+            && original.isMaterialized() && !original.isShared();
+  }
+
+  /**
+   * Applies point-wise operations to an image, in place when the result replaces an image nothing
+   * else references.
+   *
+   * @param imageName    the name of the image to process.
+   * @param newImageName the name of the resulting image.
+   * @param original     the image to process.
+   * @param pipeline     the operations to apply.
+   * @return the processed or deferred image.
+   */
+  protected Image update(String imageName, String newImageName, Image original,
+                         PixelPipeline pipeline) {
+    if (canUpdateInPlace(imageName, newImageName, original)) {
+      pipeline.applyInPlace(original);
+      return original;
+    }
+    return compute(original, pipeline);
+  }
+
+  /**
+   * Applies an operation keeping the size of the image, in place when the result replaces an
+   * image nothing else references.
+   *
+   * @param imageName    the name of the image to process.
+   * @param newImageName the name of the resulting image.
+   * @param original     the image to process.
+   * @param operation    the operation creating a new image.
+   * @param inPlace      the same operation overwriting the pixels of the image.
+   * @return the processed or deferred image.
+   */
+  protected Image update(String imageName, String newImageName, Image original,
+                         ImageEffectProcessor operation, Consumer<Image> inPlace) {
+    if (canUpdateInPlace(imageName, newImageName, original)) {
+      inPlace.accept(original);
+      return original;
     }
+    return compute(original, operation);
   }
 
   @Override
   public void applyComponent(String imageName, String newImageName, ComponentType componentType) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image modifiedImage = extractComponent(original, componentType);
-      modifiedImage.clamp();  // Call clamp() if needed for specific types
-      images.put(newImageName, modifiedImage);
+      images.put(newImageName, update(imageName, newImageName, original,
+              new PixelPipeline().component(componentType)));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -80,8 +241,8 @@ public class ImageModelImpl implements ImageModel {
   public void flipHorizontally(String imageName, String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image flippedImage = ImageOperations.flipHorizontally(original);
-      images.put(newImageName, flippedImage);
+      images.put(newImageName, update(imageName, newImageName, original,
+              ImageOperations::flipHorizontally, ImageOperations::flipHorizontallyInPlace));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -91,8 +252,8 @@ public class ImageModelImpl implements ImageModel {
   public void flipVertically(String imageName, String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image flippedImage = ImageOperations.flipVertically(original);
-      images.put(newImageName, flippedImage);
+      images.put(newImageName, update(imageName, newImageName, original,
+              ImageOperations::flipVertically, ImageOperations::flipVerticallyInPlace));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -102,9 +263,8 @@ public class ImageModelImpl implements ImageModel {
   public void brightenImage(int increment, String imageName, String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image brightenedImage = brighten(original, increment);
-      brightenedImage.clamp();
-      images.put(newImageName, brightenedImage);
+      images.put(newImageName, update(imageName, newImageName, original,
+              new PixelPipeline().brighten(increment)));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -114,9 +274,7 @@ public class ImageModelImpl implements ImageModel {
   public void blurImage(String imageName, String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image blurredImage = blur(original);
-      blurredImage.clamp();
-      images.put(newImageName, blurredImage);
+      images.put(newImageName, compute(original, ImageOperations::blur));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -126,9 +284,7 @@ public class ImageModelImpl implements ImageModel {
   public void sharpenImage(String imageName, String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image sharpenedImage = sharpen(original);
-      sharpenedImage.clamp();
-      images.put(newImageName, sharpenedImage);
+      images.put(newImageName, compute(original, ImageOperations::sharpen));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -138,9 +294,8 @@ public class ImageModelImpl implements ImageModel {
   public void applySepia(String imageName, String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image sepiaImage = sepia(original);
-      sepiaImage.clamp();
-      images.put(newImageName, sepiaImage);
+      images.put(newImageName,
+              update(imageName, newImageName, original, new PixelPipeline().sepia()));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -150,10 +305,10 @@ public class ImageModelImpl implements ImageModel {
   public void rgbSplit(String imageName, String redImage, String greenImage, String blueImage) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image[] channels = splitRGB(original);
-      images.put(redImage, channels[0]);
-      images.put(greenImage, channels[1]);
-      images.put(blueImage, channels[2]);
+      images.put(redImage, compute(original, new PixelPipeline().component(ComponentType.RED)));
+      images.put(greenImage,
+              compute(original, new PixelPipeline().component(ComponentType.GREEN)));
+      images.put(blueImage, compute(original, new PixelPipeline().component(ComponentType.BLUE)));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -166,8 +321,9 @@ public class ImageModelImpl implements ImageModel {
     Image green = images.get(greenImage);
     Image blue = images.get(blueImage);
     if (red != null && green != null && blue != null) {
-      Image combinedImage = combineRGB(red, green, blue);
-      images.put(newImageName, combinedImage);
+      images.put(newImageName,
+              compute(red.getHeight(), red.getWidth(), () -> combineRGB(red, green, blue),
+                      red, green, blue));
     } else if (red == null) {
       throw new IllegalArgumentException("Image-" + redImage + " was never loaded.");
     } else if (green == null) {
@@ -177,6 +333,23 @@ public class ImageModelImpl implements ImageModel {
     }
   }
 
+  /**
+   * Applies a chain of point-wise operations to an image in a single pass, without creating the
+   * images in between the steps.
+   *
+   * @param imageName    the name of the image to process.
+   * @param newImageName the name of the resulting image.
+   * @param pipeline     the operations to apply, in order.
+   */
+  public void applyPipeline(String imageName, String newImageName, PixelPipeline pipeline) {
+    Image original = images.get(imageName);
+    if (original != null) {
+      images.put(newImageName, update(imageName, newImageName, original, pipeline));
+    } else {
+      throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
+    }
+  }
+
   @Override
   public Image getImage(String imageName) {
     Image thisImage = this.images.get(imageName);
@@ -184,15 +357,34 @@ public class ImageModelImpl implements ImageModel {
       throw new IllegalArgumentException("Image Not Found: " + imageName);
     }
 
-    int[][] redChannel = thisImage.getRedChannel();
-    int[][] greenChannel = thisImage.getGreenChannel();
-    int[][] blueChannel = thisImage.getBlueChannel();
-
-    return new Image(redChannel, greenChannel, blueChannel);
+    // The stored object is returned as is, so it is never updated in place from now on.
+    thisImage.share();
+    return thisImage;
   }
 
   @Override
   public void putImage(String imageName, Image image) {
+    // The caller keeps a reference to the image, so it is never updated in place.
+    image.share();
+    images.put(imageName, image);
+  }
+
+  @Override
+  public Image borrowImage(String imageName) {
+    Image thisImage = this.images.get(imageName);
+    if (thisImage == null) {
+      throw new IllegalArgumentException("Image Not Found: " + imageName);
+    }
+    return thisImage;
+  }
+
+  @Override
+  public void adoptImage(String imageName, Image image) {
     images.put(imageName, image);
   }
+
+  @Override
+  public void removeImage(String imageName) {
+    images.remove(imageName);
+  }
 }
@@ -1,11 +1,9 @@
 package model;
 
-import static model.ImageOperations.applyOperationSplit;
-import static model.ImageOperations.colorCorrect;
+import static model.ImageOperations.checkPercentage;
 import static model.ImageOperations.haar;
 import static model.ImageOperations.histogramVisualization;
 import static model.ImageOperations.invertHaar;
-import static model.ImageOperations.levelsAdjust;
 import static model.ImageOperations.thresholdChannel;
 
 /**
@@ -16,13 +14,22 @@ import static model.ImageOperations.thresholdChannel;
 public class ImageModelImplV2 extends ImageModelImpl implements ImageModelV2 {
 
   /**
-   * This constructor initializes the HashMap of the superclass, ImageModelImpl, and fetches
+   * This constructor initializes the image store of the superclass, ImageModelImpl, and fetches
    * its objects.
    */
   public ImageModelImplV2() {
     super();
   }
 
+  /**
+   * This constructor initializes the superclass, ImageModelImpl, over the provided image store.
+   *
+   * @param store the store the images are kept in.
+   */
+  public ImageModelImplV2(ImageStore store) {
+    super(store);
+  }
+
   @Override
   public void applyCompression(String imageName, String newImageName, double percent) {
     if (percent < 0 || percent > 100) {
@@ -31,32 +38,48 @@ public class ImageModelImplV2 extends ImageModelImpl implements ImageModelV2 {
     Image original = images.get(imageName);
 
     if (original != null) {
-      double[][] newRed = haar(original.getRedChannel());
-      double[][] newGreen = haar(original.getGreenChannel());
-      double[][] newBlue = haar(original.getBlueChannel());
-
-      int[][] thresholdRed = thresholdChannel(newRed, percent);
-      int[][] thresholdGreen = thresholdChannel(newGreen, percent);
-      int[][] thresholdBlue = thresholdChannel(newBlue, percent);
-
-      int[][] invertRed = invertHaar(thresholdRed);
-      int[][] invertGreen = invertHaar(thresholdGreen);
-      int[][] invertBlue = invertHaar(thresholdBlue);
-
-      Image result = new Image(invertRed, invertGreen, invertBlue);
-      images.put(newImageName, result);
+      images.put(newImageName, compute(original, image -> compress(image, percent)));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
   }
 
+  /**
+   * Compresses an image with the Haar transform, dropping the smallest coefficients. The
+   * compressed image keeps the coefficients it was reconstructed from.
+   *
+   * @param original the image to compress.
+   * @param percent  the percentage of coefficients to drop.
+   * @return the compressed image.
+   */
+  private static Image compress(Image original, double percent) {
+    ChannelView[] views = {original.getRedView(), original.getGreenView(),
+        original.getBlueView()};
+    int[][][] coefficients = new int[3][][];
+    int[][][] channels = new int[3][][];
+
+    // The channels are compressed on their own, so they are processed at the same time
+    Runnable[] tasks = new Runnable[3];
+    for (int c = 0; c < 3; c++) {
+      int channel = c;
+      tasks[c] = () -> {
+        coefficients[channel] = thresholdChannel(haar(views[channel]), percent);
+        channels[channel] = invertHaar(coefficients[channel]);
+      };
+    }
+    RowExecutor.runAll(tasks);
+
+    Image compressed = new Image(channels[0], channels[1], channels[2]);
+    compressed.keepWaveletEncoding(WaveletEncoder.encode(coefficients));
+    return compressed;
+  }
+
   @Override
   public void applyHistogramVisualization(String imageName, String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image histogramVisualization = histogramVisualization(original);
-
-      images.put(newImageName, histogramVisualization);
+      images.put(newImageName, compute(256, 256, () -> histogramVisualization(original),
+              original));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -66,9 +89,7 @@ public class ImageModelImplV2 extends ImageModelImpl implements ImageModelV2 {
   public void applyColorCorrection(String imageName, String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image colorCorrection = colorCorrect(original);
-
-      images.put(newImageName, colorCorrection);
+      images.put(newImageName, compute(original, ImageOperations::colorCorrect));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
@@ -79,120 +100,84 @@ public class ImageModelImplV2 extends ImageModelImpl implements ImageModelV2 {
                                     String newImageName) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image levelsAdjust = levelsAdjust(original, black, mid, white);
-
-      images.put(newImageName, levelsAdjust);
+      images.put(newImageName, update(imageName, newImageName, original,
+              new PixelPipeline().levels(black, mid, white)));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
   }
 
   @Override
-  public void blurImageSplit(String imageName, String newImageName, double percentage) {
+  public void applyOperation(String operationName, String imageName, String newImageName,
+                             int... parameters) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image blurredImagePercentage = applyOperationSplit(original, percentage,
-              ImageOperations::blur);
-      blurredImagePercentage.clamp();
-      images.put(newImageName, blurredImagePercentage);
+      Operation operation = OperationRegistry.get(operationName, parameters);
+      if (operation.isPointWise() && !operation.isAdaptive()) {
+        // Fixed point-wise steps are fused with deferred steps, or applied in place
+        images.put(newImageName, update(imageName, newImageName, original,
+                operation.pipeline(original)));
+      } else {
+        images.put(newImageName, compute(original, operation));
+      }
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
   }
 
   @Override
-  public void sharpenImageSplit(String imageName, String newImageName, double percentage) {
+  public void applyOperationSplit(String operationName, String imageName, String newImageName,
+                                  double percentage, int... parameters) {
     Image original = images.get(imageName);
     if (original != null) {
-      Image sharpenedImagePercentage = applyOperationSplit(original, percentage,
-              ImageOperations::sharpen);
-      sharpenedImagePercentage.clamp();
-      images.put(newImageName, sharpenedImagePercentage);
+      checkPercentage(percentage);
+      Operation operation = OperationRegistry.get(operationName, parameters);
+      images.put(newImageName, compute(original,
+              image -> ImageOperations.applyOperationSplit(image, percentage, operation)));
     } else {
       throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
     }
   }
 
   @Override
-  public void sepiaImageSplit(String imageName, String newImageName, double percentage) {
-    Image original = images.get(imageName);
-    if (original != null) {
-      Image sepiaImagePercentage = applyOperationSplit(original, percentage,
-              ImageOperations::sepia);
-      sepiaImagePercentage.clamp();
-      images.put(newImageName, sepiaImagePercentage);
-    } else {
-      throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
-    }
+  public void blurImageSplit(String imageName, String newImageName, double percentage) {
+    applyOperationSplit("blur", imageName, newImageName, percentage);
   }
 
+  @Override
+  public void sharpenImageSplit(String imageName, String newImageName, double percentage) {
+    applyOperationSplit("sharpen", imageName, newImageName, percentage);
+  }
 
   @Override
-  public void valueComponentImageSplit(String imageName, String newImageName, double percentage) {
-    Image original = images.get(imageName);
-    if (original != null) {
-      Image sepiaImagePercentage = applyOperationSplit(original, percentage,
-              ImageOperations::pixelValue);
-      sepiaImagePercentage.clamp();
-      images.put(newImageName, sepiaImagePercentage);
-    } else {
-      throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
-    }
+  public void sepiaImageSplit(String imageName, String newImageName, double percentage) {
+    applyOperationSplit("sepia", imageName, newImageName, percentage);
   }
 
+  @Override
+  public void valueComponentImageSplit(String imageName, String newImageName, double percentage) {
+    applyOperationSplit("value-component", imageName, newImageName, percentage);
+  }
 
   @Override
   public void lumaComponentImageSplit(String imageName, String newImageName, double percentage) {
-    Image original = images.get(imageName);
-    if (original != null) {
-      Image sepiaImagePercentage = applyOperationSplit(original, percentage,
-              ImageOperations::pixelLuma);
-      sepiaImagePercentage.clamp();
-      images.put(newImageName, sepiaImagePercentage);
-    } else {
-      throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
-    }
+    applyOperationSplit("luma-component", imageName, newImageName, percentage);
   }
 
-
   @Override
   public void intensityComponentImageSplit(String imageName, String newImageName,
                                            double percentage) {
-    Image original = images.get(imageName);
-    if (original != null) {
-      Image sepiaImagePercentage = applyOperationSplit(original, percentage,
-              ImageOperations::pixelIntensity);
-      sepiaImagePercentage.clamp();
-      images.put(newImageName, sepiaImagePercentage);
-    } else {
-      throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
-    }
+    applyOperationSplit("intensity-component", imageName, newImageName, percentage);
   }
 
   @Override
   public void applyColorCorrectionSplit(String imageName, String newImageName, double percentage) {
-    Image original = images.get(imageName);
-    if (original != null) {
-      Image colorCorrection = applyOperationSplit(original, percentage,
-              ImageOperations::colorCorrect);
-
-      images.put(newImageName, colorCorrection);
-    } else {
-      throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
-    }
+    applyOperationSplit("color-correct", imageName, newImageName, percentage);
   }
 
   @Override
   public void applyLevelsAdjustmentSplit(int black, int mid, int white, String imageName,
                                          String newImageName, double percentage) {
-    Image original = images.get(imageName);
-    if (original != null) {
-      Image levelsAdjust = applyOperationSplit(original, percentage,
-              ImageOperations::levelsAdjust, black, mid, white);
-
-      images.put(newImageName, levelsAdjust);
-    } else {
-      throw new IllegalArgumentException("Image-" + imageName + " was never loaded.");
-    }
+    applyOperationSplit("levels-adjust", imageName, newImageName, percentage, black, mid, white);
   }
 }
@@ -116,4 +116,33 @@ public interface ImageModelV2 extends ImageModel {
    */
   void applyLevelsAdjustmentSplit(int black, int mid, int white, String imageName,
                                   String newImageName, double percentage);
+
+  /**
+   * Applies an operation of the {@link OperationRegistry} to an image, by name.
+   *
+   * @param operationName the name of the operation (e.g., "blur", "sepia", "levels-adjust").
+   * @param imageName     the name of the image to process.
+   * @param newImageName  the name of the resulting image.
+   * @param parameters    the parameters of the operation, such as the black, mid and white points
+   *                      of a levels adjustment.
+   * @throws IllegalArgumentException if the image or the operation cannot be found, or if the
+   *                                  parameters are invalid.
+   */
+  void applyOperation(String operationName, String imageName, String newImageName,
+                      int... parameters);
+
+  /**
+   * Provides a split view of an operation of the {@link OperationRegistry}, by name. Only the
+   * left part of the image up to the percentage of its width is computed.
+   *
+   * @param operationName the name of the operation (e.g., "blur", "sepia", "levels-adjust").
+   * @param imageName     the name of the image to process.
+   * @param newImageName  the name of the split image.
+   * @param percentage    the percentage of the image width showing the operation.
+   * @param parameters    the parameters of the operation.
+   * @throws IllegalArgumentException if the image or the operation cannot be found, or if the
+   *                                  percentage or the parameters are invalid.
+   */
+  void applyOperationSplit(String operationName, String imageName, String newImageName,
+                           double percentage, int... parameters);
 }
@@ -1,20 +1,28 @@
 package model;
 
-import java.awt.Graphics2D;
-import java.awt.Color;
-import java.awt.image.BufferedImage;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
-import static model.ImageUtil.getDimensions;
-import static model.ImageUtil.getNewComponent;
+import static model.ImageUtil.clampPixel;
+import static model.ImageUtil.newStorage;
+import static model.ImageUtil.packPixel;
+import static model.RowExecutor.forEachBand;
 
 /**
  * This class contains the logic for all the operations that should be performed on the images.
  * Some of the supported operations are filters, transforms, splitting and combining RGB images.
  */
 public class ImageOperations {
+  /*
+  The kernels of the blur and sharpen filters.
+  */
+  private static final float[][] BLUR_KERNEL = {{1 / 16f, 1 / 8f, 1 / 16f},
+      {1 / 8f, 1 / 4f, 1 / 8f}, {1 / 16f, 1 / 8f, 1 / 16f}};
+  private static final float[][] SHARPEN_KERNEL = {{-1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f},
+      {-1 / 8f, 1 / 4f, 1 / 4f, 1 / 4f, -1 / 8f},
+      {-1 / 8f, 1 / 4f, 1f, 1 / 4f, -1 / 8f},
+      {-1 / 8f, 1 / 4f, 1 / 4f, 1 / 4f, -1 / 8f},
+      {-1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f}};
+
   /**
    * This function will apply the Sepia transformation to the image.
    *
@@ -34,26 +42,43 @@ public class ImageOperations {
    * @return returns the flipped image.
    */
   protected static Image flipHorizontally(Image image) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
-
-    int[][] newRedChannel = getNewComponent(height, width);
-    int[][] newGreenChannel = getNewComponent(height, width);
-    int[][] newBlueChannel = getNewComponent(height, width);
-
-    int[][] thisRedChannel = image.getRedChannel();
-    int[][] thisGreenChannel = image.getGreenChannel();
-    int[][] thisBlueChannel = image.getBlueChannel();
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        newRedChannel[i][width - j - 1] = thisRedChannel[i][j];
-        newGreenChannel[i][width - j - 1] = thisGreenChannel[i][j];
-        newBlueChannel[i][width - j - 1] = thisBlueChannel[i][j];
-      }
-    }
+    PixelStorage result = newStorage(image.getHeight(), image.getWidth());
+    flipHorizontally(image, result);
+    return new Image(result);
+  }
+
+  /**
+   * This functions flips the image horizontally, overwriting its pixels.
+   *
+   * @param image the image to be flipped, which nothing else may reference.
+   */
+  static void flipHorizontallyInPlace(Image image) {
+    flipHorizontally(image, image.getStorage());
+  }
 
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+  /**
+   * Writes the horizontally flipped rows of an image. Each row is read before it is written, so
+   * the result may be the storage of the image itself.
+   *
+   * @param image  the image to be flipped.
+   * @param result the storage the flipped rows are written to.
+   */
+  private static void flipHorizontally(Image image, PixelStorage result) {
+    int height = image.getHeight();
+    int width = image.getWidth();
+
+    forEachBand(height, width, (rowStart, rowEnd) -> {
+      int[] row = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        image.getRow(i, row);
+        for (int j = 0, k = width - 1; j < k; j++, k--) {
+          int swap = row[j];
+          row[j] = row[k];
+          row[k] = swap;
+        }
+        result.setRow(i, row);
+      }
+    });
   }
 
   /**
@@ -63,26 +88,41 @@ public class ImageOperations {
    * @return returns the flipped image.
    */
   protected static Image flipVertically(Image image) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
-
-    int[][] newRedChannel = getNewComponent(height, width);
-    int[][] newGreenChannel = getNewComponent(height, width);
-    int[][] newBlueChannel = getNewComponent(height, width);
-
-    int[][] thisRedChannel = image.getRedChannel();
-    int[][] thisGreenChannel = image.getGreenChannel();
-    int[][] thisBlueChannel = image.getBlueChannel();
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        newRedChannel[height - i - 1][j] = thisRedChannel[i][j];
-        newGreenChannel[height - i - 1][j] = thisGreenChannel[i][j];
-        newBlueChannel[height - i - 1][j] = thisBlueChannel[i][j];
-      }
-    }
+    PixelStorage result = newStorage(image.getHeight(), image.getWidth());
+    flipVertically(image, result);
+    return new Image(result);
+  }
+
+  /**
+   * This functions flips the image vertically, overwriting its pixels.
+   *
+   * @param image the image to be flipped, which nothing else may reference.
+   */
+  static void flipVerticallyInPlace(Image image) {
+    flipVertically(image, image.getStorage());
+  }
 
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+  /**
+   * Writes the vertically flipped rows of an image. Rows are swapped in pairs from both ends, so
+   * the result may be the storage of the image itself.
+   *
+   * @param image  the image to be flipped.
+   * @param result the storage the flipped rows are written to.
+   */
+  private static void flipVertically(Image image, PixelStorage result) {
+    int height = image.getHeight();
+    int width = image.getWidth();
+
+    forEachBand((height + 1) / 2, 2 * width, (rowStart, rowEnd) -> {
+      int[] top = new int[width];
+      int[] bottom = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        image.getRow(i, top);
+        image.getRow(height - i - 1, bottom);
+        result.setRow(i, bottom);
+        result.setRow(height - i - 1, top);
+      }
+    });
   }
 
   /**
@@ -93,26 +133,7 @@ public class ImageOperations {
    * @return returns the transformed image.
    */
   protected static Image brighten(Image image, int value) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
-
-    int[][] newRedChannel = getNewComponent(height, width);
-    int[][] newGreenChannel = getNewComponent(height, width);
-    int[][] newBlueChannel = getNewComponent(height, width);
-
-    int[][] thisRedChannel = image.getRedChannel();
-    int[][] thisGreenChannel = image.getGreenChannel();
-    int[][] thisBlueChannel = image.getBlueChannel();
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        newRedChannel[i][j] = thisRedChannel[i][j] + value;
-        newGreenChannel[i][j] = thisGreenChannel[i][j] + value;
-        newBlueChannel[i][j] = thisBlueChannel[i][j] + value;
-      }
-    }
-
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    return new PixelPipeline().brighten(value).apply(image);
   }
 
   /**
@@ -122,10 +143,16 @@ public class ImageOperations {
    * @return returns the blurred image.
    */
   protected static Image blur(Image image) {
-    float[][] kernel = {{1 / 16f, 1 / 8f, 1 / 16f},
-        {1 / 8f, 1 / 4f, 1 / 8f}, {1 / 16f, 1 / 8f, 1 / 16f}};
+    return ImageUtil.filterHelper(image, BLUR_KERNEL);
+  }
 
-    return ImageUtil.filterHelper(image, kernel);
+  /**
+   * Creates the blur filter, reading beyond the edges with the selected border mode.
+   *
+   * @return the blur filter.
+   */
+  static Convolution blurFilter() {
+    return new Convolution(BLUR_KERNEL, ImageUtil.getBorderMode());
   }
 
   /**
@@ -135,13 +162,16 @@ public class ImageOperations {
    * @return returns the sharpened image.
    */
   protected static Image sharpen(Image image) {
-    float[][] kernel = {{-1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f},
-        {-1 / 8f, 1 / 4f, 1 / 4f, 1 / 4f, -1 / 8f},
-        {-1 / 8f, 1 / 4f, 1f, 1 / 4f, -1 / 8f},
-        {-1 / 8f, 1 / 4f, 1 / 4f, 1 / 4f, -1 / 8f},
-        {-1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f}};
+    return ImageUtil.filterHelper(image, SHARPEN_KERNEL);
+  }
 
-    return ImageUtil.filterHelper(image, kernel);
+  /**
+   * Creates the sharpen filter, reading beyond the edges with the selected border mode.
+   *
+   * @return the sharpen filter.
+   */
+  static Convolution sharpenFilter() {
+    return new Convolution(SHARPEN_KERNEL, ImageUtil.getBorderMode());
   }
 
   /**
@@ -150,29 +180,19 @@ public class ImageOperations {
    * @return returns an Image with the "value" of each pixel.
    */
   protected static Image pixelValue(Image image) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
-
-    int[][] newRedChannel = getNewComponent(height, width);
-    int[][] newGreenChannel = getNewComponent(height, width);
-    int[][] newBlueChannel = getNewComponent(height, width);
-
-    int[][] thisRedChannel = image.getRedChannel();
-    int[][] thisGreenChannel = image.getGreenChannel();
-    int[][] thisBlueChannel = image.getBlueChannel();
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int newPixelValue = Math.max(thisRedChannel[i][j], Math.max(thisGreenChannel[i][j],
-                thisBlueChannel[i][j]));
+    return new PixelPipeline().component(ComponentType.VALUE).apply(image);
+  }
 
-        newRedChannel[i][j] = newPixelValue;
-        newGreenChannel[i][j] = newPixelValue;
-        newBlueChannel[i][j] = newPixelValue;
-      }
-    }
+  /**
+   * Replaces a pixel with its "value", the largest of its channels.
+   *
+   * @param rgb the pixel packed as 0xRRGGBB.
+   * @return returns the greyscale pixel.
+   */
+  static int valuePixel(int rgb) {
+    int newPixelValue = Math.max((rgb >> 16) & 0xFF, Math.max((rgb >> 8) & 0xFF, rgb & 0xFF));
 
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    return (newPixelValue << 16) | (newPixelValue << 8) | newPixelValue;
   }
 
   /**
@@ -181,29 +201,19 @@ public class ImageOperations {
    * @return returns an Image with the intensity of each pixel.
    */
   protected static Image pixelIntensity(Image image) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
-
-    int[][] newRedChannel = getNewComponent(height, width);
-    int[][] newGreenChannel = getNewComponent(height, width);
-    int[][] newBlueChannel = getNewComponent(height, width);
-
-    int[][] thisRedChannel = image.getRedChannel();
-    int[][] thisGreenChannel = image.getGreenChannel();
-    int[][] thisBlueChannel = image.getBlueChannel();
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int newPixelIntensity = (thisRedChannel[i][j] + thisGreenChannel[i][j]
-                + thisBlueChannel[i][j]) / 3;
+    return new PixelPipeline().component(ComponentType.INTENSITY).apply(image);
+  }
 
-        newRedChannel[i][j] = newPixelIntensity;
-        newGreenChannel[i][j] = newPixelIntensity;
-        newBlueChannel[i][j] = newPixelIntensity;
-      }
-    }
+  /**
+   * Replaces a pixel with its intensity, the average of its channels.
+   *
+   * @param rgb the pixel packed as 0xRRGGBB.
+   * @return returns the greyscale pixel.
+   */
+  static int intensityPixel(int rgb) {
+    int newPixelIntensity = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
 
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    return (newPixelIntensity << 16) | (newPixelIntensity << 8) | newPixelIntensity;
   }
 
   /**
@@ -212,30 +222,32 @@ public class ImageOperations {
    * @return returns an Image with the Luma of each pixel.
    */
   protected static Image pixelLuma(Image image) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
-
-    int[][] newRedChannel = getNewComponent(height, width);
-    int[][] newGreenChannel = getNewComponent(height, width);
-    int[][] newBlueChannel = getNewComponent(height, width);
-
-    int[][] thisRedChannel = image.getRedChannel();
-    int[][] thisGreenChannel = image.getGreenChannel();
-    int[][] thisBlueChannel = image.getBlueChannel();
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int newPixelIntensity = (int) (0.2126 * thisRedChannel[i][j]
-                + 0.7152 * thisGreenChannel[i][j]
-                + 0.0722 * thisBlueChannel[i][j]);
-
-        newRedChannel[i][j] = newPixelIntensity;
-        newGreenChannel[i][j] = newPixelIntensity;
-        newBlueChannel[i][j] = newPixelIntensity;
-      }
-    }
+    return new PixelPipeline().component(ComponentType.LUMA).apply(image);
+  }
+
+  /**
+   * Replaces a pixel with its Luma.
+   *
+   * @param rgb the pixel packed as 0xRRGGBB.
+   * @return returns the greyscale pixel.
+   */
+  static int lumaPixel(int rgb) {
+    int newPixelIntensity = (int) (0.2126 * ((rgb >> 16) & 0xFF) + 0.7152 * ((rgb >> 8) & 0xFF)
+            + 0.0722 * (rgb & 0xFF));
 
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    return packPixel(newPixelIntensity, newPixelIntensity, newPixelIntensity);
+  }
+
+  /**
+   * Replaces a pixel with a greyscale pixel made of one of its channels.
+   *
+   * @param rgb   the pixel packed as 0xRRGGBB.
+   * @param shift the bit offset of the channel within a packed pixel.
+   * @return returns the greyscale pixel.
+   */
+  static int channelPixel(int rgb, int shift) {
+    int value = (rgb >> shift) & 0xFF;
+    return (value << 16) | (value << 8) | value;
   }
 
   /**
@@ -245,7 +257,7 @@ public class ImageOperations {
    * @return returns the red component of the image.
    */
   protected static Image extractRedComponent(Image image) {
-    return new Image(image.getRedChannel(), image.getRedChannel(), image.getRedChannel());
+    return new PixelPipeline().component(ComponentType.RED).apply(image);
   }
 
   /**
@@ -255,7 +267,7 @@ public class ImageOperations {
    * @return returns the green component of the image.
    */
   protected static Image extractGreenComponent(Image image) {
-    return new Image(image.getGreenChannel(), image.getGreenChannel(), image.getGreenChannel());
+    return new PixelPipeline().component(ComponentType.GREEN).apply(image);
   }
 
   /**
@@ -265,7 +277,7 @@ public class ImageOperations {
    * @return returns the blue component of the image.
    */
   protected static Image extractBlueComponent(Image image) {
-    return new Image(image.getBlueChannel(), image.getBlueChannel(), image.getBlueChannel());
+    return new PixelPipeline().component(ComponentType.BLUE).apply(image);
   }
 
   /**
@@ -288,59 +300,21 @@ public class ImageOperations {
    * @return returns the combined image.
    */
   protected static Image combineRGB(Image redImage, Image greenImage, Image blueImage) {
-    return new Image(redImage.getRedChannel(), greenImage.getGreenChannel(),
-            blueImage.getBlueChannel());
-  }
+    int height = redImage.getHeight();
+    int width = redImage.getWidth();
 
-  /**
-   * Transforms a list by splitting it into average and difference pairs, as part of
-   * the Haar compression.
-   *
-   * @param sequence the list to transform.
-   * @return the transformed list.
-   */
-  private static List<Double> transform(List<Double> sequence) {
-    int size = sequence.size();
-    List<Double> result = new ArrayList<>();
-    for (int i = 0; i < size; i++) {
-      result.add(0.0);
-    }
-
-    for (int i = 0; i < size / 2; i++) {
-      double first = sequence.get(2 * i);
-      double second = sequence.get(2 * i + 1);
-
-      result.set(i, (first + second) / Math.sqrt(2));
-      result.set(i + size / 2, (first - second) / Math.sqrt(2));
-    }
-
-    return result;
-  }
-
-  /**
-   * Inverts a transformed list back into its original order.
-   *
-   * @param sequence the transformed list.
-   * @return the inverted list.
-   */
-  private static List<Double> invert(List<Double> sequence) {
-    int size = sequence.size();
-    List<Double> result = new ArrayList<>();
-    for (int i = 0; i < size; i++) {
-      result.add(0.0);
-    }
+    PixelStorage result = newStorage(height, width);
 
-    int middleIndex = size / 2;
-
-    for (int i = 0; i < middleIndex; i++) {
-      double avg = sequence.get(i);
-      double diff = sequence.get(i + middleIndex);
-
-      result.set(2 * i, (avg + diff) / Math.sqrt(2));
-      result.set(2 * i + 1, (avg - diff) / Math.sqrt(2));
-    }
+    forEachBand(height, width, (rowStart, rowEnd) -> {
+      for (int i = rowStart; i < rowEnd; i++) {
+        for (int j = 0; j < width; j++) {
+          result.setRGB(i, j, redImage.getRed(i, j), greenImage.getGreen(i, j),
+                  blueImage.getBlue(i, j));
+        }
+      }
+    });
 
-    return result;
+    return new Image(result);
   }
 
   /**
@@ -384,50 +358,31 @@ public class ImageOperations {
   }
 
   /**
-   * Pads a 2D array with zeros to make it a square of size power of 2.
+   * Copies a channel view into a 2D array of doubles.
    *
-   * @param original the original 2D array.
-   * @return padded 2D array.
+   * @param channel a view of the channel to copy.
+   * @return the channel as doubles.
    */
-  private static double[][] padArrayToSquare(int[][] original) {
-    int rows = original.length;
-    int cols = original[0].length;
-
-    int maxSize = Math.max(rows, cols);
-    int squareSize = 1;
-    while (squareSize < maxSize) {
-      squareSize *= 2;
-    }
-
-    double[][] squareArray = new double[squareSize][squareSize];
+  private static double[][] convertViewToDouble(ChannelView channel) {
+    int rows = channel.height();
+    int cols = channel.width();
+    double[][] doubleArray = new double[rows][cols];
+    int[] row = new int[cols];
 
     for (int i = 0; i < rows; i++) {
+      channel.getRow(i, row);
       for (int j = 0; j < cols; j++) {
-        squareArray[i][j] = original[i][j];
+        doubleArray[i][j] = row[j];
       }
     }
 
-    return squareArray;
-  }
-
-  /**
-   * Copies a sub-array from a larger padded array to match original dimensions.
-   *
-   * @param array the padded 2D array.
-   * @param rows  original row count.
-   * @param cols  original column count.
-   * @return sub-array with original dimensions.
-   */
-  private static double[][] copySubArray(double[][] array, int rows, int cols) {
-    double[][] subArray = new double[rows][cols];
-    for (int i = 0; i < rows; i++) {
-      System.arraycopy(array[i], 0, subArray[i], 0, cols);
-    }
-    return subArray;
+    return doubleArray;
   }
 
   /**
-   * Sets the pixel values to 0 based on the provided threshold.
+   * Sets the coefficients of smallest magnitude to 0. The threshold is the magnitude at the given
+   * percentile of all the magnitudes, found by selection rather than by sorting, and every
+   * coefficient whose magnitude is below it is dropped.
    *
    * @param channel the image channel to apply thresholding on.
    * @param percent the percentage of thresholding to apply.
@@ -438,19 +393,17 @@ public class ImageOperations {
     int cols = channel[0].length;
     int totalElements = rows * cols;
 
-    double[] flattenedArray = new double[totalElements];
+    double[] magnitudes = new double[totalElements];
     int index = 0;
     for (int i = 0; i < rows; i++) {
       for (int j = 0; j < cols; j++) {
-        flattenedArray[index] = channel[i][j];
+        magnitudes[index] = Math.abs(channel[i][j]);
         index++;
       }
     }
 
-    Arrays.sort(flattenedArray);
-
     int thresholdIndex = (int) (totalElements * (percent / 100.0));
-    double threshold = thresholdIndex > 0 ? flattenedArray[thresholdIndex - 1] : 0.0;
+    double threshold = thresholdIndex > 0 ? select(magnitudes, thresholdIndex - 1) : 0.0;
 
     for (int i = 0; i < rows; i++) {
       for (int j = 0; j < cols; j++) {
@@ -464,61 +417,68 @@ public class ImageOperations {
   }
 
   /**
-   * Applies the transformation on each row or column within the specified pad size.
+   * Finds the value that would be at an index if the values were sorted, in linear time on
+   * average. The values are reordered. Falls back to sorting the remaining range if the
+   * partitions keep being unbalanced.
    *
-   * @param array     The array to transform.
-   * @param padSize   The current size of the padded section to transform.
-   * @param isForward Whether to apply the forward (true) or inverse (false) transform.
-   * @param isRow     Whether to apply the transformation on rows (true) or columns (false).
+   * @param values the values to select from, reordered in place.
+   * @param k      the index in sorted order of the value to find.
+   * @return the k-th smallest value.
    */
-  private static void applyTransform(double[][] array, int padSize, boolean isForward,
-                                     boolean isRow) {
-    for (int i = 0; i < padSize; i++) {
-      double[] elements = new double[padSize];
-
-      for (int j = 0; j < padSize; j++) {
-        elements[j] = isRow ? array[i][j] : array[j][i];
-      }
-
-      List<Double> elementsList = new ArrayList<>();
-      for (double value : elements) {
-        elementsList.add(value);
+  static double select(double[] values, int k) {
+    int low = 0;
+    int high = values.length - 1;
+    int rounds = 2 * (32 - Integer.numberOfLeadingZeros(values.length));
+    while (low < high) {
+      if (rounds-- == 0) {
+        Arrays.sort(values, low, high + 1);
+        return values[k];
       }
 
-      List<Double> transformedList = isForward ? transform(elementsList) : invert(elementsList);
-
-      for (int j = 0; j < padSize; j++) {
-        elements[j] = transformedList.get(j);
+      // Median of three as the pivot, then a Hoare partition around it
+      int middle = (low + high) >>> 1;
+      double pivot = Math.max(Math.min(values[low], values[middle]),
+              Math.min(Math.max(values[low], values[middle]), values[high]));
+      int i = low;
+      int j = high;
+      while (i <= j) {
+        while (values[i] < pivot) {
+          i++;
+        }
+        while (values[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          double swap = values[i];
+          values[i] = values[j];
+          values[j] = swap;
+          i++;
+          j--;
+        }
       }
 
-      for (int j = 0; j < padSize; j++) {
-        if (isRow) {
-          array[i][j] = elements[j];
-        } else {
-          array[j][i] = elements[j];
-        }
+      if (k <= j) {
+        high = j;
+      } else if (k >= i) {
+        low = i;
+      } else {
+        return values[k];
       }
     }
+    return values[k];
   }
 
   /**
    * Applies the Haar transformation on the provided channel.
    *
-   * @param channel the channel to apply the Haar transform on.
+   * @param channel a view of the channel to apply the Haar transform on.
    * @return the transformed channel.
    */
-  protected static double[][] haar(int[][] channel) {
-    double[][] squareArray = padArrayToSquare(channel);
-
-    int currentPadSize = squareArray.length;
-    while (currentPadSize > 1) {
-      applyTransform(squareArray, currentPadSize, true, true);
-      applyTransform(squareArray, currentPadSize, true, false);
+  protected static double[][] haar(ChannelView channel) {
+    double[][] coefficients = convertViewToDouble(channel);
+    HaarTransform.forward(coefficients);
 
-      currentPadSize /= 2;
-    }
-
-    return copySubArray(squareArray, channel.length, channel[0].length);
+    return coefficients;
   }
 
   /**
@@ -528,119 +488,44 @@ public class ImageOperations {
    * @return the inverted channel.
    */
   protected static int[][] invertHaar(int[][] channel) {
-    double[][] squareArray = padArrayToSquare(channel);
+    double[][] values = convertIntToDouble(channel);
+    HaarTransform.inverse(values);
 
-    int currentPadSize = 2;
-    while (currentPadSize <= squareArray.length) {
-      applyTransform(squareArray, currentPadSize, false, false);
-      applyTransform(squareArray, currentPadSize, false, true);
-
-      currentPadSize *= 2;
-    }
-
-    return convertDoubleToInt(copySubArray(squareArray, channel.length, channel[0].length));
+    return convertDoubleToInt(values);
   }
 
   /**
-   * Creates the histogram of the provided image.
+   * Creates the histogram of the provided image, from the statistics the image keeps.
    *
    * @param image the image whose histogram is to be created.
    * @return the image with the histogram.
    */
   protected static Image histogramVisualization(Image image) {
-    int[][] redChannel = image.getRedChannel();
-    int[][] greenChannel = image.getGreenChannel();
-    int[][] blueChannel = image.getBlueChannel();
-
-    int width = getDimensions(image)[1];
-    int height = getDimensions(image)[0];
-
-    int[] redHist = new int[256];
-    int[] greenHist = new int[256];
-    int[] blueHist = new int[256];
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        redHist[redChannel[i][j]]++;
-        greenHist[greenChannel[i][j]]++;
-        blueHist[blueChannel[i][j]]++;
-      }
-    }
-
-    int max = Math.max(Arrays.stream(redHist).max().orElse(1),
-            Math.max(Arrays.stream(greenHist).max().orElse(1),
-                    Arrays.stream(blueHist).max().orElse(1)));
-
-    BufferedImage histImage = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
-    Graphics2D g = histImage.createGraphics();
-    g.setColor(Color.WHITE);
-    g.fillRect(0, 0, 256, 256);
-
-    drawHistogramLine(g, redHist, Color.RED, max);
-    drawHistogramLine(g, greenHist, Color.GREEN, max);
-    drawHistogramLine(g, blueHist, Color.BLUE, max);
-
-    g.dispose();
-
-    return bufferedImageToImage(histImage);
-  }
-
-  /**
-   * Helper function to convert BufferedImage to Image.
-   *
-   * @param bufferedImage the buffered image to convert.
-   * @return the image of type Image.
-   */
-  private static Image bufferedImageToImage(BufferedImage bufferedImage) {
-    int width = bufferedImage.getWidth();
-    int height = bufferedImage.getHeight();
-    int[][] redChannel = new int[height][width];
-    int[][] greenChannel = new int[height][width];
-    int[][] blueChannel = new int[height][width];
-
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int rgb = bufferedImage.getRGB(x, y);
-        redChannel[y][x] = (rgb >> 16) & 0xFF;
-        greenChannel[y][x] = (rgb >> 8) & 0xFF;
-        blueChannel[y][x] = rgb & 0xFF;
-      }
-    }
-    return new Image(redChannel, greenChannel, blueChannel);
+    return image.getStatistics().toHistogramImage();
   }
 
   /**
-   * Helper function for drawing histogram lines.
+   * Performs color correction on an image by adjusting each color channel.
    *
-   * @param g     the Graphics2D object used to draw the histogram line.
-   * @param hist  the histogram data representing frequency values for each intensity level.
-   * @param color the color used to draw the histogram line.
-   * @param max   the maximum frequency value for the histogram height
+   * @param image the image to color correct.
+   * @return returns the color corrected image.
    */
-  private static void drawHistogramLine(Graphics2D g, int[] hist, Color color, int max) {
-    g.setColor(color);
-
-    for (int i = 0; i < hist.length - 1; i++) {
-      int y1 = 256 - (hist[i] * 256 / max);
-      int y2 = 256 - (hist[i + 1] * 256 / max);
-      g.drawLine(i, Math.max(0, y1), i + 1, Math.max(0, y2));
-    }
+  protected static Image colorCorrect(Image image) {
+    return colorCorrection(image).apply(image);
   }
 
   /**
-   * Performs color correction on an image by adjusting each color channel.
+   * Finds the color correction of an image, which aligns the peaks of the histograms of its
+   * channels.
    *
    * @param image the image to color correct.
-   * @return returns the color corrected image.
+   * @return the point-wise operation correcting the colors of the image.
    */
-  protected static Image colorCorrect(Image image) {
-    int[][] redChannel = image.getRedChannel();
-    int[][] greenChannel = image.getGreenChannel();
-    int[][] blueChannel = image.getBlueChannel();
-
-    int redPeak = findWeightedPeak(redChannel);
-    int greenPeak = findWeightedPeak(greenChannel);
-    int bluePeak = findWeightedPeak(blueChannel);
+  static PixelPipeline colorCorrection(Image image) {
+    ImageStatistics statistics = image.getStatistics();
+    int redPeak = statistics.getPeak(ComponentType.RED, 10, 245);
+    int greenPeak = statistics.getPeak(ComponentType.GREEN, 10, 245);
+    int bluePeak = statistics.getPeak(ComponentType.BLUE, 10, 245);
 
     int avgPeak = (redPeak + greenPeak + bluePeak) / 3;
 
@@ -648,69 +533,7 @@ public class ImageOperations {
     int greenOffset = (avgPeak - greenPeak) / 2;
     int blueOffset = (avgPeak - bluePeak) / 2;
 
-    return adjustImageColors(image, redOffset, greenOffset, blueOffset);
-  }
-
-  /**
-   * Finds the weighted peak intensity of a color channel within a specified range.
-   *
-   * @param channel each of the color channels for red, green or blue.
-   * @return the weighted average intensity, representing the peak.
-   */
-  private static int findWeightedPeak(int[][] channel) {
-    int[] histogram = new int[256];
-
-    for (int[] row : channel) {
-      for (int value : row) {
-        if (value >= 10 && value <= 245) {
-          histogram[value]++;
-        }
-      }
-    }
-
-    int peakIntensity = 10;
-    int maxCount = 0;
-    for (int i = 10; i <= 245; i++) {
-      if (histogram[i] > maxCount) {
-        maxCount = histogram[i];
-        peakIntensity = i;
-      }
-    }
-
-    return peakIntensity;
-  }
-
-  /**
-   * Adjusts the color channels of an image by applying specified offsets to each channel.
-   *
-   * @param image       the image too adjust.
-   * @param redOffset   the offset to be applied to the red channel.
-   * @param greenOffset the offset to be applied to the green channel.
-   * @param blueOffset  the offset to be applied to the blue channel.
-   * @return image with adjusted colors.
-   */
-  private static Image adjustImageColors(Image image, int redOffset, int greenOffset,
-                                         int blueOffset) {
-    int width = getDimensions(image)[1];
-    int height = getDimensions(image)[0];
-
-    int[][] redChannel = image.getRedChannel();
-    int[][] greenChannel = image.getGreenChannel();
-    int[][] blueChannel = image.getBlueChannel();
-
-    int[][] newRedChannel = new int[height][width];
-    int[][] newGreenChannel = new int[height][width];
-    int[][] newBlueChannel = new int[height][width];
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        newRedChannel[i][j] = clamp(redChannel[i][j] + redOffset);
-        newGreenChannel[i][j] = clamp(greenChannel[i][j] + greenOffset);
-        newBlueChannel[i][j] = clamp(blueChannel[i][j] + blueOffset);
-      }
-    }
-
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    return new PixelPipeline().then(LookupTable.offsets(redOffset, greenOffset, blueOffset));
   }
 
   /**
@@ -725,6 +548,20 @@ public class ImageOperations {
    * @throws IllegalArgumentException if the black, mid, or white values are invalid.
    */
   protected static Image levelsAdjust(Image original, int b, int m, int w) {
+    return new PixelPipeline().levels(b, m, w).apply(original);
+  }
+
+  /**
+   * Computes the coefficients of the quadratic curve mapping the black, midtone, and white points
+   * to 0, 128 and 255.
+   *
+   * @param b the black point for clamping pixels.
+   * @param m the mid value for clamping pixels.
+   * @param w the white value for clamping pixels.
+   * @return the quadratic, linear and constant coefficients.
+   * @throws IllegalArgumentException if the black, mid, or white values are invalid.
+   */
+  static double[] levelsCurve(int b, int m, int w) {
     if (b < 0 || b > 255) {
       throw new IllegalArgumentException("Black point value should be between 0 and 255.");
     }
@@ -739,10 +576,6 @@ public class ImageOperations {
       throw new IllegalArgumentException("Values must be in ascending order: black < mid < white");
     }
 
-    int[][] redChannel = original.getRedChannel();
-    int[][] greenChannel = original.getGreenChannel();
-    int[][] blueChannel = original.getBlueChannel();
-
     double varA = Math.pow(b, 2) * (m - w) - b * (Math.pow(m, 2) - Math.pow(w, 2))
             + w * Math.pow(m, 2) - m * Math.pow(w, 2);
 
@@ -751,152 +584,191 @@ public class ImageOperations {
     double varAc = Math.pow(b, 2) * (255 * m - 128 * w) - b * (255 * Math.pow(m, 2)
             - 128 * Math.pow(w, 2));
 
-    double ansA = varAa / varA;
-    double bCoeff = varAb / varA;
-    double ansC = varAc / varA;
-
-    int[][] adjustedRed = adjustChannel(redChannel, ansA, bCoeff, ansC, b, w);
-    int[][] adjustedGreen = adjustChannel(greenChannel, ansA, bCoeff, ansC, b, w);
-    int[][] adjustedBlue = adjustChannel(blueChannel, ansA, bCoeff, ansC, b, w);
-
-    return new Image(adjustedRed, adjustedGreen, adjustedBlue);
-
+    return new double[]{varAa / varA, varAb / varA, varAc / varA};
   }
 
   /**
-   * Adjusts a color channel by applying the quadratic transformation to each pixel value.
+   * Adjusts a channel value by applying the quadratic transformation to it.
    *
-   * @param channel each of the color channels (red, green, blue).
-   * @param a       quadratic coefficient.
-   * @param bCoeff  linear coefficient.
-   * @param c       constant coefficient.
-   * @param b       black point threshold.
-   * @param w       white point threshold.
-   * @return the adjusted color channel.
+   * @param value  the value of one of the color channels (red, green, blue).
+   * @param a      quadratic coefficient.
+   * @param bCoeff linear coefficient.
+   * @param c      constant coefficient.
+   * @param b      black point threshold.
+   * @param w      white point threshold.
+   * @return the adjusted channel value.
    */
-  private static int[][] adjustChannel(int[][] channel, double a, double bCoeff, double c, int b,
-                                       int w) {
-    int height = channel.length;
-    int width = channel[0].length;
-    int[][] adjustedChannel = new int[height][width];
+  static int adjustChannel(int value, double a, double bCoeff, double c, int b, int w) {
+    double result;
 
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int value = channel[i][j];
-        double result;
-
-        if (value <= b) {
-          result = 0;
-        } else if (value >= w) {
-          result = 255;
-        } else {
-          result = a * Math.pow(value, 2) + bCoeff * value + c;
-          result = clamp((int) result);
-        }
-
-        adjustedChannel[i][j] = (int) Math.round(result);
-      }
+    if (value <= b) {
+      result = 0;
+    } else if (value >= w) {
+      result = 255;
+    } else {
+      result = a * Math.pow(value, 2) + bCoeff * value + c;
+      result = clampPixel((int) result);
     }
-    return adjustedChannel;
+
+    return (int) Math.round(result);
   }
 
   /**
-   * Clamps a value to ensure it is between 0 and 255.
+   * Checks that the percentage of a split view is between 0 and 100.
+   *
+   * @param percentage the percentage of the image width to apply the effect to.
+   * @throws IllegalArgumentException if the percentage is out of range.
    */
-  private static int clamp(int value) {
-    return Math.max(0, Math.min(255, value));
+  protected static void checkPercentage(double percentage) {
+    if (percentage < 0 || percentage > 100) {
+      throw new IllegalArgumentException("Percentage value should be between 0 and 100.");
+    }
   }
 
   /**
-   * Applies a specified image effect to the left portion of an image up to a given percentage
-   * of the image width, while keeping the remaining portion unchanged.
+   * Applies an operation to the left portion of an image up to a given percentage of the image
+   * width, while keeping the remaining portion unchanged. Only the pixels left of the split line
+   * are computed, along with the pixels around them a filter reads.
    *
    * @param original   the image to modify.
    * @param percentage the percentage of the image width to apply the effect to (0–100).
-   * @param operation  the image effect processor that applies the desired effect.
+   * @param operation  the operation to apply.
    * @return image with the effect applied up to the specified percentage.
    */
   protected static Image applyOperationSplit(Image original, double percentage,
-                                             ImageEffectProcessor operation) {
-    if (percentage < 0 || percentage > 100) {
-      throw new IllegalArgumentException("Percentage value should be between 0 and 100.");
+                                             Operation operation) {
+    if (operation.isPointWise()) {
+      return applyOperationSplit(original, percentage, operation.pipeline(original));
     }
+    return applyOperationSplit(original, percentage, operation.filter());
+  }
 
-    int width = getDimensions(original)[1];
-    int height = getDimensions(original)[0];
-
-    int[][] redChannel = original.getRedChannel();
-    int[][] greenChannel = original.getGreenChannel();
-    int[][] blueChannel = original.getBlueChannel();
-
-    int splitLine = (int) (width * (percentage / 100));
-
-    Image modifiedImage = operation.applyEffect(original);
-
-    int[][] modifiedRedChannel = modifiedImage.getRedChannel();
-    int[][] modifiedGreenChannel = modifiedImage.getGreenChannel();
-    int[][] modifiedBlueChannel = modifiedImage.getBlueChannel();
-
-    int[][] newRedChannel = new int[height][width];
-    int[][] newGreenChannel = new int[height][width];
-    int[][] newBlueChannel = new int[height][width];
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        if (j < splitLine) {
-          newRedChannel[i][j] = modifiedRedChannel[i][j];
-          newGreenChannel[i][j] = modifiedGreenChannel[i][j];
-          newBlueChannel[i][j] = modifiedBlueChannel[i][j];
-        } else {
-          newRedChannel[i][j] = redChannel[i][j];
-          newGreenChannel[i][j] = greenChannel[i][j];
-          newBlueChannel[i][j] = blueChannel[i][j];
-        }
+  /**
+   * Applies point-wise operations to the left portion of an image up to a given percentage of
+   * the image width, while keeping the remaining portion unchanged. Only the pixels left of the
+   * split line are computed.
+   *
+   * @param original   the image to modify.
+   * @param percentage the percentage of the image width to apply the effect to (0–100).
+   * @param pipeline   the point-wise operations to apply.
+   * @return image with the effect applied up to the specified percentage.
+   */
+  private static Image applyOperationSplit(Image original, double percentage,
+                                           PixelPipeline pipeline) {
+    checkPercentage(percentage);
+    int width = original.getWidth();
+    int height = original.getHeight();
+    int splitLine = splitLine(width, percentage);
+
+    PixelStorage result = newStorage(height, width);
+    forEachBand(height, width, (rowStart, rowEnd) -> {
+      int[] row = new int[width];
+      PixelPipeline.ChannelBuffers buffers = pipeline.channelBuffers(splitLine);
+      for (int i = rowStart; i < rowEnd; i++) {
+        original.getRow(i, row);
+        pipeline.apply(row, 0, splitLine, buffers);
+        result.setRow(i, row);
       }
-    }
-
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    });
+    return new Image(result);
   }
 
-  protected static Image applyOperationSplit(Image original, double percentage,
-                                             ParameterizedImageEffectProcessor operation,
-                                             Integer b, Integer m, Integer w) {
-    if (percentage < 0 || percentage > 100) {
-      throw new IllegalArgumentException("Percentage value should be between 0 and 100.");
-    }
-
-    int width = getDimensions(original)[1];
-    int height = getDimensions(original)[0];
-    int splitLine = (int) (width * (percentage / 100));
-
-    int[][] redChannel = original.getRedChannel();
-    int[][] greenChannel = original.getGreenChannel();
-    int[][] blueChannel = original.getBlueChannel();
-
-    Image modifiedImage = operation.applyEffect(original, b, m, w);
-
-    int[][] modifiedRedChannel = modifiedImage.getRedChannel();
-    int[][] modifiedGreenChannel = modifiedImage.getGreenChannel();
-    int[][] modifiedBlueChannel = modifiedImage.getBlueChannel();
-
-    int[][] newRedChannel = new int[height][width];
-    int[][] newGreenChannel = new int[height][width];
-    int[][] newBlueChannel = new int[height][width];
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        if (j < splitLine) {
-          newRedChannel[i][j] = modifiedRedChannel[i][j];
-          newGreenChannel[i][j] = modifiedGreenChannel[i][j];
-          newBlueChannel[i][j] = modifiedBlueChannel[i][j];
-        } else {
-          newRedChannel[i][j] = redChannel[i][j];
-          newGreenChannel[i][j] = greenChannel[i][j];
-          newBlueChannel[i][j] = blueChannel[i][j];
+  /**
+   * Applies a filter to the left portion of an image up to a given percentage of the image width,
+   * while keeping the remaining portion unchanged. Only the pixels left of the split line are
+   * filtered, reading the pixels right of it the kernel needs from the image.
+   *
+   * @param original   the image to modify.
+   * @param percentage the percentage of the image width to apply the effect to (0–100).
+   * @param filter     the filter to apply.
+   * @return image with the effect applied up to the specified percentage.
+   */
+  private static Image applyOperationSplit(Image original, double percentage,
+                                           Convolution filter) {
+    checkPercentage(percentage);
+    int width = original.getWidth();
+    int height = original.getHeight();
+    int splitLine = splitLine(width, percentage);
+
+    PixelStorage result = newStorage(height, width);
+    forEachBand(height, width, (rowStart, rowEnd) -> {
+      int[] row = new int[width];
+      if (splitLine == 0) {
+        for (int i = rowStart; i < rowEnd; i++) {
+          original.getRow(i, row);
+          result.setRow(i, row);
+        }
+        return;
+      }
+      filter.apply(original, rowStart, rowEnd, 0, splitLine, (filtered, i) -> {
+        original.getRow(i, row);
+        System.arraycopy(filtered, 0, row, 0, splitLine);
+        result.setRow(i, row);
+      });
+    });
+    return new Image(result);
+  }
+
+  /**
+   * Applies an operation to the pixels a mask selects only, copying the other pixels of the
+   * original. A point-wise operation computes the selected pixels alone, and a filter the
+   * bounding box of the selected pixels, so the work follows the selected area.
+   *
+   * @param original  the unmodified image.
+   * @param mask      the pixels to apply the operation to.
+   * @param operation the operation to apply.
+   * @return the combined image.
+   */
+  protected static Image applyOperationMasked(Image original, Mask mask, Operation operation) {
+    int height = original.getHeight();
+    int width = original.getWidth();
+    PixelPipeline pipeline = operation.isPointWise() ? operation.pipeline(original) : null;
+    PixelStorage result = newStorage(height, width);
+
+    forEachBand(height, width, (rowStart, rowEnd) -> {
+      int[] row = new int[width];
+      PixelPipeline.ChannelBuffers buffers = pipeline != null ? pipeline.channelBuffers(width)
+              : null;
+      for (int i = rowStart; i < rowEnd; i++) {
+        original.getRow(i, row);
+        if (pipeline != null) {
+          int[] runs = mask.row(i);
+          for (int k = 0; k < runs.length; k += 2) {
+            pipeline.apply(row, runs[k], runs[k + 1], buffers);
+          }
         }
+        result.setRow(i, row);
       }
+    });
+
+    if (pipeline == null && !mask.isEmpty()) {
+      Convolution filter = operation.filter();
+      int top = mask.top();
+      int left = mask.left();
+      forEachBand(mask.bottom() - top, mask.right() - left,
+          (rowStart, rowEnd) -> filter.apply(original, top + rowStart, top + rowEnd, left,
+              mask.right(), (filtered, i) -> {
+                int[] runs = mask.row(i);
+                for (int k = 0; k < runs.length; k += 2) {
+                  for (int j = runs[k]; j < runs[k + 1]; j++) {
+                    result.setRGB(i, j, filtered[j - left]);
+                  }
+                }
+              }));
     }
 
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    // The storage already holds pixels clamped within [0, 255]
+    return new Image(result);
+  }
+
+  /**
+   * Finds the column where a split view stops showing the effect.
+   *
+   * @param width      the width of the image.
+   * @param percentage the percentage of the image width showing the effect.
+   * @return the first column showing the original.
+   */
+  private static int splitLine(int width, double percentage) {
+    return (int) (width * (percentage / 100));
   }
 }
@@ -0,0 +1,247 @@
+package model;
+
+import static model.RowExecutor.forEachBand;
+
+/**
+ * The histograms of the red, green, blue and luma values of an image, with their minimum, maximum
+ * and mean. All four histograms are counted in a single pass over the pixels, split in bands of
+ * rows on the shared row executor. An image computes its statistics once and keeps them, see
+ * {@link Image#getStatistics()}, so the histogram view, color correction and the levels
+ * suggestion all share the same scan. Statistics are immutable.
+ */
+public final class ImageStatistics {
+  private static final int LEVELS = 256;
+  private static final int[] HISTOGRAM_COLORS = {0xFF0000, 0x00FF00, 0x0000FF};
+
+  private final int[] red;
+  private final int[] green;
+  private final int[] blue;
+  private final int[] luma;
+  private final long pixelCount;
+
+  private ImageStatistics(int[] red, int[] green, int[] blue, int[] luma, long pixelCount) {
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+    this.luma = luma;
+    this.pixelCount = pixelCount;
+  }
+
+  /**
+   * Scans an image once to count all of its histograms.
+   *
+   * @param image the image to scan.
+   * @return the statistics of the image.
+   */
+  static ImageStatistics of(Image image) {
+    int width = image.getWidth();
+    int[] red = new int[LEVELS];
+    int[] green = new int[LEVELS];
+    int[] blue = new int[LEVELS];
+    int[] luma = new int[LEVELS];
+
+    forEachBand(image.getHeight(), width, (rowStart, rowEnd) -> {
+      int[] bandRed = new int[LEVELS];
+      int[] bandGreen = new int[LEVELS];
+      int[] bandBlue = new int[LEVELS];
+      int[] bandLuma = new int[LEVELS];
+      int[] row = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        image.getRow(i, row);
+        for (int j = 0; j < width; j++) {
+          int r = (row[j] >> 16) & 0xFF;
+          int g = (row[j] >> 8) & 0xFF;
+          int b = row[j] & 0xFF;
+          bandRed[r]++;
+          bandGreen[g]++;
+          bandBlue[b]++;
+          bandLuma[Math.min((int) (0.2126 * r + 0.7152 * g + 0.0722 * b), 255)]++;
+        }
+      }
+      // One lock for the four histograms, taken once per band
+      synchronized (red) {
+        for (int k = 0; k < LEVELS; k++) {
+          red[k] += bandRed[k];
+          green[k] += bandGreen[k];
+          blue[k] += bandBlue[k];
+          luma[k] += bandLuma[k];
+        }
+      }
+    });
+
+    return new ImageStatistics(red, green, blue, luma, (long) image.getHeight() * width);
+  }
+
+  private int[] histogram(ComponentType componentType) {
+    switch (componentType) {
+      case RED:
+        return red;
+      case GREEN:
+        return green;
+      case BLUE:
+        return blue;
+      case LUMA:
+        return luma;
+      default:
+        throw new IllegalArgumentException("No histogram for: " + componentType);
+    }
+  }
+
+  /**
+   * Getter for the histogram of a channel.
+   *
+   * @param componentType RED, GREEN, BLUE or LUMA.
+   * @return a copy of the 256 counts, one per value.
+   */
+  public int[] getHistogram(ComponentType componentType) {
+    return histogram(componentType).clone();
+  }
+
+  /**
+   * Getter for the number of pixels counted.
+   *
+   * @return the number of pixels of the image.
+   */
+  public long getPixelCount() {
+    return pixelCount;
+  }
+
+  /**
+   * Getter for the smallest value of a channel.
+   *
+   * @param componentType RED, GREEN, BLUE or LUMA.
+   * @return the smallest value, 0 for an empty image.
+   */
+  public int getMin(ComponentType componentType) {
+    int[] histogram = histogram(componentType);
+    for (int i = 0; i < LEVELS; i++) {
+      if (histogram[i] > 0) {
+        return i;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Getter for the largest value of a channel.
+   *
+   * @param componentType RED, GREEN, BLUE or LUMA.
+   * @return the largest value, 0 for an empty image.
+   */
+  public int getMax(ComponentType componentType) {
+    int[] histogram = histogram(componentType);
+    for (int i = LEVELS - 1; i >= 0; i--) {
+      if (histogram[i] > 0) {
+        return i;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Getter for the mean value of a channel.
+   *
+   * @param componentType RED, GREEN, BLUE or LUMA.
+   * @return the mean value, 0 for an empty image.
+   */
+  public double getMean(ComponentType componentType) {
+    if (pixelCount == 0) {
+      return 0;
+    }
+    int[] histogram = histogram(componentType);
+    long sum = 0;
+    for (int i = 0; i < LEVELS; i++) {
+      sum += (long) i * histogram[i];
+    }
+    return (double) sum / pixelCount;
+  }
+
+  /**
+   * Finds the most frequent value of a channel within a range, the lowest one on ties.
+   *
+   * @param componentType RED, GREEN, BLUE or LUMA.
+   * @param low           the lowest value considered.
+   * @param high          the highest value considered.
+   * @return the most frequent value, or low if no value of the range occurs.
+   */
+  public int getPeak(ComponentType componentType, int low, int high) {
+    int[] histogram = histogram(componentType);
+    int peak = low;
+    int maxCount = 0;
+    for (int i = low; i <= high; i++) {
+      if (histogram[i] > maxCount) {
+        maxCount = histogram[i];
+        peak = i;
+      }
+    }
+    return peak;
+  }
+
+  /**
+   * Suggests black, mid and white points for a levels adjustment stretching the luma of the
+   * image. The black and white points leave out the darkest and brightest half percent of the
+   * pixels, and the mid point is halfway between them.
+   *
+   * @return the black, mid and white points, or 0, 128 and 255 when the image is too flat.
+   */
+  public int[] suggestLevels() {
+    long clipped = pixelCount / 200;
+    int black = 0;
+    long count = 0;
+    while (black < LEVELS - 1 && count + luma[black] <= clipped) {
+      count += luma[black];
+      black++;
+    }
+    int white = LEVELS - 1;
+    count = 0;
+    while (white > 0 && count + luma[white] <= clipped) {
+      count += luma[white];
+      white--;
+    }
+
+    if (white - black < 2) {
+      return new int[]{0, 128, 255};
+    }
+    return new int[]{black, (black + white) / 2, white};
+  }
+
+  /**
+   * Draws the red, green and blue histograms as a 256x256 line chart.
+   *
+   * @return the image of the histogram.
+   */
+  public Image toHistogramImage() {
+    return toHistogramImage(LEVELS, LEVELS);
+  }
+
+  /**
+   * Draws the red, green and blue histograms as a line chart of the given size.
+   *
+   * @param width  the number of columns of the chart.
+   * @param height the number of rows of the chart.
+   * @return the image of the histogram.
+   */
+  public Image toHistogramImage(int width, int height) {
+    int[] pixels = renderHistogram(width, height);
+    PixelStorage storage = ImageUtil.newStorage(height, width);
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      System.arraycopy(pixels, i * width, row, 0, width);
+      storage.setRow(i, row);
+    }
+    return new Image(storage);
+  }
+
+  /**
+   * Draws the red, green and blue histograms as a line chart of the given size, into packed
+   * 0xRRGGBB pixels that can back a displayed image as they are.
+   *
+   * @param width  the number of columns of the chart.
+   * @param height the number of rows of the chart.
+   * @return the pixels of the chart, row after row.
+   */
+  public int[] renderHistogram(int width, int height) {
+    return HistogramRenderer.render(new int[][]{red, green, blue}, HISTOGRAM_COLORS, width,
+            height);
+  }
+}
@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * Interface for the place a model keeps its images in, by name.
+ */
+public interface ImageStore {
+
+  /**
+   * Returns the image stored under a name.
+   *
+   * @param name the name of the image.
+   * @return the image, or null if there is no image with this name.
+   */
+  Image get(String name);
+
+  /**
+   * Stores an image under a name, replacing any image already stored under it.
+   *
+   * @param name  the name of the image.
+   * @param image the image to store.
+   */
+  void put(String name, Image image);
+
+  /**
+   * Removes the image stored under a name, if there is one.
+   *
+   * @param name the name of the image.
+   */
+  void remove(String name);
+
+  /**
+   * Returns the counters describing how the store has been used so far.
+   *
+   * @return a snapshot of the metrics of the store.
+   */
+  ImageStoreMetrics getMetrics();
+}
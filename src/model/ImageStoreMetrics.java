@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * A snapshot of the counters of an {@link ImageStore}.
+ */
+public class ImageStoreMetrics {
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final long residentBytes;
+
+  /**
+   * Creates a snapshot of the counters of a store.
+   *
+   * @param hits          the number of images found in memory.
+   * @param misses        the number of images that had to be reloaded, or were not found.
+   * @param evictions     the number of images moved out of memory.
+   * @param residentBytes the bytes of pixels currently held in memory.
+   */
+  public ImageStoreMetrics(long hits, long misses, long evictions, long residentBytes) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.residentBytes = residentBytes;
+  }
+
+  /**
+   * Getter for the number of images found in memory.
+   *
+   * @return the hits.
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Getter for the number of images that had to be reloaded, or were not found.
+   *
+   * @return the misses.
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Getter for the number of images moved out of memory.
+   *
+   * @return the evictions.
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Getter for the bytes of pixels currently held in memory.
+   *
+   * @return the resident bytes.
+   */
+  public long getResidentBytes() {
+    return residentBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+            + ", residentBytes=" + residentBytes;
+  }
+}
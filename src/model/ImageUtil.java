@@ -3,10 +3,76 @@ package model;
 /**
  * This is a utilities class for the ImageModel. It abstracts some of the operations to be performed
  * on the images, like fetching the image dimensions, abstracting logic for filters and
- * transformations.
+ * transformations, and creating the storage new images are written into.
  */
 public class ImageUtil {
 
+  /*
+  The backend every new image is stored in. Interleaved bytes take 3 bytes per pixel, a quarter
+  of the 12 bytes the three int[][] channels took. It can be changed at launch with
+  -Dperfectpixel.storage=PLANAR|PACKED_INT|INTERLEAVED_BYTE.
+  */
+  private static volatile StorageType storageType = StorageType.valueOf(
+          System.getProperty("perfectpixel.storage", StorageType.INTERLEAVED_BYTE.name()));
+
+  /*
+  How the filters read the pixels beyond the edges of an image.
+  */
+  private static volatile BorderMode borderMode = BorderMode.CLAMP;
+
+  /**
+   * Selects the storage backend used for every image created from now on.
+   *
+   * @param type the storage backend to use.
+   */
+  public static void setStorageType(StorageType type) {
+    if (type == null) {
+      throw new IllegalArgumentException("Storage type cannot be null.");
+    }
+    storageType = type;
+  }
+
+  /**
+   * Returns the storage backend used for new images.
+   *
+   * @return the selected storage type.
+   */
+  public static StorageType getStorageType() {
+    return storageType;
+  }
+
+  /**
+   * Selects how the blur and sharpen filters read the pixels beyond the edges of an image.
+   *
+   * @param mode the border mode to use.
+   */
+  public static void setBorderMode(BorderMode mode) {
+    if (mode == null) {
+      throw new IllegalArgumentException("Border mode cannot be null.");
+    }
+    borderMode = mode;
+  }
+
+  /**
+   * Returns how the filters read the pixels beyond the edges of an image.
+   *
+   * @return the selected border mode.
+   */
+  public static BorderMode getBorderMode() {
+    return borderMode;
+  }
+
+  /**
+   * Creates an empty storage of the selected backend for a new image.
+   *
+   * @param height the number of rows.
+   * @param width  the number of columns.
+   * @return returns a black storage.
+   */
+  public static PixelStorage newStorage(int height, int width) {
+    return storageType.create(height, width);
+  }
+
   /**
    * This function calculates the height and width of the image provided.
    *
@@ -14,20 +80,29 @@ public class ImageUtil {
    * @return returns the width and height of the image.
    */
   public static int[] getDimensions(Image image) {
-    int height = image.getRedChannel().length;
-    int width = image.getRedChannel()[0].length;
-    return new int[]{height, width};
+    return new int[]{image.getHeight(), image.getWidth()};
   }
 
   /**
-   * Creates an empty 2D array for the R,G,B channels of the new image being created.
+   * Clamps a value to ensure it is between 0 and 255.
    *
-   * @param height the number of rows of the 2D array.
-   * @param width  the number of columns of the 2D array.
-   * @return returns an empty 2D array.
+   * @param value the value to clamp.
+   * @return the clamped value.
    */
-  protected static int[][] getNewComponent(int height, int width) {
-    return new int[height][width];
+  public static int clampPixel(int value) {
+    return value < 0 ? 0 : (value > 255 ? 255 : value);
+  }
+
+  /**
+   * Packs the three channels of a pixel into a 0xRRGGBB int, clamping each of them first.
+   *
+   * @param red   the red value.
+   * @param green the green value.
+   * @param blue  the blue value.
+   * @return the packed pixel.
+   */
+  public static int packPixel(int red, int green, int blue) {
+    return (clampPixel(red) << 16) | (clampPixel(green) << 8) | clampPixel(blue);
   }
 
   /**
@@ -39,70 +114,50 @@ public class ImageUtil {
    * @return returns the transformed image.
    */
   protected static Image transformationHelper(Image image, double[][] kernel) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
-
-    int[][] redChannel = image.getRedChannel();
-    int[][] greenChannel = image.getGreenChannel();
-    int[][] blueChannel = image.getBlueChannel();
-
-    int[][] newRedChannel = getNewComponent(height, width);
-    int[][] newGreenChannel = getNewComponent(height, width);
-    int[][] newBlueChannel = getNewComponent(height, width);
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int red = redChannel[i][j];
-        int green = greenChannel[i][j];
-        int blue = blueChannel[i][j];
-
-        // Compute new pixel values using the kernel
-        newRedChannel[i][j] = (int) (kernel[0][0] * red + kernel[0][1] * green
-                + kernel[0][2] * blue);
-        newGreenChannel[i][j] = (int) (kernel[1][0] * red + kernel[1][1] * green
-                + kernel[1][2] * blue);
-        newBlueChannel[i][j] = (int) (kernel[2][0] * red + kernel[2][1] * green
-                + kernel[2][2] * blue);
-      }
-    }
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    return new PixelPipeline().transform(kernel).apply(image);
+  }
+
+  /**
+   * Multiplies the channels of a single pixel with the provided kernel.
+   *
+   * @param rgb    the pixel packed as 0xRRGGBB.
+   * @param kernel the 3x3 kernel to multiply the pixel with.
+   * @return returns the transformed pixel.
+   */
+  static int transformPixel(int rgb, double[][] kernel) {
+    int red = (rgb >> 16) & 0xFF;
+    int green = (rgb >> 8) & 0xFF;
+    int blue = rgb & 0xFF;
+
+    // Compute new pixel values using the kernel
+    return packPixel((int) (kernel[0][0] * red + kernel[0][1] * green + kernel[0][2] * blue),
+            (int) (kernel[1][0] * red + kernel[1][1] * green + kernel[1][2] * blue),
+            (int) (kernel[2][0] * red + kernel[2][1] * green + kernel[2][2] * blue));
   }
 
   /**
    * A helper function for the filter operations. This function will apply a filter based on the
-   * provided kernel. This function is used for the blur and sharpen filters.
+   * provided kernel, reading beyond the edges with the selected border mode. This function is used
+   * for the blur and sharpen filters.
    *
    * @param image  the image on which filter is to be applied.
-   * @param kernel the matrix for the filter.
+   * @param kernel the matrix for the filter, square with an odd size.
    * @return returns the filtered image
    */
   protected static Image filterHelper(Image image, float[][] kernel) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
-
-    int[][] newRedChannel = getNewComponent(height, width);
-    int[][] newGreenChannel = getNewComponent(height, width);
-    int[][] newBlueChannel = getNewComponent(height, width);
-
-    int[][] thisRedChannel = image.getRedChannel();
-    int[][] thisGreenChannel = image.getGreenChannel();
-    int[][] thisBlueChannel = image.getBlueChannel();
-
-    for (int x = 1; x < height - 1; x++) {
-      for (int y = 1; y < width - 1; y++) {
-
-        for (int ky = -1; ky <= 1; ky++) {
-          for (int kx = -1; kx <= 1; kx++) {
-            newRedChannel[x][y] += (int) (thisRedChannel[x + kx][y + ky]
-                    * kernel[ky + 1][kx + 1]);
-            newGreenChannel[x][y] += (int) (thisGreenChannel[x + kx][y + ky]
-                    * kernel[ky + 1][kx + 1]);
-            newBlueChannel[x][y] += (int) (thisBlueChannel[x + kx][y + ky]
-                    * kernel[ky + 1][kx + 1]);
-          }
-        }
-      }
-    }
-    return new Image(newRedChannel, newGreenChannel, newBlueChannel);
+    return filterHelper(image, kernel, borderMode);
+  }
+
+  /**
+   * A helper function for the filter operations. This function will apply a filter based on the
+   * provided kernel, reading beyond the edges with the provided border mode.
+   *
+   * @param image  the image on which filter is to be applied.
+   * @param kernel the matrix for the filter, square with an odd size.
+   * @param border how the pixels beyond the edges are read.
+   * @return returns the filtered image
+   */
+  protected static Image filterHelper(Image image, float[][] kernel, BorderMode border) {
+    return new Convolution(kernel, border).apply(image);
   }
-}
\ No newline at end of file
+}
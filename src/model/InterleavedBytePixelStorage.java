@@ -0,0 +1,102 @@
+package model;
+
+import static model.ImageUtil.clampPixel;
+
+/**
+ * Stores the pixels as interleaved R G B bytes in one contiguous row-major array, the same layout
+ * as the body of a binary PPM file.
+ */
+class InterleavedBytePixelStorage implements PixelStorage {
+  private final int height;
+  private final int width;
+  private final byte[] data;
+
+  /**
+   * Creates a black interleaved storage.
+   *
+   * @param height the number of rows.
+   * @param width  the number of columns.
+   */
+  InterleavedBytePixelStorage(int height, int width) {
+    this.height = height;
+    this.width = width;
+    this.data = new byte[Math.multiplyExact(Math.multiplyExact(height, width), 3)];
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getRed(int row, int col) {
+    return data[(row * width + col) * 3] & 0xFF;
+  }
+
+  @Override
+  public int getGreen(int row, int col) {
+    return data[(row * width + col) * 3 + 1] & 0xFF;
+  }
+
+  @Override
+  public int getBlue(int row, int col) {
+    return data[(row * width + col) * 3 + 2] & 0xFF;
+  }
+
+  @Override
+  public int getRGB(int row, int col) {
+    int index = (row * width + col) * 3;
+    return ((data[index] & 0xFF) << 16) | ((data[index + 1] & 0xFF) << 8)
+            | (data[index + 2] & 0xFF);
+  }
+
+  @Override
+  public void setRGB(int row, int col, int red, int green, int blue) {
+    int index = (row * width + col) * 3;
+    data[index] = (byte) clampPixel(red);
+    data[index + 1] = (byte) clampPixel(green);
+    data[index + 2] = (byte) clampPixel(blue);
+  }
+
+  @Override
+  public void setRGB(int row, int col, int rgb) {
+    int index = (row * width + col) * 3;
+    data[index] = (byte) (rgb >> 16);
+    data[index + 1] = (byte) (rgb >> 8);
+    data[index + 2] = (byte) rgb;
+  }
+
+  @Override
+  public void getRow(int row, int[] dest) {
+    int index = row * width * 3;
+    for (int j = 0; j < width; j++, index += 3) {
+      dest[j] = ((data[index] & 0xFF) << 16) | ((data[index + 1] & 0xFF) << 8)
+              | (data[index + 2] & 0xFF);
+    }
+  }
+
+  @Override
+  public void setRow(int row, int[] src) {
+    int index = row * width * 3;
+    for (int j = 0; j < width; j++, index += 3) {
+      data[index] = (byte) (src[j] >> 16);
+      data[index + 1] = (byte) (src[j] >> 8);
+      data[index + 2] = (byte) src[j];
+    }
+  }
+
+  @Override
+  public void clamp() {
+    // Values are clamped when they are written.
+  }
+
+  @Override
+  public StorageType getType() {
+    return StorageType.INTERLEAVED_BYTE;
+  }
+}
@@ -0,0 +1,19 @@
+package model;
+
+/**
+ * A point-wise operation applied to a whole row at once, with the channels of the pixels unpacked
+ * into one array each. Keeping each channel in its own array lets the loops over a row run on
+ * several pixels per instruction.
+ */
+interface LaneOperation {
+
+  /**
+   * Applies the operation to the first pixels of a row, overwriting the channels.
+   *
+   * @param red    the red values, between 0 and 255.
+   * @param green  the green values, between 0 and 255.
+   * @param blue   the blue values, between 0 and 255.
+   * @param length the number of pixels to process.
+   */
+  void apply(int[] red, int[] green, int[] blue, int length);
+}
@@ -0,0 +1,111 @@
+package model;
+
+/**
+ * Row versions of the point-wise operations, working on one array per channel. Each loop is a
+ * plain counted loop without branches or calls in its body, the shape the JIT compiler turns into
+ * SIMD instructions. Every operation gives exactly the same pixels as its scalar counterpart in
+ * {@link ImageOperations}, and leaves every channel between 0 and 255.
+ */
+final class LaneOperations {
+
+  private LaneOperations() {
+  }
+
+  /**
+   * Replaces every pixel with a greyscale pixel made of one of its channels.
+   *
+   * @param shift the bit offset of the channel within a packed pixel, 16, 8 or 0.
+   * @return the row operation.
+   */
+  static LaneOperation channel(int shift) {
+    return (red, green, blue, length) -> {
+      int[] source = shift == 16 ? red : (shift == 8 ? green : blue);
+      if (source != red) {
+        System.arraycopy(source, 0, red, 0, length);
+      }
+      if (source != green) {
+        System.arraycopy(source, 0, green, 0, length);
+      }
+      if (source != blue) {
+        System.arraycopy(source, 0, blue, 0, length);
+      }
+    };
+  }
+
+  /**
+   * Replaces every pixel with its "value", the largest of its channels.
+   *
+   * @return the row operation.
+   */
+  static LaneOperation value() {
+    return (red, green, blue, length) -> {
+      for (int j = 0; j < length; j++) {
+        int value = Math.max(red[j], Math.max(green[j], blue[j]));
+        red[j] = value;
+        green[j] = value;
+        blue[j] = value;
+      }
+    };
+  }
+
+  /**
+   * Replaces every pixel with its intensity, the average of its channels.
+   *
+   * @return the row operation.
+   */
+  static LaneOperation intensity() {
+    return (red, green, blue, length) -> {
+      for (int j = 0; j < length; j++) {
+        int intensity = (red[j] + green[j] + blue[j]) / 3;
+        red[j] = intensity;
+        green[j] = intensity;
+        blue[j] = intensity;
+      }
+    };
+  }
+
+  /**
+   * Replaces every pixel with its Luma.
+   *
+   * @return the row operation.
+   */
+  static LaneOperation luma() {
+    return (red, green, blue, length) -> {
+      for (int j = 0; j < length; j++) {
+        int luma = (int) (0.2126 * red[j] + 0.7152 * green[j] + 0.0722 * blue[j]);
+        luma = Math.min(Math.max(luma, 0), 255);
+        red[j] = luma;
+        green[j] = luma;
+        blue[j] = luma;
+      }
+    };
+  }
+
+  /**
+   * Multiplies the channels of every pixel with a color transformation kernel.
+   *
+   * @param kernel the 3x3 kernel to multiply the pixels with, which is not modified afterwards.
+   * @return the row operation.
+   */
+  static LaneOperation transform(double[][] kernel) {
+    double k00 = kernel[0][0];
+    double k01 = kernel[0][1];
+    double k02 = kernel[0][2];
+    double k10 = kernel[1][0];
+    double k11 = kernel[1][1];
+    double k12 = kernel[1][2];
+    double k20 = kernel[2][0];
+    double k21 = kernel[2][1];
+    double k22 = kernel[2][2];
+    return (red, green, blue, length) -> {
+      for (int j = 0; j < length; j++) {
+        int r = red[j];
+        int g = green[j];
+        int b = blue[j];
+        red[j] = Math.min(Math.max((int) (k00 * r + k01 * g + k02 * b), 0), 255);
+        green[j] = Math.min(Math.max((int) (k10 * r + k11 * g + k12 * b), 0), 255);
+        blue[j] = Math.min(Math.max((int) (k20 * r + k21 * g + k22 * b), 0), 255);
+      }
+    };
+  }
+}
@@ -0,0 +1,179 @@
+package model;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A tone mapping applied to each channel of a pixel on its own, compiled into one 256-entry table
+ * per channel. Levels, color correction offsets, brighten, gamma or any other curve cost a single
+ * table lookup per channel, and consecutive tables compose into one, so a chain of tone
+ * adjustments still makes a single pass over the pixels. Tables are immutable.
+ */
+public final class LookupTable implements PixelOperation {
+  private final int[] red;
+  private final int[] green;
+  private final int[] blue;
+
+  private LookupTable(int[] red, int[] green, int[] blue) {
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+  }
+
+  /**
+   * Creates the table leaving every channel unchanged.
+   *
+   * @return the identity table.
+   */
+  public static LookupTable identity() {
+    return of(value -> value);
+  }
+
+  /**
+   * Compiles a mapping applied to every channel. Mapped values are clamped between 0 and 255.
+   *
+   * @param mapping maps a channel value between 0 and 255 to its new value.
+   * @return the table.
+   */
+  public static LookupTable of(IntUnaryOperator mapping) {
+    int[] table = compile(mapping);
+    return new LookupTable(table, table, table);
+  }
+
+  /**
+   * Compiles a mapping for each channel. Mapped values are clamped between 0 and 255.
+   *
+   * @param red   maps a red value between 0 and 255 to its new value.
+   * @param green maps a green value between 0 and 255 to its new value.
+   * @param blue  maps a blue value between 0 and 255 to its new value.
+   * @return the table.
+   */
+  public static LookupTable of(IntUnaryOperator red, IntUnaryOperator green,
+                               IntUnaryOperator blue) {
+    return new LookupTable(compile(red), compile(green), compile(blue));
+  }
+
+  private static int[] compile(IntUnaryOperator mapping) {
+    if (mapping == null) {
+      throw new IllegalArgumentException("Mapping cannot be null.");
+    }
+    int[] table = new int[256];
+    for (int value = 0; value < 256; value++) {
+      table[value] = ImageUtil.clampPixel(mapping.applyAsInt(value));
+    }
+    return table;
+  }
+
+  /**
+   * Creates the table brightening/darkening every channel.
+   *
+   * @param value the increment/decrement to be applied to each channel.
+   * @return the table.
+   */
+  public static LookupTable brighten(int value) {
+    return of(channel -> channel + value);
+  }
+
+  /**
+   * Creates the table adding an offset to each channel, as the color correction does.
+   *
+   * @param redOffset   the offset to be applied to the red channel.
+   * @param greenOffset the offset to be applied to the green channel.
+   * @param blueOffset  the offset to be applied to the blue channel.
+   * @return the table.
+   */
+  public static LookupTable offsets(int redOffset, int greenOffset, int blueOffset) {
+    return of(value -> value + redOffset, value -> value + greenOffset,
+            value -> value + blueOffset);
+  }
+
+  /**
+   * Creates the table mapping every channel to the specified black, midtone, and white points.
+   *
+   * @param b the black point.
+   * @param m the mid point.
+   * @param w the white point.
+   * @return the table.
+   * @throws IllegalArgumentException if the black, mid, or white values are invalid.
+   */
+  public static LookupTable levels(int b, int m, int w) {
+    double[] curve = ImageOperations.levelsCurve(b, m, w);
+    return of(value -> ImageOperations.adjustChannel(value, curve[0], curve[1], curve[2], b, w));
+  }
+
+  /**
+   * Creates the table applying a gamma correction to every channel, mapping a value v to
+   * 255 * (v / 255) ^ (1 / gamma).
+   *
+   * @param gamma the gamma, above 1 to brighten the midtones and below 1 to darken them.
+   * @return the table.
+   */
+  public static LookupTable gamma(double gamma) {
+    if (!(gamma > 0) || Double.isInfinite(gamma)) {
+      throw new IllegalArgumentException("Gamma must be a positive number.");
+    }
+    return of(value -> (int) Math.round(255 * Math.pow(value / 255.0, 1 / gamma)));
+  }
+
+  /**
+   * Composes this table with the one applied after it into a single table.
+   *
+   * @param next the table applied to the output of this one.
+   * @return the table mapping each value the way applying both tables in order does.
+   */
+  public LookupTable then(LookupTable next) {
+    return new LookupTable(compose(red, next.red), compose(green, next.green),
+            compose(blue, next.blue));
+  }
+
+  private static int[] compose(int[] first, int[] second) {
+    int[] table = new int[256];
+    for (int value = 0; value < 256; value++) {
+      table[value] = second[first[value]];
+    }
+    return table;
+  }
+
+  /**
+   * Maps a single channel value.
+   *
+   * @param componentType the channel, RED, GREEN or BLUE.
+   * @param value         the value between 0 and 255.
+   * @return the mapped value.
+   */
+  public int map(ComponentType componentType, int value) {
+    switch (componentType) {
+      case RED:
+        return red[value];
+      case GREEN:
+        return green[value];
+      case BLUE:
+        return blue[value];
+      default:
+        throw new IllegalArgumentException("Not a channel: " + componentType);
+    }
+  }
+
+  @Override
+  public int apply(int rgb) {
+    return (red[(rgb >> 16) & 0xFF] << 16) | (green[(rgb >> 8) & 0xFF] << 8) | blue[rgb & 0xFF];
+  }
+
+  /**
+   * Returns the table applied to whole rows, one channel array at a time.
+   *
+   * @return the row operation.
+   */
+  LaneOperation lanes() {
+    return (redValues, greenValues, blueValues, length) -> {
+      lookup(red, redValues, length);
+      lookup(green, greenValues, length);
+      lookup(blue, blueValues, length);
+    };
+  }
+
+  private static void lookup(int[] table, int[] channel, int length) {
+    for (int j = 0; j < length; j++) {
+      channel[j] = table[channel[j]];
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps every image in memory in a map, without any limit.
+ */
+public class MapImageStore implements ImageStore {
+  private final Map<String, Image> images;
+  private long hits;
+  private long misses;
+
+  /**
+   * Creates an empty store.
+   */
+  public MapImageStore() {
+    this.images = new HashMap<>();
+  }
+
+  @Override
+  public Image get(String name) {
+    Image image = images.get(name);
+    if (image == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return image;
+  }
+
+  @Override
+  public void put(String name, Image image) {
+    images.put(name, image);
+  }
+
+  @Override
+  public void remove(String name) {
+    images.remove(name);
+  }
+
+  @Override
+  public ImageStoreMetrics getMetrics() {
+    long residentBytes = 0;
+    for (Image image : images.values()) {
+      residentBytes += image.getResidentBytes();
+    }
+    return new ImageStoreMetrics(hits, misses, 0, residentBytes);
+  }
+}
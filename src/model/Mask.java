@@ -0,0 +1,395 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The pixels a mask selects, kept as runs of consecutive selected columns on each row rather than
+ * as an image. A mask image only tells a pixel is selected by its red value being 0, so its three
+ * channels shrink to two numbers per run, and a masked operation walks the runs directly: a
+ * point-wise operation computes the pixels of the runs only, and a filter the pixels of the
+ * bounding box of the runs, so its cost follows the selected area rather than the image area.
+ * An image finds its mask once and keeps it, see {@link #of(Image)}, so the same mask used by
+ * several masked operations is only scanned once. Masks are immutable.
+ */
+public final class Mask {
+  private static final int[] NO_SPANS = new int[0];
+
+  private final int height;
+  private final int width;
+  private final int[][] spans;
+  private final long selectedCount;
+  private final int top;
+  private final int bottom;
+  private final int left;
+  private final int right;
+
+  private Mask(int height, int width, int[][] spans) {
+    this.height = height;
+    this.width = width;
+    this.spans = spans;
+
+    long count = 0;
+    int first = height;
+    int last = 0;
+    int min = width;
+    int max = 0;
+    for (int i = 0; i < height; i++) {
+      int[] runs = spans[i];
+      if (runs.length > 0) {
+        first = Math.min(first, i);
+        last = i + 1;
+        min = Math.min(min, runs[0]);
+        max = Math.max(max, runs[runs.length - 1]);
+        for (int k = 0; k < runs.length; k += 2) {
+          count += runs[k + 1] - runs[k];
+        }
+      }
+    }
+    this.selectedCount = count;
+    this.top = first;
+    this.bottom = last;
+    this.left = min;
+    this.right = max;
+  }
+
+  /**
+   * Returns the mask of an image, selecting the pixels whose red value is 0. The mask is found
+   * the first time and kept with the image until its pixels are overwritten.
+   *
+   * @param image the mask image, black where a manipulation applies.
+   * @return the mask of the image.
+   */
+  public static Mask of(Image image) {
+    return image.getMask();
+  }
+
+  /**
+   * Scans an image for the runs of pixels whose red value is 0.
+   *
+   * @param image the mask image.
+   * @return the new mask.
+   */
+  static Mask scan(Image image) {
+    int height = image.getHeight();
+    int width = image.getWidth();
+    int[][] spans = new int[height][];
+
+    ChannelView red = image.getRedView();
+    int[] row = new int[width];
+    int[] runs = new int[width + 1];
+    for (int i = 0; i < height; i++) {
+      red.getRow(i, row);
+      int count = 0;
+      int j = 0;
+      while (j < width) {
+        if (row[j] != 0) {
+          j++;
+          continue;
+        }
+        int start = j;
+        while (j < width && row[j] == 0) {
+          j++;
+        }
+        runs[count++] = start;
+        runs[count++] = j;
+      }
+      spans[i] = count == 0 ? NO_SPANS : Arrays.copyOf(runs, count);
+    }
+    return new Mask(height, width, spans);
+  }
+
+  /**
+   * Getter for the height of the mask.
+   *
+   * @return the number of rows.
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Getter for the width of the mask.
+   *
+   * @return the number of columns.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Getter for the number of pixels the mask selects.
+   *
+   * @return the number of selected pixels.
+   */
+  public long getSelectedCount() {
+    return selectedCount;
+  }
+
+  /**
+   * Tells if the mask selects no pixel at all.
+   *
+   * @return true if there is no run.
+   */
+  public boolean isEmpty() {
+    return selectedCount == 0;
+  }
+
+  /**
+   * Tells if the mask selects a pixel.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return true if the pixel is in a run.
+   */
+  public boolean contains(int row, int col) {
+    int[] runs = spans[row];
+    // The last run starting at or before the column is the only one that may contain it
+    int low = 0;
+    int high = runs.length / 2 - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (runs[2 * mid] <= col) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high >= 0 && col < runs[2 * high + 1];
+  }
+
+  /**
+   * Calls the consumer with each run of selected pixels, row after row and from left to right.
+   *
+   * @param consumer the consumer of the runs.
+   */
+  public void forEachSpan(SpanConsumer consumer) {
+    for (int i = 0; i < height; i++) {
+      int[] runs = spans[i];
+      for (int k = 0; k < runs.length; k += 2) {
+        consumer.accept(i, runs[k], runs[k + 1]);
+      }
+    }
+  }
+
+  /**
+   * Selects the pixels this mask does not select.
+   *
+   * @return the inverted mask.
+   */
+  public Mask invert() {
+    int[][] inverted = new int[height][];
+    int[] result = new int[width + 2];
+    for (int i = 0; i < height; i++) {
+      int[] runs = spans[i];
+      int count = 0;
+      int start = 0;
+      for (int k = 0; k < runs.length; k += 2) {
+        if (runs[k] > start) {
+          result[count++] = start;
+          result[count++] = runs[k];
+        }
+        start = runs[k + 1];
+      }
+      if (start < width) {
+        result[count++] = start;
+        result[count++] = width;
+      }
+      inverted[i] = count == 0 ? NO_SPANS : Arrays.copyOf(result, count);
+    }
+    return new Mask(height, width, inverted);
+  }
+
+  /**
+   * Selects the pixels either this mask or the other one selects.
+   *
+   * @param other a mask of the same size.
+   * @return the union of both masks.
+   * @throws IllegalArgumentException if the masks are not of the same size.
+   */
+  public Mask union(Mask other) {
+    checkSize(other);
+    int[][] merged = new int[height][];
+    int[] result = new int[width + 2];
+    for (int i = 0; i < height; i++) {
+      int[] a = spans[i];
+      int[] b = other.spans[i];
+      int count = 0;
+      int ka = 0;
+      int kb = 0;
+      // Runs are taken by increasing start, and extend the last one when they touch it
+      while (ka < a.length || kb < b.length) {
+        int start;
+        int end;
+        if (kb >= b.length || (ka < a.length && a[ka] <= b[kb])) {
+          start = a[ka];
+          end = a[ka + 1];
+          ka += 2;
+        } else {
+          start = b[kb];
+          end = b[kb + 1];
+          kb += 2;
+        }
+        if (count > 0 && start <= result[count - 1]) {
+          result[count - 1] = Math.max(result[count - 1], end);
+        } else {
+          result[count++] = start;
+          result[count++] = end;
+        }
+      }
+      merged[i] = count == 0 ? NO_SPANS : Arrays.copyOf(result, count);
+    }
+    return new Mask(height, width, merged);
+  }
+
+  /**
+   * Selects the pixels both this mask and the other one select.
+   *
+   * @param other a mask of the same size.
+   * @return the intersection of both masks.
+   * @throws IllegalArgumentException if the masks are not of the same size.
+   */
+  public Mask intersect(Mask other) {
+    checkSize(other);
+    int[][] common = new int[height][];
+    int[] result = new int[width + 2];
+    for (int i = 0; i < height; i++) {
+      int[] a = spans[i];
+      int[] b = other.spans[i];
+      int count = 0;
+      int ka = 0;
+      int kb = 0;
+      while (ka < a.length && kb < b.length) {
+        int start = Math.max(a[ka], b[kb]);
+        int end = Math.min(a[ka + 1], b[kb + 1]);
+        if (start < end) {
+          result[count++] = start;
+          result[count++] = end;
+        }
+        // The run ending first cannot overlap any later run of the other mask
+        if (a[ka + 1] < b[kb + 1]) {
+          ka += 2;
+        } else {
+          kb += 2;
+        }
+      }
+      common[i] = count == 0 ? NO_SPANS : Arrays.copyOf(result, count);
+    }
+    return new Mask(height, width, common);
+  }
+
+  private void checkSize(Mask other) {
+    if (other.height != height || other.width != width) {
+      throw new IllegalArgumentException("Mask dimensions do not match.");
+    }
+  }
+
+  /**
+   * Returns the mask as an image, black where it selects and white elsewhere. The pixels are only
+   * computed if the image is read as an image, so storing the image in a model keeps the runs
+   * only, and masked operations use this mask as it is.
+   *
+   * @return the image of the mask.
+   */
+  public Image toImage() {
+    return Image.fromMask(this);
+  }
+
+  /**
+   * Computes the pixels of the image of the mask.
+   *
+   * @return the materialized image of the mask.
+   */
+  Image render() {
+    PixelStorage storage = ImageUtil.newStorage(height, width);
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      Arrays.fill(row, 0xFFFFFF);
+      int[] runs = spans[i];
+      for (int k = 0; k < runs.length; k += 2) {
+        Arrays.fill(row, runs[k], runs[k + 1], 0);
+      }
+      storage.setRow(i, row);
+    }
+    return new Image(storage);
+  }
+
+  /**
+   * Getter for the runs of a row.
+   *
+   * @param row the row.
+   * @return the start and end column of each run, the end excluded, one run after the other.
+   */
+  int[] row(int row) {
+    return spans[row];
+  }
+
+  /**
+   * Getter for the first row of the bounding box.
+   *
+   * @return the first row with a run.
+   */
+  int top() {
+    return top;
+  }
+
+  /**
+   * Getter for the end of the bounding box along the rows.
+   *
+   * @return the row after the last one with a run.
+   */
+  int bottom() {
+    return bottom;
+  }
+
+  /**
+   * Getter for the first column of the bounding box.
+   *
+   * @return the first column of any run.
+   */
+  int left() {
+    return left;
+  }
+
+  /**
+   * Getter for the end of the bounding box along the columns.
+   *
+   * @return the column after the last one of any run.
+   */
+  int right() {
+    return right;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Mask)) {
+      return false;
+    }
+    Mask other = (Mask) o;
+    return height == other.height && width == other.width
+            && Arrays.deepEquals(spans, other.spans);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * height + width) + Arrays.deepHashCode(spans);
+  }
+
+  /**
+   * Consumer of the runs of a mask.
+   */
+  @FunctionalInterface
+  public interface SpanConsumer {
+
+    /**
+     * Accepts one run of selected pixels.
+     *
+     * @param row   the row of the run.
+     * @param start the first column of the run.
+     * @param end   the column after the last one of the run.
+     */
+    void accept(int row, int start, int end);
+  }
+}
@@ -0,0 +1,155 @@
+package model;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An image operation known by name, along with the traits that tell the model how it may be run.
+ * A point-wise operation maps each pixel on its own through a {@link PixelPipeline}, so it can be
+ * fused with other point-wise steps, updated in place, or applied to any subset of the pixels.
+ * A filter reads a neighbourhood of each pixel, so computing part of the image also reads the
+ * pixels within its radius around that part. Masked operations, split views and the generic
+ * operations of the model all decide how to run an operation from these traits, see
+ * {@link OperationRegistry}.
+ */
+public final class Operation implements ImageEffectProcessor {
+  private final String name;
+  private final PixelPipeline pipeline;
+  private final Function<Image, PixelPipeline> adaptivePipeline;
+  private final Supplier<Convolution> filter;
+  private final boolean lookupTable;
+
+  private Operation(String name, PixelPipeline pipeline,
+                    Function<Image, PixelPipeline> adaptivePipeline, Supplier<Convolution> filter,
+                    boolean lookupTable) {
+    this.name = name;
+    this.pipeline = pipeline;
+    this.adaptivePipeline = adaptivePipeline;
+    this.filter = filter;
+    this.lookupTable = lookupTable;
+  }
+
+  /**
+   * Creates a point-wise operation applying the same steps to every image.
+   *
+   * @param name        the name of the operation.
+   * @param pipeline    the steps applied to each pixel.
+   * @param lookupTable true if each channel is mapped on its own, through a lookup table.
+   * @return the operation.
+   */
+  static Operation pointWise(String name, PixelPipeline pipeline, boolean lookupTable) {
+    return new Operation(name, pipeline, null, null, lookupTable);
+  }
+
+  /**
+   * Creates a point-wise operation whose steps depend on the image, such as one computed from its
+   * histograms. The steps are only found once the image is available.
+   *
+   * @param name        the name of the operation.
+   * @param pipeline    finds the steps applied to each pixel of an image.
+   * @param lookupTable true if each channel is mapped on its own, through a lookup table.
+   * @return the operation.
+   */
+  static Operation adaptive(String name, Function<Image, PixelPipeline> pipeline,
+                            boolean lookupTable) {
+    return new Operation(name, null, pipeline, null, lookupTable);
+  }
+
+  /**
+   * Creates an operation filtering the neighbourhood of each pixel.
+   *
+   * @param name   the name of the operation.
+   * @param filter creates the filter, so that it reads the border mode selected when it is run.
+   * @return the operation.
+   */
+  static Operation filter(String name, Supplier<Convolution> filter) {
+    return new Operation(name, null, null, filter, false);
+  }
+
+  /**
+   * Getter for the name of the operation.
+   *
+   * @return the name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Tells if each pixel of the result only depends on the same pixel of the image.
+   *
+   * @return true for a point-wise operation.
+   */
+  public boolean isPointWise() {
+    return filter == null;
+  }
+
+  /**
+   * Tells if the steps of a point-wise operation depend on the image they are applied to.
+   *
+   * @return true if the steps are found from each image, false for fixed steps and for filters.
+   */
+  public boolean isAdaptive() {
+    return adaptivePipeline != null;
+  }
+
+  /**
+   * Getter for the number of pixels around a pixel the operation reads, along each axis.
+   *
+   * @return the radius of the neighbourhood, 0 for a point-wise operation.
+   */
+  public int getRadius() {
+    return filter == null ? 0 : filter.get().radius();
+  }
+
+  /**
+   * Tells if each channel of the result only depends on the same channel of the image.
+   *
+   * @return true if the channels are processed independently.
+   */
+  public boolean isChannelSeparable() {
+    return filter != null || lookupTable;
+  }
+
+  /**
+   * Tells if the operation maps each channel through a lookup table, which successive operations
+   * can compose into a single table.
+   *
+   * @return true if the operation is a lookup table.
+   */
+  public boolean isLookupTable() {
+    return lookupTable;
+  }
+
+  /**
+   * Finds the steps of a point-wise operation for an image.
+   *
+   * @param image the image the steps are applied to.
+   * @return the steps applied to each pixel.
+   * @throws IllegalStateException if the operation is a filter.
+   */
+  PixelPipeline pipeline(Image image) {
+    if (filter != null) {
+      throw new IllegalStateException(name + " is not a point-wise operation.");
+    }
+    return pipeline != null ? pipeline : adaptivePipeline.apply(image);
+  }
+
+  /**
+   * Creates the filter of a neighbourhood operation, with the border mode currently selected.
+   *
+   * @return the filter.
+   * @throws IllegalStateException if the operation is point-wise.
+   */
+  Convolution filter() {
+    if (filter == null) {
+      throw new IllegalStateException(name + " is not a filter.");
+    }
+    return filter.get();
+  }
+
+  @Override
+  public Image applyEffect(Image original) {
+    return isPointWise() ? pipeline(original).apply(original) : filter().apply(original);
+  }
+}
@@ -0,0 +1,116 @@
+package model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The operations that can be applied by name, with the number of parameters each one takes. It
+ * holds the point-wise operations (brighten, the components, sepia, color correction and levels
+ * adjustment) and the filters (blur and sharpen) under the names the scripts use. Masked
+ * operations and split views find their operation here and run it according to its traits,
+ * so an operation registered here is supported by both.
+ */
+public final class OperationRegistry {
+  private static final Map<String, Entry> OPERATIONS = new ConcurrentHashMap<>();
+
+  static {
+    register("blur", 0, parameters -> Operation.filter("blur", ImageOperations::blurFilter));
+    register("sharpen", 0,
+            parameters -> Operation.filter("sharpen", ImageOperations::sharpenFilter));
+    register("sepia", 0,
+            parameters -> Operation.pointWise("sepia", new PixelPipeline().sepia(), false));
+    registerComponent("red-component", ComponentType.RED);
+    registerComponent("green-component", ComponentType.GREEN);
+    registerComponent("blue-component", ComponentType.BLUE);
+    registerComponent("value-component", ComponentType.VALUE);
+    registerComponent("intensity-component", ComponentType.INTENSITY);
+    registerComponent("luma-component", ComponentType.LUMA);
+    register("brighten", 1, parameters -> Operation.pointWise("brighten",
+            new PixelPipeline().brighten(parameters[0]), true));
+    register("color-correct", 0, parameters -> Operation.adaptive("color-correct",
+            ImageOperations::colorCorrection, true));
+    register("levels-adjust", 3, parameters -> Operation.pointWise("levels-adjust",
+            new PixelPipeline().levels(parameters[0], parameters[1], parameters[2]), true));
+  }
+
+  private OperationRegistry() {
+  }
+
+  /**
+   * Creates an operation from its parameters.
+   */
+  @FunctionalInterface
+  public interface Factory {
+
+    /**
+     * Creates the operation.
+     *
+     * @param parameters the parameters of the operation, as many as it was registered with.
+     * @return the operation.
+     * @throws IllegalArgumentException if the parameters are invalid.
+     */
+    Operation create(int[] parameters);
+  }
+
+  private static final class Entry {
+    private final int parameterCount;
+    private final Factory factory;
+
+    private Entry(int parameterCount, Factory factory) {
+      this.parameterCount = parameterCount;
+      this.factory = factory;
+    }
+  }
+
+  private static void registerComponent(String name, ComponentType componentType) {
+    register(name, 0, parameters -> Operation.pointWise(name,
+            new PixelPipeline().component(componentType), false));
+  }
+
+  /**
+   * Registers an operation under a name, replacing any operation registered under it.
+   *
+   * @param name           the name of the operation, in lower case.
+   * @param parameterCount the number of parameters the operation takes.
+   * @param factory        creates the operation from its parameters.
+   */
+  public static void register(String name, int parameterCount, Factory factory) {
+    if (name == null || factory == null || parameterCount < 0) {
+      throw new IllegalArgumentException("Invalid operation registration: " + name);
+    }
+    OPERATIONS.put(name, new Entry(parameterCount, factory));
+  }
+
+  /**
+   * Finds an operation by name and creates it with its parameters.
+   *
+   * @param name       the name of the operation, in any case.
+   * @param parameters the parameters of the operation.
+   * @return the operation.
+   * @throws IllegalArgumentException if no operation has that name, or if the parameters are
+   *                                  invalid.
+   */
+  public static Operation get(String name, int... parameters) {
+    Entry entry = name == null ? null : OPERATIONS.get(name.toLowerCase());
+    if (entry == null) {
+      throw new IllegalArgumentException("Unsupported operation: " + name);
+    }
+    if (parameters.length != entry.parameterCount) {
+      throw new IllegalArgumentException(name + " takes " + entry.parameterCount
+              + " parameters.");
+    }
+    return entry.factory.create(parameters);
+  }
+
+  /**
+   * Getter for the names of the registered operations.
+   *
+   * @return the names, in alphabetical order.
+   */
+  public static Set<String> getNames() {
+    return Collections.unmodifiableSet(new TreeSet<>(OPERATIONS.keySet()));
+  }
+}
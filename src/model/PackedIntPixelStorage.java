@@ -0,0 +1,87 @@
+package model;
+
+import static model.ImageUtil.packPixel;
+
+/**
+ * Stores every pixel as a single 0xRRGGBB int in one contiguous row-major array.
+ */
+class PackedIntPixelStorage implements PixelStorage {
+  private final int height;
+  private final int width;
+  private final int[] pixels;
+
+  /**
+   * Creates a black packed storage.
+   *
+   * @param height the number of rows.
+   * @param width  the number of columns.
+   */
+  PackedIntPixelStorage(int height, int width) {
+    this.height = height;
+    this.width = width;
+    this.pixels = new int[Math.multiplyExact(height, width)];
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getRed(int row, int col) {
+    return (pixels[row * width + col] >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreen(int row, int col) {
+    return (pixels[row * width + col] >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlue(int row, int col) {
+    return pixels[row * width + col] & 0xFF;
+  }
+
+  @Override
+  public int getRGB(int row, int col) {
+    return pixels[row * width + col];
+  }
+
+  @Override
+  public void setRGB(int row, int col, int red, int green, int blue) {
+    pixels[row * width + col] = packPixel(red, green, blue);
+  }
+
+  @Override
+  public void setRGB(int row, int col, int rgb) {
+    pixels[row * width + col] = rgb & 0xFFFFFF;
+  }
+
+  @Override
+  public void getRow(int row, int[] dest) {
+    System.arraycopy(pixels, row * width, dest, 0, width);
+  }
+
+  @Override
+  public void setRow(int row, int[] src) {
+    int offset = row * width;
+    for (int j = 0; j < width; j++) {
+      pixels[offset + j] = src[j] & 0xFFFFFF;
+    }
+  }
+
+  @Override
+  public void clamp() {
+    // Values are clamped when they are written.
+  }
+
+  @Override
+  public StorageType getType() {
+    return StorageType.PACKED_INT;
+  }
+}
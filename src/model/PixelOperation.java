@@ -0,0 +1,16 @@
+package model;
+
+/**
+ * Interface for operations computing each pixel of the new image from the pixel at the same
+ * position in the original image only, such as brighten, sepia or the greyscale components.
+ */
+public interface PixelOperation {
+
+  /**
+   * Applies the operation to a single pixel.
+   *
+   * @param rgb the pixel packed as 0xRRGGBB.
+   * @return the new pixel packed as 0xRRGGBB, with each channel between 0 and 255.
+   */
+  int apply(int rgb);
+}
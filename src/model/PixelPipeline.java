@@ -0,0 +1,330 @@
+package model;
+
+import java.util.Arrays;
+
+import static model.ImageOperations.channelPixel;
+import static model.RowExecutor.forEachBand;
+
+/**
+ * A chain of point-wise operations applied to an image in a single pass. Each pixel goes through
+ * every step in order, so no image is created between the steps, yet the result is the same as
+ * applying the operations one after the other. Pipelines are immutable, every step added returns
+ * a new pipeline. Consecutive {@link LookupTable} steps are composed into a single table.
+ * When every step is one of the built-in operations, rows are processed with their
+ * {@link LaneOperation} versions, which the JIT compiler can run on several pixels per
+ * instruction. Pipelines with any other step fall back to processing one pixel at a time.
+ */
+public class PixelPipeline {
+  private static final double[][] SEPIA_KERNEL = {{0.393, 0.769, 0.189},
+      {0.349, 0.686, 0.168}, {0.272, 0.534, 0.131}};
+
+  /*
+  Rows of the pipelines made of built-in operations only are processed one channel array at a
+  time, unless turned off with -Dperfectpixel.vectorized=false. Both paths give the same pixels.
+  */
+  private static volatile boolean vectorized = Boolean.parseBoolean(
+          System.getProperty("perfectpixel.vectorized", "true"));
+
+  private final PixelOperation[] steps;
+  // The row version of each step, or null for the steps that only have a pixel version
+  private final LaneOperation[] lanes;
+
+  /**
+   * Creates an empty pipeline, which leaves images unchanged.
+   */
+  public PixelPipeline() {
+    this(new PixelOperation[0], new LaneOperation[0]);
+  }
+
+  private PixelPipeline(PixelOperation[] steps, LaneOperation[] lanes) {
+    this.steps = steps;
+    this.lanes = lanes;
+  }
+
+  /**
+   * Turns the processing of whole rows one channel array at a time on or off.
+   *
+   * @param enabled true to process the rows of built-in operations one channel array at a time.
+   */
+  public static void setVectorized(boolean enabled) {
+    vectorized = enabled;
+  }
+
+  /**
+   * Tells if the rows of built-in operations are processed one channel array at a time.
+   *
+   * @return true if enabled.
+   */
+  public static boolean isVectorized() {
+    return vectorized;
+  }
+
+  /**
+   * Adds a step at the end of the pipeline.
+   *
+   * @param operation the operation to apply after the current steps.
+   * @return the longer pipeline.
+   */
+  public PixelPipeline then(PixelOperation operation) {
+    if (operation instanceof LookupTable) {
+      return then(operation, ((LookupTable) operation).lanes());
+    }
+    return then(operation, null);
+  }
+
+  /**
+   * Adds a step at the end of the pipeline, along with its row version. A lookup table following
+   * another one is composed with it into a single step.
+   *
+   * @param operation the operation to apply after the current steps.
+   * @param lane      the same operation applied to a whole row, or null if there is none.
+   * @return the longer pipeline.
+   */
+  private PixelPipeline then(PixelOperation operation, LaneOperation lane) {
+    if (operation == null) {
+      throw new IllegalArgumentException("Operation cannot be null.");
+    }
+    int last = steps.length - 1;
+    if (operation instanceof LookupTable && last >= 0 && steps[last] instanceof LookupTable) {
+      LookupTable composed = ((LookupTable) steps[last]).then((LookupTable) operation);
+      PixelOperation[] same = steps.clone();
+      same[last] = composed;
+      LaneOperation[] sameLanes = lanes.clone();
+      sameLanes[last] = composed.lanes();
+      return new PixelPipeline(same, sameLanes);
+    }
+    PixelOperation[] longer = Arrays.copyOf(steps, steps.length + 1);
+    longer[steps.length] = operation;
+    LaneOperation[] longerLanes = Arrays.copyOf(lanes, lanes.length + 1);
+    longerLanes[lanes.length] = lane;
+    return new PixelPipeline(longer, longerLanes);
+  }
+
+  /**
+   * Adds all the steps of another pipeline at the end of this one.
+   *
+   * @param next the pipeline to apply after the current steps.
+   * @return the longer pipeline.
+   */
+  public PixelPipeline then(PixelPipeline next) {
+    PixelPipeline longer = this;
+    for (int i = 0; i < next.steps.length; i++) {
+      longer = longer.then(next.steps[i], next.lanes[i]);
+    }
+    return longer;
+  }
+
+  /**
+   * Adds a brighten/darken step.
+   *
+   * @param value the increment/decrement to be applied at pixel level.
+   * @return the longer pipeline.
+   */
+  public PixelPipeline brighten(int value) {
+    return then(LookupTable.brighten(value));
+  }
+
+  /**
+   * Adds a step multiplying each pixel with a color transformation kernel.
+   *
+   * @param kernel the 3x3 kernel to multiply the pixels with.
+   * @return the longer pipeline.
+   */
+  public PixelPipeline transform(double[][] kernel) {
+    double[][] copy = new double[3][];
+    for (int i = 0; i < 3; i++) {
+      copy[i] = Arrays.copyOf(kernel[i], 3);
+    }
+    return then(rgb -> ImageUtil.transformPixel(rgb, copy), LaneOperations.transform(copy));
+  }
+
+  /**
+   * Adds a sepia step.
+   *
+   * @return the longer pipeline.
+   */
+  public PixelPipeline sepia() {
+    return transform(SEPIA_KERNEL);
+  }
+
+  /**
+   * Adds a step extracting one of the components of the pixels.
+   *
+   * @param componentType the component to extract.
+   * @return the longer pipeline.
+   */
+  public PixelPipeline component(ComponentType componentType) {
+    switch (componentType) {
+      case RED:
+        return then(rgb -> channelPixel(rgb, 16), LaneOperations.channel(16));
+      case GREEN:
+        return then(rgb -> channelPixel(rgb, 8), LaneOperations.channel(8));
+      case BLUE:
+        return then(rgb -> channelPixel(rgb, 0), LaneOperations.channel(0));
+      case VALUE:
+        return then(ImageOperations::valuePixel, LaneOperations.value());
+      case INTENSITY:
+        return then(ImageOperations::intensityPixel, LaneOperations.intensity());
+      case LUMA:
+        return then(ImageOperations::lumaPixel, LaneOperations.luma());
+      default:
+        throw new IllegalArgumentException("Unknown component type: " + componentType);
+    }
+  }
+
+  /**
+   * Adds a levels adjustment step.
+   *
+   * @param b the black point.
+   * @param m the mid point.
+   * @param w the white point.
+   * @return the longer pipeline.
+   * @throws IllegalArgumentException if the black, mid, or white values are invalid.
+   */
+  public PixelPipeline levels(int b, int m, int w) {
+    return then(LookupTable.levels(b, m, w));
+  }
+
+  /**
+   * Tells how many steps the pipeline has.
+   *
+   * @return the number of steps.
+   */
+  public int size() {
+    return steps.length;
+  }
+
+  /**
+   * Runs a single pixel through every step.
+   *
+   * @param rgb the pixel packed as 0xRRGGBB.
+   * @return the resulting pixel.
+   */
+  public int apply(int rgb) {
+    for (PixelOperation step : steps) {
+      rgb = step.apply(rgb);
+    }
+    return rgb;
+  }
+
+  /**
+   * The channel arrays the pixels of a row are unpacked into for the row versions of the steps.
+   * Each thread processing rows keeps buffers of its own and reuses them from row to row.
+   */
+  static final class ChannelBuffers {
+    private final int[] red;
+    private final int[] green;
+    private final int[] blue;
+
+    private ChannelBuffers(int width) {
+      this.red = new int[width];
+      this.green = new int[width];
+      this.blue = new int[width];
+    }
+  }
+
+  /**
+   * Returns the buffers to run ranges of rows through the row versions of the steps.
+   *
+   * @param width the number of pixels of the longest range to process.
+   * @return the buffers, or null if the pixels are processed one at a time.
+   */
+  ChannelBuffers channelBuffers(int width) {
+    return vectorized && hasLanes() ? new ChannelBuffers(width) : null;
+  }
+
+  /**
+   * Runs a range of a row of pixels through every step, in place. With buffers, the range is
+   * unpacked into one array per channel and goes through the row versions of the steps.
+   *
+   * @param row     the pixels packed as 0xRRGGBB.
+   * @param start   the first pixel to process.
+   * @param end     the pixel after the last one to process.
+   * @param buffers the buffers from {@link #channelBuffers(int)}, or null.
+   */
+  void apply(int[] row, int start, int end, ChannelBuffers buffers) {
+    if (buffers == null) {
+      // One step at a time over the whole range, which keeps each loop simple for the JIT
+      for (PixelOperation step : steps) {
+        for (int j = start; j < end; j++) {
+          row[j] = step.apply(row[j]);
+        }
+      }
+      return;
+    }
+
+    int length = end - start;
+    int[] red = buffers.red;
+    int[] green = buffers.green;
+    int[] blue = buffers.blue;
+    for (int j = 0; j < length; j++) {
+      int rgb = row[start + j];
+      red[j] = (rgb >> 16) & 0xFF;
+      green[j] = (rgb >> 8) & 0xFF;
+      blue[j] = rgb & 0xFF;
+    }
+    for (LaneOperation lane : lanes) {
+      lane.apply(red, green, blue, length);
+    }
+    for (int j = 0; j < length; j++) {
+      row[start + j] = (red[j] << 16) | (green[j] << 8) | blue[j];
+    }
+  }
+
+  /**
+   * Applies every step to the image in a single pass over its pixels.
+   *
+   * @param image the image to process.
+   * @return the processed image.
+   */
+  public Image apply(Image image) {
+    PixelStorage result = ImageUtil.newStorage(image.getHeight(), image.getWidth());
+    apply(image, result);
+    return new Image(result);
+  }
+
+  /**
+   * Applies the steps to the pixels of an image, overwriting them.
+   *
+   * @param image the image to update, which nothing else may reference.
+   */
+  void applyInPlace(Image image) {
+    apply(image, image.getStorage());
+  }
+
+  /**
+   * Applies the steps to every pixel of an image, one row at a time. Each row is read before it is
+   * written, so the result may be the storage of the image itself.
+   *
+   * @param image  the image to process.
+   * @param result the storage the processed rows are written to.
+   */
+  private void apply(Image image, PixelStorage result) {
+    int height = image.getHeight();
+    int width = image.getWidth();
+
+    forEachBand(height, width, (rowStart, rowEnd) -> {
+      int[] row = new int[width];
+      ChannelBuffers buffers = channelBuffers(width);
+      for (int i = rowStart; i < rowEnd; i++) {
+        image.getRow(i, row);
+        apply(row, 0, width, buffers);
+        result.setRow(i, row);
+      }
+    });
+  }
+
+  /**
+   * Tells if every step has a row version.
+   *
+   * @return true if the rows can be processed one channel array at a time.
+   */
+  private boolean hasLanes() {
+    for (LaneOperation lane : lanes) {
+      if (lane == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,107 @@
+package model;
+
+/**
+ * The backing store for the pixels of an {@link Image}. Every backend exposes the same row and
+ * pixel accessors, so the operations never need to know how the pixels are laid out in memory.
+ * Packed values use the 0xRRGGBB layout, and every write clamps each channel between 0 and 255.
+ */
+public interface PixelStorage {
+
+  /**
+   * Returns the number of rows of the storage.
+   *
+   * @return the height in pixels.
+   */
+  int getHeight();
+
+  /**
+   * Returns the number of columns of the storage.
+   *
+   * @return the width in pixels.
+   */
+  int getWidth();
+
+  /**
+   * Returns the red value of the given pixel.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the red value.
+   */
+  int getRed(int row, int col);
+
+  /**
+   * Returns the green value of the given pixel.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the green value.
+   */
+  int getGreen(int row, int col);
+
+  /**
+   * Returns the blue value of the given pixel.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the blue value.
+   */
+  int getBlue(int row, int col);
+
+  /**
+   * Returns the given pixel packed as 0xRRGGBB.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return the packed pixel.
+   */
+  int getRGB(int row, int col);
+
+  /**
+   * Sets the given pixel, clamping each of the channels between 0 and 255.
+   *
+   * @param row   the row of the pixel.
+   * @param col   the column of the pixel.
+   * @param red   the red value.
+   * @param green the green value.
+   * @param blue  the blue value.
+   */
+  void setRGB(int row, int col, int red, int green, int blue);
+
+  /**
+   * Sets the given pixel from a packed 0xRRGGBB value.
+   *
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @param rgb the packed pixel.
+   */
+  void setRGB(int row, int col, int rgb);
+
+  /**
+   * Copies one row of packed 0xRRGGBB pixels into the provided buffer.
+   *
+   * @param row  the row to read.
+   * @param dest the buffer to fill, at least as long as the width.
+   */
+  void getRow(int row, int[] dest);
+
+  /**
+   * Overwrites one row with the packed 0xRRGGBB pixels of the provided buffer.
+   *
+   * @param row the row to write.
+   * @param src the packed pixels, at least as long as the width.
+   */
+  void setRow(int row, int[] src);
+
+  /**
+   * Clamps every stored value between 0 and 255. Backends that clamp on write have nothing to do.
+   */
+  void clamp();
+
+  /**
+   * Returns the kind of backend this storage is.
+   *
+   * @return the storage type.
+   */
+  StorageType getType();
+}
@@ -0,0 +1,120 @@
+package model;
+
+import static model.ImageUtil.clampPixel;
+import static model.ImageUtil.packPixel;
+
+/**
+ * The original storage layout of the application, with the R, G and B channels each kept as a
+ * separate 2D array. Arrays handed to the constructor are used as they are, so values outside of
+ * 0 to 255 are kept until {@link #clamp()} is called.
+ */
+class PlanarPixelStorage implements PixelStorage {
+  private final int[][] redChannel;
+  private final int[][] greenChannel;
+  private final int[][] blueChannel;
+
+  /**
+   * Creates a black planar storage.
+   *
+   * @param height the number of rows.
+   * @param width  the number of columns.
+   */
+  PlanarPixelStorage(int height, int width) {
+    this(new int[height][width], new int[height][width], new int[height][width]);
+  }
+
+  /**
+   * Wraps the provided channels without copying them.
+   *
+   * @param redChannel   Red Component.
+   * @param greenChannel Green Component.
+   * @param blueChannel  Blue Component.
+   */
+  PlanarPixelStorage(int[][] redChannel, int[][] greenChannel, int[][] blueChannel) {
+    this.redChannel = redChannel;
+    this.greenChannel = greenChannel;
+    this.blueChannel = blueChannel;
+  }
+
+  @Override
+  public int getHeight() {
+    return redChannel.length;
+  }
+
+  @Override
+  public int getWidth() {
+    return redChannel.length == 0 ? 0 : redChannel[0].length;
+  }
+
+  @Override
+  public int getRed(int row, int col) {
+    return redChannel[row][col];
+  }
+
+  @Override
+  public int getGreen(int row, int col) {
+    return greenChannel[row][col];
+  }
+
+  @Override
+  public int getBlue(int row, int col) {
+    return blueChannel[row][col];
+  }
+
+  @Override
+  public int getRGB(int row, int col) {
+    return packPixel(redChannel[row][col], greenChannel[row][col], blueChannel[row][col]);
+  }
+
+  @Override
+  public void setRGB(int row, int col, int red, int green, int blue) {
+    redChannel[row][col] = clampPixel(red);
+    greenChannel[row][col] = clampPixel(green);
+    blueChannel[row][col] = clampPixel(blue);
+  }
+
+  @Override
+  public void setRGB(int row, int col, int rgb) {
+    redChannel[row][col] = (rgb >> 16) & 0xFF;
+    greenChannel[row][col] = (rgb >> 8) & 0xFF;
+    blueChannel[row][col] = rgb & 0xFF;
+  }
+
+  @Override
+  public void getRow(int row, int[] dest) {
+    int[] red = redChannel[row];
+    int[] green = greenChannel[row];
+    int[] blue = blueChannel[row];
+    for (int j = 0; j < red.length; j++) {
+      dest[j] = packPixel(red[j], green[j], blue[j]);
+    }
+  }
+
+  @Override
+  public void setRow(int row, int[] src) {
+    int[] red = redChannel[row];
+    int[] green = greenChannel[row];
+    int[] blue = blueChannel[row];
+    for (int j = 0; j < red.length; j++) {
+      red[j] = (src[j] >> 16) & 0xFF;
+      green[j] = (src[j] >> 8) & 0xFF;
+      blue[j] = src[j] & 0xFF;
+    }
+  }
+
+  @Override
+  public void clamp() {
+    for (int i = 0; i < redChannel.length; i++) {
+      for (int j = 0; j < redChannel[i].length; j++) {
+        redChannel[i][j] = clampPixel(redChannel[i][j]);
+        greenChannel[i][j] = clampPixel(greenChannel[i][j]);
+        blueChannel[i][j] = clampPixel(blueChannel[i][j]);
+      }
+    }
+  }
+
+  @Override
+  public StorageType getType() {
+    return StorageType.PLANAR;
+  }
+}
@@ -0,0 +1,285 @@
+package model;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the pixel loops of the operations over bands of rows, in parallel on a shared
+ * {@link ForkJoinPool}. Every row is computed exactly as it would be sequentially, so the output
+ * does not depend on the number of threads. Images smaller than a minimum number of pixels are
+ * processed on the calling thread.
+ *
+ * <p>An operation is cancelled by interrupting the thread that started it: the bands not started
+ * yet are skipped, on that thread and on the pool threads working for it, and the operation
+ * throws a {@link CancellationException}. The rows of a band are never left half done, and the
+ * interrupt stays set so that the operations that follow stop as well.
+ */
+public class RowExecutor {
+
+  /**
+   * The work done on a band of rows.
+   */
+  public interface RowTask {
+    /**
+     * Processes the rows from rowStart, included, to rowEnd, excluded.
+     *
+     * @param rowStart the first row of the band.
+     * @param rowEnd   the row after the last one of the band.
+     */
+    void run(int rowStart, int rowEnd);
+  }
+
+  /*
+  Bands are kept at a few rows at least, and there are a few bands per thread so that
+  threads finishing early can pick up remaining work.
+  */
+  private static final int BANDS_PER_THREAD = 4;
+  private static final int MINIMUM_BAND_ROWS = 4;
+  // On a single thread, large images still run in bands so that a cancellation is noticed soon
+  private static final int SEQUENTIAL_BANDS = 16;
+
+  /*
+  The thread that started the operation a pool thread is working for, so that the operations
+  nested in a band or a task check the interrupt of that thread rather than of the pool thread.
+  */
+  private static final ThreadLocal<Thread> OWNER = new ThreadLocal<>();
+
+  private static int parallelism = Integer.getInteger("perfectpixel.parallelism",
+          Runtime.getRuntime().availableProcessors());
+  private static volatile int minimumPixels = Integer.getInteger("perfectpixel.parallelThreshold",
+          1 << 16);
+  private static SharedPool pool;
+
+  /**
+   * A pool together with the number of operations using it. A pool replaced by a change of
+   * parallelism is shut down once the last operation that got it is done, since shutting it down
+   * earlier would reject the work those operations still submit to it.
+   */
+  private static final class SharedPool {
+    private final ForkJoinPool executor;
+    private int users;
+    private boolean replaced;
+
+    private SharedPool(int parallelism) {
+      this.executor = new ForkJoinPool(parallelism);
+    }
+  }
+
+  /**
+   * Sets the number of threads the operations run on. A parallelism of 1 runs every operation on
+   * the calling thread. The operations already running keep their threads until they are done.
+   *
+   * @param threads the number of threads to use.
+   */
+  public static synchronized void setParallelism(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Parallelism should be at least 1.");
+    }
+    if (threads != parallelism && pool != null) {
+      pool.replaced = true;
+      if (pool.users == 0) {
+        pool.executor.shutdown();
+      }
+      pool = null;
+    }
+    parallelism = threads;
+  }
+
+  /**
+   * Returns the number of threads the operations run on.
+   *
+   * @return the parallelism.
+   */
+  public static synchronized int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Sets the number of pixels below which an operation stays on the calling thread.
+   *
+   * @param pixels the minimum number of pixels to run in parallel.
+   */
+  public static void setMinimumPixels(int pixels) {
+    if (pixels < 0) {
+      throw new IllegalArgumentException("Minimum pixels cannot be negative.");
+    }
+    minimumPixels = pixels;
+  }
+
+  /**
+   * Returns the number of pixels below which an operation stays on the calling thread.
+   *
+   * @return the minimum number of pixels to run in parallel.
+   */
+  public static int getMinimumPixels() {
+    return minimumPixels;
+  }
+
+  /**
+   * Returns the pool to run an operation on, to be released once the operation is done.
+   *
+   * @return the pool, or null to run the operation on the calling thread.
+   */
+  private static synchronized SharedPool acquirePool() {
+    if (parallelism == 1) {
+      return null;
+    }
+    if (pool == null) {
+      pool = new SharedPool(parallelism);
+    }
+    pool.users++;
+    return pool;
+  }
+
+  private static synchronized void releasePool(SharedPool shared) {
+    shared.users--;
+    if (shared.replaced && shared.users == 0) {
+      shared.executor.shutdown();
+    }
+  }
+
+  /**
+   * Returns the thread whose interrupt cancels the operation running on this thread.
+   *
+   * @return the thread that started the operation.
+   */
+  private static Thread owner() {
+    Thread owner = OWNER.get();
+    return owner != null ? owner : Thread.currentThread();
+  }
+
+  /**
+   * Throws if the thread that started the operation was interrupted.
+   *
+   * @param owner the thread that started the operation.
+   * @throws CancellationException if the operation was cancelled.
+   */
+  private static void checkCancelled(Thread owner) {
+    if (owner.isInterrupted()) {
+      throw new CancellationException("Operation cancelled.");
+    }
+  }
+
+  /**
+   * Runs work on behalf of the thread that started the operation.
+   *
+   * @param owner the thread that started the operation.
+   * @param work  the work to run.
+   */
+  private static void runFor(Thread owner, Runnable work) {
+    checkCancelled(owner);
+    Thread previous = OWNER.get();
+    OWNER.set(owner);
+    try {
+      work.run();
+    } finally {
+      OWNER.set(previous);
+    }
+  }
+
+  /**
+   * Runs the task over all the rows of an image, splitting them into bands when the image is
+   * large enough. Returns once every row has been processed.
+   *
+   * @param height the number of rows.
+   * @param width  the number of columns.
+   * @param task   the work to do on each band.
+   * @throws CancellationException if the thread that started the operation is interrupted.
+   */
+  public static void forEachBand(int height, int width, RowTask task) {
+    Thread owner = owner();
+    checkCancelled(owner);
+    if ((long) height * width < minimumPixels || height < 2 * MINIMUM_BAND_ROWS) {
+      task.run(0, height);
+      return;
+    }
+
+    SharedPool shared = acquirePool();
+    if (shared == null) {
+      int bandRows = Math.max(MINIMUM_BAND_ROWS, height / SEQUENTIAL_BANDS);
+      for (int rowStart = 0; rowStart < height; rowStart += bandRows) {
+        checkCancelled(owner);
+        task.run(rowStart, Math.min(height, rowStart + bandRows));
+      }
+      return;
+    }
+
+    try {
+      ForkJoinPool executor = shared.executor;
+      int bandRows = Math.max(MINIMUM_BAND_ROWS,
+              height / (executor.getParallelism() * BANDS_PER_THREAD));
+      executor.invoke(new Band(owner, task, 0, height, bandRows));
+    } finally {
+      releasePool(shared);
+    }
+  }
+
+  /**
+   * Runs independent tasks at the same time, for work that does not split into rows, such as the
+   * channels of an image processed on their own. Returns once every task is done.
+   *
+   * @param tasks the tasks to run.
+   * @throws CancellationException if the thread that started the operation is interrupted.
+   */
+  public static void runAll(Runnable... tasks) {
+    Thread owner = owner();
+    SharedPool shared = tasks.length < 2 ? null : acquirePool();
+    if (shared == null) {
+      for (Runnable task : tasks) {
+        checkCancelled(owner);
+        task.run();
+      }
+      return;
+    }
+
+    try {
+      shared.executor.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          ForkJoinTask<?>[] actions = new ForkJoinTask<?>[tasks.length];
+          for (int i = 0; i < tasks.length; i++) {
+            Runnable task = tasks[i];
+            actions[i] = ForkJoinTask.adapt(() -> runFor(owner, task));
+          }
+          invokeAll(actions);
+        }
+      });
+    } finally {
+      releasePool(shared);
+    }
+  }
+
+  /**
+   * Splits a range of rows in halves until it is small enough to process.
+   */
+  private static class Band extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Thread owner;
+    private final RowTask task;
+    private final int rowStart;
+    private final int rowEnd;
+    private final int bandRows;
+
+    Band(Thread owner, RowTask task, int rowStart, int rowEnd, int bandRows) {
+      this.owner = owner;
+      this.task = task;
+      this.rowStart = rowStart;
+      this.rowEnd = rowEnd;
+      this.bandRows = bandRows;
+    }
+
+    @Override
+    protected void compute() {
+      if (rowEnd - rowStart <= bandRows) {
+        runFor(owner, () -> task.run(rowStart, rowEnd));
+        return;
+      }
+      int middle = (rowStart + rowEnd) >>> 1;
+      invokeAll(new Band(owner, task, rowStart, middle, bandRows),
+              new Band(owner, task, middle, rowEnd, bandRows));
+    }
+  }
+}
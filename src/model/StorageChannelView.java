@@ -0,0 +1,44 @@
+package model;
+
+/**
+ * A channel view reading straight out of the storage of an image.
+ */
+class StorageChannelView implements ChannelView {
+  private final Image image;
+  private final int shift;
+
+  /**
+   * Creates a view of one channel of the image.
+   *
+   * @param image the image to read.
+   * @param shift the bit offset of the channel within a packed pixel, 16, 8 or 0.
+   */
+  StorageChannelView(Image image, int shift) {
+    this.image = image;
+    this.shift = shift;
+  }
+
+  @Override
+  public int get(int row, int col) {
+    return (image.getRGB(row, col) >> shift) & 0xFF;
+  }
+
+  @Override
+  public int width() {
+    return image.getWidth();
+  }
+
+  @Override
+  public int height() {
+    return image.getHeight();
+  }
+
+  @Override
+  public void getRow(int row, int[] dest) {
+    image.getRow(row, dest);
+    int width = image.getWidth();
+    for (int j = 0; j < width; j++) {
+      dest[j] = (dest[j] >> shift) & 0xFF;
+    }
+  }
+}
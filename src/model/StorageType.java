@@ -0,0 +1,46 @@
+package model;
+
+/**
+ * Enum representing the different memory layouts an image can be stored in.
+ */
+public enum StorageType {
+  PLANAR, //Three int[][] channels, 12 bytes per pixel plus row headers
+  PACKED_INT, //A single int[] of 0xRRGGBB pixels, 4 bytes per pixel
+  INTERLEAVED_BYTE; //A single byte[] of interleaved R G B values, 3 bytes per pixel
+
+  /**
+   * Creates a new, black storage of this type.
+   *
+   * @param height the number of rows.
+   * @param width  the number of columns.
+   * @return the new storage.
+   */
+  public PixelStorage create(int height, int width) {
+    switch (this) {
+      case PLANAR:
+        return new PlanarPixelStorage(height, width);
+      case PACKED_INT:
+        return new PackedIntPixelStorage(height, width);
+      case INTERLEAVED_BYTE:
+        return new InterleavedBytePixelStorage(height, width);
+      default:
+        throw new IllegalArgumentException("Unknown storage type: " + this);
+    }
+  }
+
+  /**
+   * Returns the number of bytes this type takes for each pixel.
+   *
+   * @return the bytes per pixel.
+   */
+  public int bytesPerPixel() {
+    switch (this) {
+      case PLANAR:
+        return 12;
+      case PACKED_INT:
+        return 4;
+      default:
+        return 3;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Encodes integer Haar coefficients the way the wavelet file format stores them. The coefficients
+ * of a channel are written in row order as runs of zeros followed by a non-zero value, each as a
+ * variable length number, and the tokens of the channels are then deflated together. The
+ * coefficients dropped by the compression are zeros, so the encoding shrinks with the percentage
+ * of coefficients dropped.
+ */
+public final class WaveletEncoder {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private WaveletEncoder() {
+  }
+
+  /**
+   * Encodes the coefficients of several channels, one after the other, and deflates them.
+   *
+   * @param channels the coefficients of each channel, as rows of the same length.
+   * @return the deflated tokens.
+   */
+  public static byte[] encode(int[][]... channels) {
+    ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+    Deflater deflater = new Deflater();
+    try {
+      DeflaterOutputStream deflated = new DeflaterOutputStream(encoded, deflater, BUFFER_SIZE);
+      OutputStream tokens = new BufferedOutputStream(deflated, BUFFER_SIZE);
+      for (int[][] channel : channels) {
+        writeChannel(tokens, channel);
+      }
+      tokens.flush();
+      deflated.finish();
+    } catch (IOException e) {
+      // A stream into memory does not fail
+      throw new UncheckedIOException(e);
+    } finally {
+      deflater.end();
+    }
+    return encoded.toByteArray();
+  }
+
+  /**
+   * Writes the tokens of the coefficients of one channel, before they are deflated.
+   *
+   * @param tokens       the stream to write the tokens to.
+   * @param coefficients the coefficients of the channel, as rows of the same length.
+   * @throws IOException if the stream cannot be written to.
+   */
+  public static void writeChannel(OutputStream tokens, int[][] coefficients)
+          throws IOException {
+    int zeros = 0;
+    for (int[] row : coefficients) {
+      for (int value : row) {
+        if (value == 0) {
+          zeros++;
+        } else {
+          writeVarint(tokens, zeros);
+          // Zigzag encoding keeps small negative values short
+          writeVarint(tokens, (value << 1) ^ (value >> 31));
+          zeros = 0;
+        }
+      }
+    }
+    if (zeros > 0) {
+      writeVarint(tokens, zeros);
+    }
+  }
+
+  private static void writeVarint(OutputStream tokens, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      tokens.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    tokens.write(value);
+  }
+}
@@ -6,19 +6,35 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.ImageIcon;
 import javax.swing.JFileChooser;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import controller.GUIFeatures;
 import model.Image;
+import model.ImageStatistics;
 import view.components.GenericPanel;
 import view.sections.ColorChannelsSection;
 import view.sections.ColorCorrectionSection;
@@ -31,22 +47,34 @@ import view.sections.ImageDialogSection;
 import view.sections.ImageDisplaySection;
 import view.sections.LevelsAdjustmentSection;
 import view.sections.OperationLogSection;
+import view.sections.ProgressSection;
 import view.sections.SplitOperationSection;
 import view.sections.TransformationsSection;
 
-import static model.ImageUtil.getDimensions;
-
 /**
  * GUIBasedView class provides the graphical user interface (GUI) for the PerfectPixel
  * image editing application.
  * Implements the ImageView interface to update the UI based on the image operations.
+ *
+ * <p>Operations run one after the other on a background thread, so the window keeps responding
+ * while an image is processed, and only the finished image and histogram are handed over to the
+ * Event Dispatch Thread. The running operation is shown with a progress bar and can be cancelled,
+ * which stops its pixel loops and drops the operations waiting after it. A cancelled operation
+ * leaves the images as they were, even if it already stored its result. Clicking the same
+ * operation again while it is waiting or running does not queue it twice, and a new split preview
+ * replaces the preview being computed.
  */
 public class GUIBasedView extends JFrame implements ImageView, ActionListener {
+  private static final int HISTOGRAM_SIZE = 256;
+
   private GUIFeatures features;
   private String currentImageName;
   private String tempImageName;
   private boolean levelAdjustParam;
-  private final ArrayList<String> savedImageNames;
+  private final Set<String> savedImageNames;
+  private final ExecutorService operationExecutor;
+  private final Deque<Request> pendingRequests;
+  private OperationWorker runningWorker;
 
   private FileIOSection fileIOSection;
   private FiltersSection filtersSection;
@@ -60,6 +88,130 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
   private HistogramSection histogramSection;
   private ImageDisplaySection imageDisplaySection;
   private SplitOperationSection splitOperationSection;
+  private ProgressSection progressSection;
+
+  /**
+   * The work of an operation, run in the background.
+   */
+  @FunctionalInterface
+  private interface ImageTask {
+
+    /**
+     * Applies the operation to the current image.
+     *
+     * @param imageName  the name of the current image.
+     * @param outputName the name of the image to show, which the operation may store.
+     * @throws IOException if an image cannot be read or written.
+     */
+    void run(String imageName, String outputName) throws IOException;
+  }
+
+  /**
+   * A split operation of the features, computing a split preview.
+   */
+  @FunctionalInterface
+  private interface SplitOperation {
+
+    /**
+     * Applies the operation to the left part of an image.
+     *
+     * @param imageName    the name of the image.
+     * @param newImageName the name of the preview.
+     * @param percent      the percentage of the width the operation is applied to.
+     * @throws IOException if an image cannot be read.
+     */
+    void apply(String imageName, String newImageName, double percent) throws IOException;
+  }
+
+  /**
+   * An operation requested from the interface, with the messages logged once it is done.
+   */
+  private static final class Request {
+    private final String description;
+    private final boolean preview;
+    private final UnaryOperator<String> outputName;
+    private final ImageTask task;
+    private final String successMessage;
+    private final String errorMessage;
+
+    private Request(String description, boolean preview, UnaryOperator<String> outputName,
+                    ImageTask task, String successMessage, String errorMessage) {
+      this.description = description;
+      this.preview = preview;
+      this.outputName = outputName;
+      this.task = task;
+      this.successMessage = successMessage;
+      this.errorMessage = errorMessage;
+    }
+  }
+
+  /**
+   * The pixels of an image and of its histogram, ready to be displayed.
+   */
+  private static final class Rendering {
+    private final String imageName;
+    private final BufferedImage image;
+    private final BufferedImage histogram;
+    private final int[] suggestedLevels;
+
+    private Rendering(String imageName, BufferedImage image, BufferedImage histogram,
+                      int[] suggestedLevels) {
+      this.imageName = imageName;
+      this.image = image;
+      this.histogram = histogram;
+      this.suggestedLevels = suggestedLevels;
+    }
+  }
+
+  /**
+   * Runs a request in the background, then hands its rendering over to the Event Dispatch
+   * Thread. Aborting the worker interrupts its thread, which stops the pixel loops of the
+   * operation. An operation is either aborted or settled, never both: a settled operation is
+   * shown, while an aborted or failed one puts back the image its output replaced.
+   */
+  private final class OperationWorker extends SwingWorker<Rendering, Void> {
+    private final Request request;
+    private final String imageName;
+    private final AtomicBoolean settled;
+
+    private OperationWorker(Request request, String imageName) {
+      this.request = request;
+      this.imageName = imageName;
+      this.settled = new AtomicBoolean();
+    }
+
+    @Override
+    protected Rendering doInBackground() throws IOException {
+      String outputName = request.outputName.apply(imageName);
+      Image previous = storedImage(outputName);
+      boolean kept = false;
+      try {
+        request.task.run(imageName, outputName);
+        // A deferred image is only computed here, so the operation may still be aborted
+        Rendering rendering = render(outputName, request.preview);
+        kept = settled.compareAndSet(false, true);
+        return rendering;
+      } finally {
+        if (!kept) {
+          restore(outputName, previous);
+        }
+      }
+    }
+
+    /**
+     * Cancels the operation, unless it is already settled and about to be shown.
+     */
+    private void abort() {
+      if (settled.compareAndSet(false, true)) {
+        cancel(true);
+      }
+    }
+
+    @Override
+    protected void done() {
+      finish(this);
+    }
+  }
 
   /**
    * Constructor for initializing the GUIBasedView.
@@ -69,7 +221,13 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
     super("PerfectPixel");
 
     levelAdjustParam = false;
-    savedImageNames = new ArrayList<>();
+    savedImageNames = ConcurrentHashMap.newKeySet();
+    pendingRequests = new ArrayDeque<>();
+    operationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "perfectpixel-operations");
+      thread.setDaemon(true);
+      return thread;
+    });
 
     setSize(1300, 800);
     setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -93,6 +251,7 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
     histogramSection = new HistogramSection();
     splitOperationSection = new SplitOperationSection(this);
     imageDisplaySection = new ImageDisplaySection();
+    progressSection = new ProgressSection(this);
   }
 
   private void setupLayout() {
@@ -124,6 +283,7 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
     // Bottom section (image display)
     rightPanel.add(imageDisplaySection, BorderLayout.CENTER);
+    rightPanel.add(progressSection, BorderLayout.SOUTH);
     // Main scroll pane
     JScrollPane mainScrollPane = new JScrollPane(rightPanel);
 
@@ -138,31 +298,83 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
   }
 
   private BufferedImage imageToBufferedImage(Image image) {
-    int height = getDimensions(image)[0];
-    int width = getDimensions(image)[1];
+    int height = image.getHeight();
+    int width = image.getWidth();
 
-    int[][] redChannel = image.getRedChannel();
-    int[][] greenChannel = image.getGreenChannel();
-    int[][] blueChannel = image.getBlueChannel();
+    BufferedImage outputImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
-    int[] rgbData = new int[width * height];
+    int[] row = new int[width];
     for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int red = redChannel[y][x];
-        int green = greenChannel[y][x];
-        int blue = blueChannel[y][x];
-        rgbData[y * width + x] = (red << 16) | (green << 8) | blue;
+      image.getRow(y, row);
+      outputImage.setRGB(0, y, width, 1, row, 0, width);
+    }
+
+    return outputImage;
+  }
+
+  private Image storedImage(String imageName) {
+    try {
+      return features.getImage(imageName);
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Puts back the image an aborted or failed operation may have replaced. The interrupt of an
+   * aborted operation is held back meanwhile, since storing an image may write it to disk.
+   */
+  private void restore(String imageName, Image previous) {
+    boolean interrupted = Thread.interrupted();
+    try {
+      if (storedImage(imageName) != previous) {
+        features.restoreImage(imageName, previous);
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
       }
     }
+  }
 
-    BufferedImage outputImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-    outputImage.setRGB(0, 0, width, height, rgbData, 0, width);
+  /**
+   * Converts an image, and its histogram unless it is a split preview, into displayable pixels.
+   * Runs in the background, where a deferred image is also computed.
+   */
+  private Rendering render(String imageName, boolean preview) {
+    Image image = features.getImage(imageName);
+    if (image == null) {
+      throw new IllegalArgumentException("Unable to fetch updated image: " + imageName);
+    }
+    BufferedImage pixels = imageToBufferedImage(image);
+    if (preview) {
+      return new Rendering(imageName, pixels, null, null);
+    }
 
-    return outputImage;
+    ImageStatistics statistics = features.getStatistics(imageName);
+    return new Rendering(imageName, pixels, histogramToBufferedImage(statistics),
+            statistics.suggestLevels());
   }
 
-  private void refreshImagePlaceholder() {
-    Image image = features.getImage(currentImageName);
+  /**
+   * Draws the histogram straight into the pixels backing the displayed image, without copying.
+   */
+  private BufferedImage histogramToBufferedImage(ImageStatistics statistics) {
+    int[] pixels = statistics.renderHistogram(HISTOGRAM_SIZE, HISTOGRAM_SIZE);
+    DirectColorModel colorModel = new DirectColorModel(24, 0xFF0000, 0x00FF00, 0x0000FF);
+    WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length),
+            HISTOGRAM_SIZE, HISTOGRAM_SIZE, HISTOGRAM_SIZE, colorModel.getMasks(), null);
+    return new BufferedImage(colorModel, raster, false, null);
+  }
+
+  private void show(Request request, Rendering rendering) {
+    if (request.preview) {
+      tempImageName = rendering.imageName;
+      ImageDialogSection.showImageDialog(this, new ImageIcon(rendering.image), this);
+      return;
+    }
+
+    currentImageName = rendering.imageName;
     String savedCheck;
 
     if (savedImageNames.contains(currentImageName)) {
@@ -171,14 +383,93 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
       savedCheck = " -not saved";
     }
 
-    imageDisplaySection.updateImageDisplay(new ImageIcon(imageToBufferedImage(image)), savedCheck);
-    refreshHistogram();
+    imageDisplaySection.updateImageDisplay(new ImageIcon(rendering.image), savedCheck);
+    histogramSection.updateHistogramDisplay(new ImageIcon(rendering.histogram));
+    levelsAdjustmentSection.setSuggestedLevels(rendering.suggestedLevels);
+  }
+
+  /**
+   * Queues an operation, to run on the current image once the operations before it are done.
+   */
+  private void submit(String description, boolean preview, UnaryOperator<String> outputName,
+                      ImageTask task, String successMessage, String errorMessage) {
+    Request request = new Request(description, preview, outputName, task, successMessage,
+            errorMessage);
+    if (preview) {
+      pendingRequests.removeIf(pending -> pending.preview);
+    } else if (description.equals(lastRequestDescription())) {
+      printStatements("Already in progress: " + description);
+      return;
+    }
+
+    pendingRequests.add(request);
+    if (runningWorker == null) {
+      startNext();
+    } else if (preview && runningWorker.request.preview) {
+      // The preview being computed is out of date, the new one starts once it stops
+      runningWorker.abort();
+    } else {
+      updateProgress();
+    }
+  }
+
+  private String lastRequestDescription() {
+    if (!pendingRequests.isEmpty()) {
+      return pendingRequests.getLast().description;
+    }
+    return runningWorker == null ? null : runningWorker.request.description;
+  }
+
+  private void startNext() {
+    Request request = pendingRequests.poll();
+    if (request == null) {
+      runningWorker = null;
+    } else {
+      runningWorker = new OperationWorker(request, currentImageName);
+      // A cancelled operation may still be stopping, the next one waits for it on the executor
+      operationExecutor.execute(runningWorker);
+    }
+    updateProgress();
+  }
+
+  private void updateProgress() {
+    if (runningWorker == null) {
+      progressSection.hideProgress();
+      return;
+    }
+
+    String message = "Running " + runningWorker.request.description;
+    if (!pendingRequests.isEmpty()) {
+      message += " (" + pendingRequests.size() + " queued)";
+    }
+    progressSection.showProgress(message);
   }
 
-  private void refreshHistogram() {
-    Image histogramImage = features.getHistogram(currentImageName);
+  /**
+   * Shows the result of an operation on the Event Dispatch Thread, then starts the next one.
+   */
+  private void finish(OperationWorker worker) {
+    Request request = worker.request;
+    try {
+      show(request, worker.get());
+      printStatements(request.successMessage);
+    } catch (CancellationException ex) {
+      printStatements("Operation cancelled: " + request.description);
+    } catch (ExecutionException ex) {
+      printStatements(request.errorMessage + ex.getCause().getMessage());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    startNext();
+  }
 
-    histogramSection.updateHistogramDisplay(new ImageIcon(imageToBufferedImage(histogramImage)));
+  private void handleCancel() {
+    if (runningWorker == null) {
+      printStatements("No operation in progress.");
+      return;
+    }
+    pendingRequests.clear();
+    runningWorker.abort();
   }
 
   @Override
@@ -235,6 +526,9 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
       case "APPLY_CLOSE_SPLIT":
         handleCloseSplit();
         break;
+      case "CANCEL_OPERATION":
+        handleCancel();
+        break;
       default:
         printStatements("Unknown command: " + e.getActionCommand());
     }
@@ -274,7 +568,6 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
           handleLevelsAdjust();
           printStatements("Levels adjustment operation performing after split");
         }
-        printStatements("Image Updated successfully.");
       } catch (Exception ex) {
         printStatements("Error during save split operation: " + ex.getMessage());
 
@@ -308,76 +601,50 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
       }
       double inputValue = splitOperationSection.getInputValue();
 
+      if (features == null || currentImageName == null) {
+        printStatements("No image loaded or features not set.");
+        return;
+      }
+
       if (selectedOption.equals("levels adjustment")) {
         int[] levelsValues = splitOperationSection.getLevelsAdjustmentValues();
         int black = levelsValues[0];
         int mid = levelsValues[1];
         int white = levelsValues[2];
 
-        if (features != null && currentImageName != null) {
-          String outputImageName = currentImageName + "_levels_adjusted";
-          features.levelsAdjustmentSplitOperation(currentImageName, outputImageName, black, mid,
-                  white, inputValue);
-
-          tempImageName = outputImageName;
-
-          Image updatedImage = features.getImage(tempImageName);
-
-          if (updatedImage != null) {
-            ImageDialogSection.showImageDialog(this, new
-                    ImageIcon(imageToBufferedImage(updatedImage)), this);
-          } else {
-            printStatements("Unable to fetch updated image: " + outputImageName);
-          }
+        submit("split levels adjustment", true, imageName -> imageName + "_levels_adjusted",
+                (imageName, outputName) -> features.levelsAdjustmentSplitOperation(imageName,
+                        outputName, black, mid, white, inputValue),
+                "Levels adjustment applied: black=" + black + ", mid=" + mid + ", white=" + white,
+                "Unexpected error: ");
+        return;
+      }
 
-          printStatements("Levels adjustment applied: black=" + black + ", mid=" + mid + ", white="
-                  + white);
-        } else {
-          printStatements("No image loaded or features not set.");
-        }
-      } else {
-        if (features != null && currentImageName != null) {
-          String outputImageName = currentImageName + "_split";
-
-          switch (selectedOption) {
-            case "blur":
-              features.blurSplitOperation(currentImageName, outputImageName, inputValue);
-              break;
-            case "sharpen":
-              features.sharpenSplitOperation(currentImageName, outputImageName, inputValue);
-              break;
-            case "sepia":
-              features.sepiaSplitOperation(currentImageName, outputImageName, inputValue);
-              break;
-            case "greyscale":
-              features.greyscaleSplitOperation(currentImageName, outputImageName, inputValue);
-              break;
-            case "color correction":
-              features.colorCorrectionSplitOperation(currentImageName, outputImageName, inputValue);
-              break;
-            default:
-              printStatements("Operation not implemented: " + selectedOption);
-              return;
-          }
-
-          tempImageName = outputImageName;
-
-          // Fetch the updated image as an ImageIcon
-          Image updatedImage = features.getImage(tempImageName);
-
-          if (updatedImage != null) {
-            // Display the updated image in the dialog
-            ImageDialogSection.showImageDialog(this, new
-                    ImageIcon(imageToBufferedImage(updatedImage)), this);
-          } else {
-            printStatements("Unable to fetch updated image: " + outputImageName);
-          }
-
-          printStatements("Split operation applied: " + selectedOption);
-        } else {
-          printStatements("No image loaded or features not set.");
-        }
+      SplitOperation operation;
+      switch (selectedOption) {
+        case "blur":
+          operation = features::blurSplitOperation;
+          break;
+        case "sharpen":
+          operation = features::sharpenSplitOperation;
+          break;
+        case "sepia":
+          operation = features::sepiaSplitOperation;
+          break;
+        case "greyscale":
+          operation = features::greyscaleSplitOperation;
+          break;
+        case "color correction":
+          operation = features::colorCorrectionSplitOperation;
+          break;
+        default:
+          printStatements("Operation not implemented: " + selectedOption);
+          return;
       }
+
+      submit("split " + selectedOption, true, imageName -> imageName + "_split",
+              (imageName, outputName) -> operation.apply(imageName, outputName, inputValue),
+              "Split operation applied: " + selectedOption, "Unexpected error: ");
     } catch (IllegalArgumentException ex) {
       printStatements("Input Error: " + ex.getMessage());
     } catch (Exception ex) {
@@ -388,49 +655,43 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
   private void handleLoadImage() {
     JFileChooser fileChooser = new JFileChooser(".");
     FileNameExtensionFilter filter = new FileNameExtensionFilter(
-            "Images (*.jpeg, *.jpg, *.png, *.ppm)", "jpeg", "jpg", "png", "ppm");
+            "Images (*.jpeg, *.jpg, *.png, *.ppm, *.ppx)", "jpeg", "jpg", "png", "ppm", "ppx");
     fileChooser.setFileFilter(filter);
 
     int returnValue = fileChooser.showOpenDialog(this);
     if (returnValue == JFileChooser.APPROVE_OPTION) {
       File file = fileChooser.getSelectedFile();
-      currentImageName = file.getName().replace(".", "_");
-
-      printStatements("Loaded from: " + file.getAbsolutePath());
+      String path = file.getAbsolutePath();
+      String loadedImageName = file.getName().replace(".", "_");
 
-      if (features != null && currentImageName != null) {
-        try {
-          features.load(file.getAbsolutePath(), currentImageName);
-        } catch (IOException ex) {
-          printStatements("Error: " + ex.getMessage());
-        }
+      if (features != null) {
+        submit("load " + file.getName(), false, imageName -> loadedImageName,
+                (imageName, outputName) -> features.load(path, outputName), "Loaded from: " + path,
+                "Error: ");
       } else {
         printStatements("Error: Features not set");
       }
-
-      refreshImagePlaceholder();
     }
   }
 
   private void handleSaveImage() {
     JFileChooser fileChooser = new JFileChooser(".");
     FileNameExtensionFilter filter = new FileNameExtensionFilter(
-            "Images (*.jpeg, *.jpg, *.png, *.ppm)", "jpeg", "jpg", "png", "ppm");
+            "Images (*.jpeg, *.jpg, *.png, *.ppm, *.ppx)", "jpeg", "jpg", "png", "ppm", "ppx");
     fileChooser.setFileFilter(filter);
 
     int returnValue = fileChooser.showSaveDialog(this);
     if (returnValue == JFileChooser.APPROVE_OPTION) {
       File file = fileChooser.getSelectedFile();
-      printStatements("Saving to: " + file.getAbsolutePath());
+      String path = file.getAbsolutePath();
+      printStatements("Saving to: " + path);
 
       if (features != null && currentImageName != null) {
-        try {
-          features.save(file.getAbsolutePath(), currentImageName);
-          savedImageNames.add(currentImageName);
-          refreshImagePlaceholder();
-        } catch (IOException ex) {
-          printStatements("Error: " + ex.getMessage());
-        }
+        submit("save " + file.getName(), false, imageName -> imageName,
+                (imageName, outputName) -> {
+                  features.save(path, imageName);
+                  savedImageNames.add(imageName);
+                }, "Saved to: " + path, "Error: ");
       } else {
         printStatements("Error: No image to save or features not set");
       }
@@ -439,17 +700,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleBlurImage() {
     if (features != null && currentImageName != null) {
-      try {
-        String blurredImageName = currentImageName + "_blur";
-        features.blur(currentImageName, blurredImageName);
-
-        currentImageName = blurredImageName;
-        refreshImagePlaceholder();
-
-        printStatements("Image blurred successfully.");
-      } catch (Exception ex) {
-        printStatements("Error during blur operation: " + ex.getMessage());
-      }
+      submit("blur", false, imageName -> imageName + "_blur", features::blur,
+              "Image blurred successfully.", "Error during blur operation: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -457,17 +709,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleSharpenImage() {
     if (features != null && currentImageName != null) {
-      try {
-        String sharpenImageName = currentImageName + "_sharpen";
-        features.sharpen(currentImageName, sharpenImageName);
-
-        currentImageName = sharpenImageName;
-        refreshImagePlaceholder();
-
-        printStatements("Image blurred successfully.");
-      } catch (Exception ex) {
-        printStatements("Error during blur operation: " + ex.getMessage());
-      }
+      submit("sharpen", false, imageName -> imageName + "_sharpen", features::sharpen,
+              "Image sharpened successfully.", "Error during sharpen operation: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -475,15 +718,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleHorizontalFlip() {
     if (features != null && currentImageName != null) {
-      try {
-        String flippedImageName = currentImageName + "_hflip";
-        features.horizontalFlip(currentImageName, flippedImageName);
-        currentImageName = flippedImageName;
-        refreshImagePlaceholder();
-        printStatements("Image flipped horizontally.");
-      } catch (Exception ex) {
-        printStatements("Error during horizontal flip: " + ex.getMessage());
-      }
+      submit("horizontal flip", false, imageName -> imageName + "_hflip", features::horizontalFlip,
+              "Image flipped horizontally.", "Error during horizontal flip: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -491,15 +727,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleVerticalFlip() {
     if (features != null && currentImageName != null) {
-      try {
-        String flippedImageName = currentImageName + "_vflip";
-        features.verticalFlip(currentImageName, flippedImageName);
-        currentImageName = flippedImageName;
-        refreshImagePlaceholder();
-        printStatements("Image flipped vertically.");
-      } catch (Exception ex) {
-        printStatements("Error during vertical flip: " + ex.getMessage());
-      }
+      submit("vertical flip", false, imageName -> imageName + "_vflip", features::verticalFlip,
+              "Image flipped vertically.", "Error during vertical flip: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -507,15 +736,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleGreyscale() {
     if (features != null && currentImageName != null) {
-      try {
-        String greyImageName = currentImageName + "_greyscale";
-        features.greyscale(currentImageName, greyImageName);
-        currentImageName = greyImageName;
-        refreshImagePlaceholder();
-        printStatements("Image converted to greyscale.");
-      } catch (Exception ex) {
-        printStatements("Error during greyscale operation: " + ex.getMessage());
-      }
+      submit("greyscale", false, imageName -> imageName + "_greyscale", features::greyscale,
+              "Image converted to greyscale.", "Error during greyscale operation: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -523,15 +745,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleSepia() {
     if (features != null && currentImageName != null) {
-      try {
-        String sepiaImageName = currentImageName + "_sepia";
-        features.sepia(currentImageName, sepiaImageName);
-        currentImageName = sepiaImageName;
-        refreshImagePlaceholder();
-        printStatements("Image converted to sepia tone.");
-      } catch (Exception ex) {
-        printStatements("Error during sepia operation: " + ex.getMessage());
-      }
+      submit("sepia", false, imageName -> imageName + "_sepia", features::sepia,
+              "Image converted to sepia tone.", "Error during sepia operation: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -539,15 +754,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleRedComponent() {
     if (features != null && currentImageName != null) {
-      try {
-        String redImageName = currentImageName + "_red";
-        features.redComponent(currentImageName, redImageName);
-        currentImageName = redImageName;
-        refreshImagePlaceholder();
-        printStatements("Red component extracted.");
-      } catch (Exception ex) {
-        printStatements("Error extracting red component: " + ex.getMessage());
-      }
+      submit("red component", false, imageName -> imageName + "_red", features::redComponent,
+              "Red component extracted.", "Error extracting red component: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -555,15 +763,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleGreenComponent() {
     if (features != null && currentImageName != null) {
-      try {
-        String greenImageName = currentImageName + "_green";
-        features.greenComponent(currentImageName, greenImageName);
-        currentImageName = greenImageName;
-        refreshImagePlaceholder();
-        printStatements("Green component extracted.");
-      } catch (Exception ex) {
-        printStatements("Error extracting green component: " + ex.getMessage());
-      }
+      submit("green component", false, imageName -> imageName + "_green", features::greenComponent,
+              "Green component extracted.", "Error extracting green component: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -571,15 +772,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleBlueComponent() {
     if (features != null && currentImageName != null) {
-      try {
-        String blueImageName = currentImageName + "_blue";
-        features.blueComponent(currentImageName, blueImageName);
-        currentImageName = blueImageName;
-        refreshImagePlaceholder();
-        printStatements("Blue component extracted.");
-      } catch (Exception ex) {
-        printStatements("Error extracting blue component: " + ex.getMessage());
-      }
+      submit("blue component", false, imageName -> imageName + "_blue", features::blueComponent,
+              "Blue component extracted.", "Error extracting blue component: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -587,18 +781,17 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleCompress() {
     if (features != null && currentImageName != null) {
+      double percent;
       try {
-        double percent = compressionSection.getPercent();
-
-        String compressedImageName = currentImageName + "_compressed";
-        features.compress(currentImageName, compressedImageName, percent);
-
-        currentImageName = compressedImageName;
-        refreshImagePlaceholder();
-        printStatements("Image compressed successfully.");
+        percent = compressionSection.getPercent();
       } catch (Exception ex) {
         printStatements("Error during compression: " + ex.getMessage());
+        return;
       }
+
+      submit("compression " + percent + "%", false, imageName -> imageName + "_compressed",
+              (imageName, outputName) -> features.compress(imageName, outputName, percent),
+              "Image compressed successfully.", "Error during compression: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -606,36 +799,30 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleLevelsAdjust() {
     if (features != null && currentImageName != null) {
+      int[] levelsValues;
       try {
         if (levelAdjustParam) {
-          int[] levelsValues = splitOperationSection.getLevelsAdjustmentValues();
-          int black = levelsValues[0];
-          int mid = levelsValues[1];
-          int white = levelsValues[2];
-
-          String adjustedImageName = currentImageName + "_levelsAdjusted";
-          features.levelsAdjust(currentImageName, adjustedImageName, black, mid, white);
-
-          currentImageName = adjustedImageName;
+          levelsValues = splitOperationSection.getLevelsAdjustmentValues();
         } else {
-          int black = levelsAdjustmentSection.getBlack();
-          int midTones = levelsAdjustmentSection.getMidTone();
-          int white = levelsAdjustmentSection.getWhite();
-
-          String adjustedImageName = currentImageName + "_levelsAdjusted";
-          features.levelsAdjust(currentImageName, adjustedImageName, black, midTones, white);
-
-          currentImageName = adjustedImageName;
+          levelsValues = new int[]{levelsAdjustmentSection.getBlack(),
+              levelsAdjustmentSection.getMidTone(), levelsAdjustmentSection.getWhite()};
         }
-
-        refreshImagePlaceholder();
-        printStatements("Levels adjusted successfully.");
-
       } catch (NumberFormatException ex) {
         printStatements("Invalid input for levels adjustment. Please enter numeric values.");
+        return;
       } catch (Exception ex) {
         printStatements("Error during levels adjustment: " + ex.getMessage());
+        return;
       }
+      int black = levelsValues[0];
+      int mid = levelsValues[1];
+      int white = levelsValues[2];
+
+      submit("levels adjustment " + black + " " + mid + " " + white, false,
+              imageName -> imageName + "_levelsAdjusted",
+              (imageName, outputName) -> features.levelsAdjust(imageName, outputName, black, mid,
+                      white),
+              "Levels adjusted successfully.", "Error during levels adjustment: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -643,15 +830,8 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   private void handleColorCorrect() {
     if (features != null && currentImageName != null) {
-      try {
-        String correctedImageName = currentImageName + "_corrected";
-        features.colorCorrect(currentImageName, correctedImageName);
-        currentImageName = correctedImageName;
-        refreshImagePlaceholder();
-        printStatements("Image color corrected.");
-      } catch (Exception ex) {
-        printStatements("Error during color correction: " + ex.getMessage());
-      }
+      submit("color correction", false, imageName -> imageName + "_corrected",
+              features::colorCorrect, "Image color corrected.", "Error during color correction: ");
     } else {
       printStatements("No image loaded or features not set.");
     }
@@ -659,6 +839,11 @@ public class GUIBasedView extends JFrame implements ImageView, ActionListener {
 
   @Override
   public void printStatements(String message) {
-    operationLogSection.appendLog(message);
+    // The controller also logs from the operations running in the background
+    if (SwingUtilities.isEventDispatchThread()) {
+      operationLogSection.appendLog(message);
+    } else {
+      SwingUtilities.invokeLater(() -> operationLogSection.appendLog(message));
+    }
   }
 }
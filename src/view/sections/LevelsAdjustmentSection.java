@@ -51,6 +51,18 @@ public class LevelsAdjustmentSection extends GenericPanel {
     add(applyButton);
   }
 
+  /**
+   * Shows the black, mid and white points suggested for the current image as the tooltips of
+   * the input fields, leaving what the user typed untouched.
+   *
+   * @param levels the suggested black, mid and white points.
+   */
+  public void setSuggestedLevels(int[] levels) {
+    blackInputField.setToolTipText("Suggested: " + levels[0]);
+    midInputField.setToolTipText("Suggested: " + levels[1]);
+    whiteInputField.setToolTipText("Suggested: " + levels[2]);
+  }
+
   /**
    * Retrieves the value entered for the black level adjustment.
    *
@@ -0,0 +1,60 @@
+package view.sections;
+
+import java.awt.BorderLayout;
+import java.awt.event.ActionListener;
+
+import javax.swing.BorderFactory;
+import javax.swing.JProgressBar;
+
+import view.components.GenericButton;
+import view.components.GenericPanel;
+
+/**
+ * A section showing the operation running in the background, with a button to cancel it.
+ * The progress bar keeps moving while an operation runs, and the button is only enabled then.
+ */
+public class ProgressSection extends GenericPanel {
+  private static final String IDLE = "Ready";
+
+  private final JProgressBar progressBar;
+  private final GenericButton cancelButton;
+
+  /**
+   * Constructs the ProgressSection with an idle progress bar and a disabled cancel button.
+   *
+   * @param listener the ActionListener that will handle the click event of the cancel button.
+   */
+  public ProgressSection(ActionListener listener) {
+    super(new BorderLayout());
+    setBorder(BorderFactory.createTitledBorder("Progress"));
+
+    progressBar = new JProgressBar();
+    progressBar.setStringPainted(true);
+    progressBar.setString(IDLE);
+    cancelButton = new GenericButton("Cancel", "CANCEL_OPERATION", listener);
+    cancelButton.setEnabled(false);
+
+    add(progressBar, BorderLayout.CENTER);
+    add(cancelButton, BorderLayout.EAST);
+  }
+
+  /**
+   * Shows that an operation is running.
+   *
+   * @param message the description of the running operation.
+   */
+  public void showProgress(String message) {
+    progressBar.setIndeterminate(true);
+    progressBar.setString(message);
+    cancelButton.setEnabled(true);
+  }
+
+  /**
+   * Shows that no operation is running.
+   */
+  public void hideProgress() {
+    progressBar.setIndeterminate(false);
+    progressBar.setString(IDLE);
+    cancelButton.setEnabled(false);
+  }
+}
@@ -0,0 +1,48 @@
+package testbenchmark;
+
+import java.util.Random;
+
+import model.Image;
+import model.ImageModelImplV2;
+
+/**
+ * Measures the time taken by the Haar compression of an image.
+ * Run with an optional image size and percentage, for example
+ * {@code CompressionBenchmark 2000 1500 50}.
+ */
+public class CompressionBenchmark {
+  private static final int ROUNDS = 3;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated image, then the percentage to drop.
+   */
+  public static void main(String[] args) {
+    int width = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int height = args.length > 1 ? Integer.parseInt(args[1]) : 1500;
+    double percent = args.length > 2 ? Double.parseDouble(args[2]) : 50;
+
+    Random random = new Random(42);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < width; j++) {
+          row[j] = random.nextInt(256);
+        }
+      }
+    }
+    ImageModelImplV2 model = new ImageModelImplV2();
+    model.setLazy(false);
+    model.putImage("image", new Image(channels[0], channels[1], channels[2]));
+
+    System.out.printf("Image: %d x %d, dropping %.0f%%%n", width, height, percent);
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      model.applyCompression("image", "compressed", percent);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("compress  %8.1f ms%n", best / 1e6);
+  }
+}
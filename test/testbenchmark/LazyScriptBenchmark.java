@@ -0,0 +1,128 @@
+package testbenchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+import controller.GUIFeatures;
+import controller.ImageService;
+import controller.TextBasedControllerV3;
+import model.Image;
+import model.ImageModelImplV3;
+import view.ImageView;
+
+/**
+ * Runs a script producing many intermediate images, of which only the last is saved, with the
+ * model computing every image eagerly and then in lazy mode. Reports the time taken by the script
+ * and the heap held by the images once it is done.
+ * Run with an optional image size, for example {@code LazyScriptBenchmark 3000 2000}.
+ */
+public class LazyScriptBenchmark {
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated image.
+   * @throws IOException if the temporary files cannot be written.
+   */
+  public static void main(String[] args) throws IOException {
+    int width = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+    int height = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+    File directory = File.createTempFile("lazy", "");
+    directory.delete();
+    directory.mkdir();
+    directory.deleteOnExit();
+    File input = new File(directory, "input.ppm");
+    File output = new File(directory, "output.ppm");
+    File script = new File(directory, "script.txt");
+    input.deleteOnExit();
+    output.deleteOnExit();
+    script.deleteOnExit();
+
+    writeRandomImage(input, width, height);
+    writeScript(script, input, output);
+
+    System.out.printf("Image: %d x %d%n", width, height);
+    for (int round = 0; round < 2; round++) {
+      run("eager", false, script);
+      run("lazy", true, script);
+    }
+  }
+
+  private static void writeRandomImage(File file, int width, int height) throws IOException {
+    Random random = new Random(42);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < width; j++) {
+          row[j] = random.nextInt(256);
+        }
+      }
+    }
+    ImageModelImplV3 model = new ImageModelImplV3();
+    model.putImage("image", new Image(channels[0], channels[1], channels[2]));
+    new ImageService(model).saveImage(file.getPath(), "image");
+  }
+
+  private static void writeScript(File script, File input, File output) throws IOException {
+    try (Writer writer = new FileWriter(script)) {
+      writer.write("load " + input.getPath() + " source\n");
+      // Throw-away images that are never used again
+      writer.write("vertical-flip source unused-flip\n");
+      writer.write("sharpen source unused-sharpen\n");
+      writer.write("rgb-split source unused-red unused-green unused-blue\n");
+      writer.write("value-component source unused-value\n");
+      // A chain whose intermediate images are never used on their own
+      writer.write("brighten 20 source step1\n");
+      writer.write("sepia step1 step2\n");
+      writer.write("luma-component step2 step3\n");
+      writer.write("levels-adjust 20 100 230 step3 step4\n");
+      writer.write("horizontal-flip step4 step5\n");
+      writer.write("brighten -10 step5 step6\n");
+      writer.write("save " + output.getPath() + " step6\n");
+    }
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static void run(String name, boolean lazy, File script) {
+    long before = usedHeap();
+    ImageModelImplV3 model = new ImageModelImplV3();
+    model.setLazy(lazy);
+    TextBasedControllerV3 controller = new TextBasedControllerV3(model, model, new SilentView(),
+            new ImageService(model));
+
+    long start = System.nanoTime();
+    controller.runScript(script.getPath());
+    long time = System.nanoTime() - start;
+    long held = usedHeap() - before;
+
+    System.out.printf("%-6s %8.1f ms %8.1f MB held%n", name, time / 1e6, held / 1e6);
+    // Keeps the model reachable until its heap has been measured
+    model.putImage("done", model.getImage("source"));
+  }
+
+  /**
+   * A view discarding everything the controller prints.
+   */
+  private static class SilentView implements ImageView {
+    @Override
+    public void printStatements(String statement) {
+      // Nothing to print
+    }
+
+    @Override
+    public void setFeatures(GUIFeatures features) {
+      // No features in a benchmark
+    }
+  }
+}
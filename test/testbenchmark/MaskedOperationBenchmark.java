@@ -0,0 +1,60 @@
+package testbenchmark;
+
+import java.util.Random;
+
+import model.Image;
+import model.ImageModelImplV3;
+
+/**
+ * Measures the time taken by the masked operations when the mask selects a small square of a
+ * large image. Run with an optional image size and mask side, for example
+ * {@code MaskedOperationBenchmark 4000 3000 300}.
+ */
+public class MaskedOperationBenchmark {
+  private static final int ROUNDS = 3;
+  private static final String[] OPERATIONS = {"blur", "sharpen", "sepia", "luma-component"};
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated image, then the side of the mask.
+   */
+  public static void main(String[] args) {
+    int width = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+    int height = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+    int side = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+
+    Random random = new Random(42);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < width; j++) {
+          row[j] = random.nextInt(256);
+        }
+      }
+    }
+    int[][] mask = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        boolean inside = Math.abs(i - height / 2) < side / 2 && Math.abs(j - width / 2) < side / 2;
+        mask[i][j] = inside ? 0 : 255;
+      }
+    }
+
+    ImageModelImplV3 model = new ImageModelImplV3();
+    model.setLazy(false);
+    model.putImage("image", new Image(channels[0], channels[1], channels[2]));
+    model.putImage("mask", new Image(mask, mask, mask));
+
+    System.out.printf("Image: %d x %d, mask: %d x %d%n", width, height, side, side);
+    for (String operation : OPERATIONS) {
+      long best = Long.MAX_VALUE;
+      for (int round = 0; round < ROUNDS; round++) {
+        long start = System.nanoTime();
+        model.applyPartialImageManipulation(operation, "image", "mask", "masked");
+        best = Math.min(best, System.nanoTime() - start);
+      }
+      System.out.printf("%-16s %8.1f ms%n", operation, best / 1e6);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package testbenchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.Scanner;
+
+import controller.ImageService;
+import model.Image;
+import model.ImageModel;
+import model.ImageModelImpl;
+
+/**
+ * Compares the time taken to load a plain (P3) PPM file with the Scanner based reader the
+ * application used to have and with the current byte level reader.
+ * Run with an optional image size, for example {@code PPMReaderBenchmark 3840 2160} for a 4K file.
+ */
+public class PPMReaderBenchmark {
+  private static final int ROUNDS = 3;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated file.
+   * @throws IOException if the temporary file cannot be written or read.
+   */
+  public static void main(String[] args) throws IOException {
+    int width = args.length > 0 ? Integer.parseInt(args[0]) : 3840;
+    int height = args.length > 1 ? Integer.parseInt(args[1]) : 2160;
+
+    File file = File.createTempFile("benchmark", ".ppm");
+    file.deleteOnExit();
+    writeRandomPPM(file, width, height);
+
+    ImageModel model = new ImageModelImpl();
+    ImageService service = new ImageService(model);
+
+    System.out.printf("Image: %d x %d, %.1f MB%n", width, height, file.length() / 1e6);
+    long legacy = Long.MAX_VALUE;
+    long current = Long.MAX_VALUE;
+    for (int i = 0; i < ROUNDS; i++) {
+      long start = System.nanoTime();
+      readLegacy(file.getPath());
+      legacy = Math.min(legacy, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      service.loadImage(file.getPath(), "image");
+      current = Math.min(current, System.nanoTime() - start);
+    }
+
+    report("Scanner", legacy, file.length());
+    report("PPMReader", current, file.length());
+    System.out.printf("Speedup: %.1fx%n", (double) legacy / current);
+  }
+
+  private static void report(String name, long nanos, long bytes) {
+    System.out.printf("%-10s %8.1f ms %8.1f MB/s%n", name, nanos / 1e6,
+            bytes / 1e6 / (nanos / 1e9));
+  }
+
+  private static void writeRandomPPM(File file, int width, int height) throws IOException {
+    Random random = new Random(42);
+    try (FileOutputStream fos = new FileOutputStream(file)) {
+      StringBuilder builder = new StringBuilder("P3\n" + width + " " + height + "\n255\n");
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width * 3; j++) {
+          builder.append(random.nextInt(256)).append(' ');
+        }
+        builder.append('\n');
+        fos.write(builder.toString().getBytes());
+        builder.setLength(0);
+      }
+    }
+  }
+
+  /**
+   * The reader as it used to be, collecting the lines and tokenizing them with a Scanner.
+   */
+  private static Image readLegacy(String filename) throws IOException {
+    Scanner sc = new Scanner(new FileInputStream(filename));
+
+    StringBuilder builder = new StringBuilder();
+    while (sc.hasNextLine()) {
+      String s = sc.nextLine();
+      if (!s.startsWith("#")) {
+        builder.append(s).append(System.lineSeparator());
+      }
+    }
+
+    sc = new Scanner(builder.toString());
+    sc.next();
+    int width = sc.nextInt();
+    int height = sc.nextInt();
+    sc.nextInt();
+
+    int[][] redChannel = new int[height][width];
+    int[][] greenChannel = new int[height][width];
+    int[][] blueChannel = new int[height][width];
+
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        redChannel[i][j] = sc.nextInt();
+        greenChannel[i][j] = sc.nextInt();
+        blueChannel[i][j] = sc.nextInt();
+      }
+    }
+
+    return new Image(redChannel, greenChannel, blueChannel);
+  }
+}
@@ -0,0 +1,62 @@
+package testbenchmark;
+
+import java.util.Random;
+
+import model.Image;
+import model.ImageModelImplV2;
+
+/**
+ * Measures the time taken by the split previews of a large image at several split positions, as
+ * when dragging the split slider of the GUI. Run with an optional image size, for example
+ * {@code SplitPreviewBenchmark 4000 3000}.
+ */
+public class SplitPreviewBenchmark {
+  private static final int ROUNDS = 3;
+  private static final double[] PERCENTAGES = {10, 50, 90};
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated image.
+   */
+  public static void main(String[] args) {
+    int width = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+    int height = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+
+    Random random = new Random(42);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < width; j++) {
+          row[j] = random.nextInt(256);
+        }
+      }
+    }
+
+    ImageModelImplV2 model = new ImageModelImplV2();
+    model.setLazy(false);
+    model.putImage("image", new Image(channels[0], channels[1], channels[2]));
+
+    System.out.printf("Image: %d x %d%n", width, height);
+    for (double percentage : PERCENTAGES) {
+      System.out.printf("blur %3.0f%%         %8.1f ms%n", percentage,
+              time(() -> model.blurImageSplit("image", "split", percentage)));
+      System.out.printf("sharpen %3.0f%%      %8.1f ms%n", percentage,
+              time(() -> model.sharpenImageSplit("image", "split", percentage)));
+      System.out.printf("sepia %3.0f%%        %8.1f ms%n", percentage,
+              time(() -> model.sepiaImageSplit("image", "split", percentage)));
+      System.out.printf("color-correct %3.0f%% %7.1f ms%n", percentage,
+              time(() -> model.applyColorCorrectionSplit("image", "split", percentage)));
+    }
+  }
+
+  private static double time(Runnable operation) {
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      operation.run();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best / 1e6;
+  }
+}
@@ -0,0 +1,222 @@
+package testbenchmark;
+
+import java.util.Random;
+
+import model.ComponentType;
+import model.Image;
+import model.ImageModel;
+import model.ImageModelImpl;
+import model.ImageUtil;
+import model.StorageType;
+
+/**
+ * Compares the heap footprint and the speed of flip, brighten and the component operations for
+ * every pixel storage backend, against the per-channel copies the operations used to make.
+ * Run with an optional image size and backend, for example:
+ * {@code StorageBenchmark 4000 3000 PACKED_INT}. Each backend is best measured in its own JVM,
+ * since mixing them makes the pixel accessor calls megamorphic.
+ */
+public class StorageBenchmark {
+  private static final int ROUNDS = 5;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated image, then the backends to run.
+   */
+  public static void main(String[] args) {
+    int width = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+    int height = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+    int[][][] channels = randomChannels(height, width);
+
+    System.out.printf("Image: %d x %d%n", width, height);
+    if (args.length > 2) {
+      for (int i = 2; i < args.length; i++) {
+        if (args[i].equals("LEGACY")) {
+          runLegacy(channels);
+        } else {
+          run(StorageType.valueOf(args[i]), channels);
+        }
+      }
+    } else {
+      runLegacy(channels);
+      for (StorageType type : StorageType.values()) {
+        run(type, channels);
+      }
+    }
+  }
+
+  private static int[][][] randomChannels(int height, int width) {
+    Random random = new Random(42);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < width; j++) {
+          row[j] = random.nextInt(256);
+        }
+      }
+    }
+    return channels;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static void run(StorageType type, int[][][] channels) {
+    ImageUtil.setStorageType(type);
+    ImageModel model = new ImageModelImpl();
+
+    long before = usedHeap();
+    Image image = new Image(copy(channels[0]), copy(channels[1]), copy(channels[2]));
+    long footprint = usedHeap() - before;
+    model.putImage("source", image);
+
+    long flip = time(() -> model.flipHorizontally("source", "out"));
+    long flipVertical = time(() -> model.flipVertically("source", "out"));
+    long brighten = time(() -> model.brightenImage(10, "source", "out"));
+    long red = time(() -> model.applyComponent("source", "out", ComponentType.RED));
+    long luma = time(() -> model.applyComponent("source", "out", ComponentType.LUMA));
+
+    report(type.name(), footprint, flip, flipVertical, brighten, red, luma);
+  }
+
+  /**
+   * Measures the operations written the way they used to be, copying every channel out of the
+   * image, building three fresh int[][] channels for the result and clamping them afterwards.
+   */
+  private static void runLegacy(int[][][] channels) {
+    ImageUtil.setStorageType(StorageType.PLANAR);
+    long before = usedHeap();
+    Image image = new Image(copy(channels[0]), copy(channels[1]), copy(channels[2]));
+    long footprint = usedHeap() - before;
+
+    long flip = time(() -> {
+      int[][] red = image.getRedChannel();
+      int[][] green = image.getGreenChannel();
+      int[][] blue = image.getBlueChannel();
+      int height = red.length;
+      int width = red[0].length;
+      int[][] newRed = new int[height][width];
+      int[][] newGreen = new int[height][width];
+      int[][] newBlue = new int[height][width];
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          newRed[i][width - j - 1] = red[i][j];
+          newGreen[i][width - j - 1] = green[i][j];
+          newBlue[i][width - j - 1] = blue[i][j];
+        }
+      }
+      new Image(newRed, newGreen, newBlue);
+    });
+    long flipVertical = time(() -> {
+      int[][] red = image.getRedChannel();
+      int[][] green = image.getGreenChannel();
+      int[][] blue = image.getBlueChannel();
+      int height = red.length;
+      int width = red[0].length;
+      int[][] newRed = new int[height][width];
+      int[][] newGreen = new int[height][width];
+      int[][] newBlue = new int[height][width];
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          newRed[height - i - 1][j] = red[i][j];
+          newGreen[height - i - 1][j] = green[i][j];
+          newBlue[height - i - 1][j] = blue[i][j];
+        }
+      }
+      new Image(newRed, newGreen, newBlue);
+    });
+    long brighten = time(() -> {
+      int[][] red = image.getRedChannel();
+      int[][] green = image.getGreenChannel();
+      int[][] blue = image.getBlueChannel();
+      int height = red.length;
+      int width = red[0].length;
+      int[][] newRed = new int[height][width];
+      int[][] newGreen = new int[height][width];
+      int[][] newBlue = new int[height][width];
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          newRed[i][j] = red[i][j] + 10;
+          newGreen[i][j] = green[i][j] + 10;
+          newBlue[i][j] = blue[i][j] + 10;
+        }
+      }
+      clamp(newRed, newGreen, newBlue);
+      new Image(newRed, newGreen, newBlue);
+    });
+    long red = time(() -> {
+      int[][] newRed = image.getRedChannel();
+      int[][] newGreen = image.getRedChannel();
+      int[][] newBlue = image.getRedChannel();
+      clamp(newRed, newGreen, newBlue);
+      new Image(newRed, newGreen, newBlue);
+    });
+    long luma = time(() -> {
+      int[][] redChannel = image.getRedChannel();
+      int[][] green = image.getGreenChannel();
+      int[][] blue = image.getBlueChannel();
+      int height = redChannel.length;
+      int width = redChannel[0].length;
+      int[][] newRed = new int[height][width];
+      int[][] newGreen = new int[height][width];
+      int[][] newBlue = new int[height][width];
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          int luma1 = (int) (0.2126 * redChannel[i][j] + 0.7152 * green[i][j]
+                  + 0.0722 * blue[i][j]);
+          newRed[i][j] = luma1;
+          newGreen[i][j] = luma1;
+          newBlue[i][j] = luma1;
+        }
+      }
+      clamp(newRed, newGreen, newBlue);
+      new Image(newRed, newGreen, newBlue);
+    });
+
+    report("LEGACY int[][]", footprint, flip, flipVertical, brighten, red, luma);
+  }
+
+  private static void clamp(int[][]... channels) {
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < row.length; j++) {
+          row[j] = Math.max(0, Math.min(255, row[j]));
+        }
+      }
+    }
+  }
+
+  private static int[][] copy(int[][] channel) {
+    int[][] copy = new int[channel.length][];
+    for (int i = 0; i < channel.length; i++) {
+      copy[i] = channel[i].clone();
+    }
+    return copy;
+  }
+
+  private static long time(Runnable operation) {
+    for (int i = 0; i < 2; i++) {
+      operation.run();
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < ROUNDS; i++) {
+      long start = System.nanoTime();
+      operation.run();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best / 1_000_000;
+  }
+
+  private static void report(String name, long footprint, long flip, long flipVertical,
+                             long brighten, long red, long luma) {
+    System.out.printf("%-16s heap %6d KB | h-flip %5d ms | v-flip %5d ms | brighten %5d ms"
+                    + " | red %5d ms | luma %5d ms%n", name, footprint / 1024, flip, flipVertical,
+            brighten, red, luma);
+  }
+}
@@ -0,0 +1,70 @@
+package testbenchmark;
+
+import java.util.Random;
+
+import model.ComponentType;
+import model.Image;
+import model.PixelPipeline;
+import model.RowExecutor;
+
+/**
+ * Compares the time taken by the point-wise operations when processing one pixel at a time and
+ * when processing rows one channel array at a time. Runs on a single thread so that the loops
+ * themselves are measured.
+ * Run with an optional image size, for example {@code VectorizedPipelineBenchmark 4000 3000}.
+ */
+public class VectorizedPipelineBenchmark {
+  private static final int ROUNDS = 5;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated image.
+   */
+  public static void main(String[] args) {
+    int width = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+    int height = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+    Image image = randomImage(height, width);
+    RowExecutor.setParallelism(1);
+
+    System.out.printf("Image: %d x %d%n", width, height);
+    run("brighten", new PixelPipeline().brighten(20), image);
+    run("luma", new PixelPipeline().component(ComponentType.LUMA), image);
+    run("value", new PixelPipeline().component(ComponentType.VALUE), image);
+    run("sepia", new PixelPipeline().sepia(), image);
+    run("levels", new PixelPipeline().levels(20, 100, 230), image);
+    run("chain", new PixelPipeline().brighten(20).sepia().levels(20, 100, 230), image);
+  }
+
+  private static Image randomImage(int height, int width) {
+    Random random = new Random(42);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < width; j++) {
+          row[j] = random.nextInt(256);
+        }
+      }
+    }
+    return new Image(channels[0], channels[1], channels[2]);
+  }
+
+  private static void run(String name, PixelPipeline pipeline, Image image) {
+    PixelPipeline.setVectorized(false);
+    long scalar = best(pipeline, image);
+    PixelPipeline.setVectorized(true);
+    long vectorized = best(pipeline, image);
+    System.out.printf("%-9s pixels %6.1f ms   rows %6.1f ms   %.1fx%n", name, scalar / 1e6,
+            vectorized / 1e6, (double) scalar / vectorized);
+  }
+
+  private static long best(PixelPipeline pipeline, Image image) {
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      pipeline.apply(image);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+}
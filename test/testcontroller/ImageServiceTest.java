@@ -2,14 +2,22 @@ package testcontroller;
 
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import controller.ImageService;
 import model.Image;
+import model.ImageModelImplV2;
+import model.ImageModelV2;
+import model.Mask;
 import testmodel.MockImageModelV2;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * This is a JUnit test class for ImageService class.
@@ -68,6 +76,40 @@ public class ImageServiceTest {
     return savedImage;
   }
 
+  @Test
+  public void testSaveBinaryPPM() throws IOException {
+    int[][] red = {{123, 12, 0}, {255, 128, 7}};
+    int[][] green = {{45, 200, 31}, {255, 128, 64}};
+    int[][] blue = {{67, 150, 255}, {0, 125, 99}};
+    ImageModelV2 model = new ImageModelImplV2();
+    ImageService imageService = new ImageService(model);
+    model.putImage("sample", new Image(red, green, blue));
+
+    File file = File.createTempFile("binary-test", ".ppm");
+    file.deleteOnExit();
+    imageService.saveImage(file.getPath(), "sample", true);
+
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    assertEquals("P6", new String(bytes, 0, 2, StandardCharsets.US_ASCII));
+    // The 18 samples follow the header as single bytes
+    assertEquals(18, bytes.length - "P6\n3 2\n255\n".length());
+
+    imageService.loadImage(file.getPath(), "loaded");
+    Image loadedImage = model.getImage("loaded");
+    assertEquals("Red channel should match", red, loadedImage.getRedChannel());
+    assertEquals("Green channel should match", green, loadedImage.getGreenChannel());
+    assertEquals("Blue channel should match", blue, loadedImage.getBlueChannel());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSaveBinaryOnlyForPPM() throws IOException {
+    ImageModelV2 model = new ImageModelImplV2();
+    ImageService imageService = new ImageService(model);
+    model.putImage("sample", new Image(new int[][]{{1}}, new int[][]{{2}}, new int[][]{{3}}));
+
+    imageService.saveImage("res/outputImages/binary.png", "sample", true);
+  }
+
   @Test
   public void testScriptExecution() throws IOException {
     String scriptContent = "load /inputImages/sample.jpg sample\n"
@@ -203,4 +245,20 @@ public class ImageServiceTest {
   public String getLog() {
     return log.toString();
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testLoadMask() throws IOException {
+    MockImageModelV2 mockModel = new MockImageModelV2();
+    ImageService imageService = new ImageService(mockModel);
+
+    imageService.loadMask("inputImages/test-mask.ppm", "mask");
+    Image mask = mockModel.getImage("mask");
+
+    // Only the runs of the mask are kept until the pixels are read
+    assertFalse(mask.isMaterialized());
+    assertEquals(2, Mask.of(mask).getSelectedCount());
+    assertTrue(Mask.of(mask).contains(0, 0));
+    assertTrue(Mask.of(mask).contains(1, 1));
+    assertEquals(new int[][]{{0, 255}, {255, 0}}, mask.getGreenChannel());
+  }
+}
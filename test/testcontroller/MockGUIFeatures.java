@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import controller.GUIFeatures;
 import model.Image;
+import model.ImageStatistics;
 
 /**
  * This class is created for implementing mock GUI Features for mocking GUI.
@@ -112,12 +113,23 @@ public class MockGUIFeatures implements GUIFeatures {
     return null;
   }
 
+  @Override
+  public void restoreImage(String imageName, Image image) {
+    log.append("restoreImage called with imageName: ").append(imageName).append("\n");
+  }
+
   @Override
   public Image getHistogram(String imageName) {
     log.append("getHistogram called with imageName: ").append(imageName).append("\n");
     return null;
   }
 
+  @Override
+  public ImageStatistics getStatistics(String imageName) {
+    log.append("getStatistics called with imageName: ").append(imageName).append("\n");
+    return null;
+  }
+
   @Override
   public void blurSplitOperation(String imageName, String newImageName, double percent)
           throws IOException {
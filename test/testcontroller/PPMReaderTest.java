@@ -0,0 +1,128 @@
+package testcontroller;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+
+import controller.ImageService;
+import model.Image;
+import testmodel.MockImageModelV2;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This is a JUnit test class for reading the plain and binary PPM and PGM formats.
+ */
+public class PPMReaderTest {
+
+  private static Image load(byte[] contents) throws IOException {
+    File file = File.createTempFile("reader-test", ".ppm");
+    file.deleteOnExit();
+    try (FileOutputStream fos = new FileOutputStream(file)) {
+      fos.write(contents);
+    }
+
+    MockImageModelV2 mockModel = new MockImageModelV2();
+    new ImageService(mockModel).loadImage(file.getPath(), "image");
+    return mockModel.getImage("image");
+  }
+
+  private static byte[] concat(String header, int... raster) {
+    byte[] head = header.getBytes(StandardCharsets.US_ASCII);
+    byte[] contents = new byte[head.length + raster.length];
+    System.arraycopy(head, 0, contents, 0, head.length);
+    for (int i = 0; i < raster.length; i++) {
+      contents[head.length + i] = (byte) raster[i];
+    }
+    return contents;
+  }
+
+  @Test
+  public void testPlainWithComments() throws IOException {
+    Image image = load(("P3 # comment after the magic number\n2 # width\n1\n# own line\n255\n"
+            + "1 2 3 # a comment in the raster\n 250 251 252\n").getBytes(StandardCharsets.US_ASCII));
+
+    assertEquals(new int[][]{{1, 250}}, image.getRedChannel());
+    assertEquals(new int[][]{{2, 251}}, image.getGreenChannel());
+    assertEquals(new int[][]{{3, 252}}, image.getBlueChannel());
+  }
+
+  @Test
+  public void testWiderThanSixteenBits() throws IOException {
+    int width = 70000;
+    int[] raster = new int[width * 3];
+    Arrays.fill(raster, 7);
+    raster[raster.length - 3] = 200;
+    Image image = load(concat("P6\n" + width + " 1\n255\n", raster));
+
+    assertEquals(1, image.getHeight());
+    assertEquals(width, image.getWidth());
+    assertEquals(7, image.getRedChannel()[0][0]);
+    assertEquals(200, image.getRedChannel()[0][width - 1]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyPixels() throws IOException {
+    load("P6\n65536 65536\n255\n".getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Test(expected = InputMismatchException.class)
+  public void testDimensionOverflow() throws IOException {
+    load("P3\n2147483648 1\n255\n0 0 0\n".getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Test(expected = InputMismatchException.class)
+  public void testSampleAboveSixteenBits() throws IOException {
+    load("P3\n1 1\n255\n65536 0 0\n".getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  public void testBinary() throws IOException {
+    Image image = load(concat("P6\n# binary\n2 2\n255\n",
+            10, 32, 13, 255, 0, 128, 9, 35, 12, 0, 1, 2));
+
+    assertEquals(new int[][]{{10, 255}, {9, 0}}, image.getRedChannel());
+    assertEquals(new int[][]{{32, 0}, {35, 1}}, image.getGreenChannel());
+    assertEquals(new int[][]{{13, 128}, {12, 2}}, image.getBlueChannel());
+  }
+
+  @Test
+  public void testBinarySixteenBit() throws IOException {
+    Image image = load(concat("P6 1 1 65535\n", 0xFF, 0xFF, 0x80, 0x00, 0x00, 0x00));
+
+    assertEquals(new int[][]{{255}}, image.getRedChannel());
+    assertEquals(new int[][]{{128}}, image.getGreenChannel());
+    assertEquals(new int[][]{{0}}, image.getBlueChannel());
+  }
+
+  @Test
+  public void testPlainMaxValueScaling() throws IOException {
+    Image image = load("P3\n3 1\n15\n15 0 5  7 8 1  0 0 0\n".getBytes(StandardCharsets.US_ASCII));
+
+    assertEquals(new int[][]{{255, 119, 0}}, image.getRedChannel());
+    assertEquals(new int[][]{{0, 136, 0}}, image.getGreenChannel());
+    assertEquals(new int[][]{{85, 17, 0}}, image.getBlueChannel());
+  }
+
+  @Test
+  public void testGreyscale() throws IOException {
+    Image plain = load("P2\n2 1\n255\n7 200\n".getBytes(StandardCharsets.US_ASCII));
+    Image binary = load(concat("P5\n2 1\n255\n", 7, 200));
+
+    for (Image image : new Image[]{plain, binary}) {
+      assertEquals(new int[][]{{7, 200}}, image.getRedChannel());
+      assertEquals(new int[][]{{7, 200}}, image.getGreenChannel());
+      assertEquals(new int[][]{{7, 200}}, image.getBlueChannel());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownMagicNumber() throws IOException {
+    load("P4\n1 1\n255\n0\n".getBytes(StandardCharsets.US_ASCII));
+  }
+}
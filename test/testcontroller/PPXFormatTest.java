@@ -0,0 +1,162 @@
+package testcontroller;
+
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import controller.ImageService;
+import model.BoundedImageStore;
+import model.Image;
+import model.ImageModelImplV2;
+import model.ImageModelV2;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is a JUnit test class for saving and loading images in the PPX wavelet format.
+ */
+public class PPXFormatTest {
+  private final ImageModelV2 model = new ImageModelImplV2();
+  private final ImageService imageService = new ImageService(model);
+
+  private static File tempFile() throws IOException {
+    File file = File.createTempFile("ppx-test", ".ppx");
+    file.deleteOnExit();
+    return file;
+  }
+
+  private static Image smoothImage(int height, int width) {
+    Random random = new Random(5);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          channel[i][j] = Math.min(255, (i + j) * 2 + random.nextInt(40));
+        }
+      }
+    }
+    return new Image(channels[0], channels[1], channels[2]);
+  }
+
+  private static void assertClose(Image expected, Image actual) {
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getWidth(), actual.getWidth());
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        // The packed pixels are the clamped values that were saved
+        int saved = expected.getRGB(i, j);
+        int loaded = actual.getRGB(i, j);
+        for (int shift = 16; shift >= 0; shift -= 8) {
+          assertTrue(Math.abs(((saved >> shift) & 0xFF) - ((loaded >> shift) & 0xFF)) <= 1);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    File file = tempFile();
+    imageService.loadImage("inputImages/test.ppm", "sample");
+    imageService.saveImage(file.getPath(), "sample");
+    imageService.loadImage(file.getPath(), "loaded");
+
+    assertClose(model.getImage("sample"), model.getImage("loaded"));
+  }
+
+  @Test
+  public void testRoundTripNotSquare() throws IOException {
+    File file = tempFile();
+    model.putImage("sample", smoothImage(37, 90));
+    imageService.saveImage(file.getPath(), "sample");
+    imageService.loadImage(file.getPath(), "loaded");
+
+    assertClose(model.getImage("sample"), model.getImage("loaded"));
+  }
+
+  @Test
+  public void testCompressedImageIsSmaller() throws IOException {
+    model.putImage("sample", smoothImage(128, 128));
+    model.applyCompression("sample", "half", 50);
+    model.applyCompression("sample", "most", 90);
+
+    File original = tempFile();
+    File half = tempFile();
+    File most = tempFile();
+    imageService.saveImage(original.getPath(), "sample");
+    imageService.saveImage(half.getPath(), "half");
+    imageService.saveImage(most.getPath(), "most");
+
+    assertTrue(half.length() < original.length());
+    assertTrue(most.length() < half.length());
+
+    imageService.loadImage(most.getPath(), "loaded");
+    assertClose(model.getImage("most"), model.getImage("loaded"));
+  }
+
+  @Test
+  public void testFileShrinksWithPercentage() throws IOException {
+    model.putImage("sample", smoothImage(128, 128));
+
+    // Coefficients of magnitude below 1 are zeros at any percentage, about half of them here
+    long previous = Long.MAX_VALUE;
+    for (int percent : new int[]{60, 70, 80, 90, 98}) {
+      model.applyCompression("sample", "compressed", percent);
+      File file = tempFile();
+      imageService.saveImage(file.getPath(), "compressed");
+
+      assertTrue(percent + "% should give a smaller file", file.length() < previous);
+      previous = file.length();
+
+      imageService.loadImage(file.getPath(), "loaded");
+      assertClose(model.getImage("compressed"), model.getImage("loaded"));
+    }
+  }
+
+  @Test
+  public void testSpilledCompressedImageGivesSameFile() throws IOException {
+    ImageModelV2 spilling = new ImageModelImplV2(new BoundedImageStore(0));
+    ImageService spillingService = new ImageService(spilling);
+    model.putImage("sample", smoothImage(64, 64));
+    spilling.putImage("sample", smoothImage(64, 64));
+    model.applyCompression("sample", "compressed", 80);
+    spilling.applyCompression("sample", "compressed", 80);
+    // Reading the source back spills the compressed image, the only other one
+    spilling.getImage("sample");
+
+    File kept = tempFile();
+    File spilled = tempFile();
+    imageService.saveImage(kept.getPath(), "compressed");
+    spillingService.saveImage(spilled.getPath(), "compressed");
+
+    assertArrayEquals(Files.readAllBytes(kept.toPath()), Files.readAllBytes(spilled.toPath()));
+  }
+
+  @Test(expected = IOException.class)
+  public void testImageTooLarge() throws IOException {
+    File file = tempFile();
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+      out.writeBytes("PPX1");
+      // The pixel count overflows an int
+      out.writeInt(65536);
+      out.writeInt(65536);
+    }
+    imageService.loadImage(file.getPath(), "loaded");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownMagicNumber() throws IOException {
+    File file = tempFile();
+    try (FileOutputStream fos = new FileOutputStream(file)) {
+      fos.write("P6\n1 1\n255\n".getBytes(StandardCharsets.US_ASCII));
+    }
+    imageService.loadImage(file.getPath(), "loaded");
+  }
+}
@@ -0,0 +1,149 @@
+package testcontroller;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+
+import controller.ImageService;
+import controller.TextBasedControllerV3;
+import model.ConcurrentImageModel;
+import model.Image;
+import testview.MockImageView;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This is a JUnit test class for executing the independent commands of a script in parallel.
+ */
+public class ParallelScriptTest {
+
+  private static Image gradient(int height, int width) {
+    int[][] red = new int[height][width];
+    int[][] green = new int[height][width];
+    int[][] blue = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        red[i][j] = (i * 7) % 256;
+        green[i][j] = (j * 5) % 256;
+        blue[i][j] = (i + j) % 256;
+      }
+    }
+    return new Image(red, green, blue);
+  }
+
+  private static File script(String content) throws IOException {
+    File file = File.createTempFile("script", ".txt");
+    file.deleteOnExit();
+    try (Writer writer = new FileWriter(file)) {
+      writer.write(content);
+    }
+    return file;
+  }
+
+  /**
+   * Runs a script over a model holding the source image.
+   *
+   * @return the log of the view, followed by the errors printed.
+   */
+  private static String run(ConcurrentImageModel model, File script, boolean parallel) {
+    model.putImage("source", gradient(60, 50));
+    MockImageView view = new MockImageView();
+    TextBasedControllerV3 controller = new TextBasedControllerV3(model, model, view,
+            new ImageService(model));
+    controller.setParallel(parallel);
+
+    PrintStream err = System.err;
+    ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    System.setErr(new PrintStream(errors));
+    try {
+      controller.runScript(script.getPath());
+    } finally {
+      System.setErr(err);
+    }
+    return view.getLog() + errors;
+  }
+
+  private static void assertSameImage(Image expected, Image actual) {
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getWidth(), actual.getWidth());
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getRGB(i, j), actual.getRGB(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testWideScriptMatchesSequentialExecution() throws IOException {
+    StringBuilder content = new StringBuilder("# variants of one image\n");
+    for (int i = 0; i < 20; i++) {
+      content.append("brighten ").append(i * 5).append(" source bright").append(i).append("\n");
+      content.append("blur bright").append(i).append(" blur").append(i).append("\n");
+      content.append("sepia blur").append(i).append(" sepia").append(i).append("\n");
+    }
+    File file = script(content.toString());
+
+    ConcurrentImageModel sequential = new ConcurrentImageModel();
+    ConcurrentImageModel parallel = new ConcurrentImageModel();
+    assertEquals(run(sequential, file, false), run(parallel, file, true));
+    for (int i = 0; i < 20; i++) {
+      assertSameImage(sequential.getImage("sepia" + i), parallel.getImage("sepia" + i));
+    }
+  }
+
+  @Test
+  public void testDependentCommandsKeepTheirOrder() throws IOException {
+    File file = script("brighten 10 source a\n"
+            + "brighten 10 a a\n"
+            + "horizontal-flip a b\n"
+            + "brighten 10 a a\n"
+            + "horizontal-flip b b\n"
+            + "brighten 5 b a\n");
+
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    run(model, file, true);
+
+    assertEquals(25, model.getImage("a").getBlue(0, 0));
+    assertEquals(20, model.getImage("b").getBlue(0, 0));
+    assertEquals(4, model.getVersion("a"));
+    assertEquals(2, model.getVersion("b"));
+  }
+
+  @Test
+  public void testFileSpelledDifferentlyKeepsItsOrder() throws IOException {
+    File image = File.createTempFile("parallel", ".ppm");
+    image.deleteOnExit();
+    String path = image.getAbsolutePath();
+    String otherSpelling = image.getParent() + File.separator + "." + File.separator
+            + image.getName();
+    File file = script("save " + path + " source\n"
+            + "load " + otherSpelling + " first\n"
+            + "brighten 50 source bright\n"
+            + "save " + otherSpelling + " bright\n"
+            + "load " + path + " second\n");
+
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    run(model, file, true);
+
+    assertSameImage(model.getImage("source"), model.getImage("first"));
+    assertSameImage(model.getImage("bright"), model.getImage("second"));
+  }
+
+  @Test
+  public void testErrorsAreReportedInScriptOrder() throws IOException {
+    File file = script("blur missing first\n"
+            + "brighten 10 source a\n"
+            + "unknown source b\n"
+            + "brighten ten source c\n"
+            + "sharpen a d\n"
+            + "sepia first e\n");
+
+    String expected = run(new ConcurrentImageModel(), file, false);
+    assertEquals(expected, run(new ConcurrentImageModel(), file, true));
+  }
+}
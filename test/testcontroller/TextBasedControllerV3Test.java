@@ -56,5 +56,13 @@ public class TextBasedControllerV3Test {
 
   }
 
+  @Test
+  public void testLoadMask() throws IOException {
+    String command = "load-mask inputImages/test-mask.ppm mask";
+
+    controller.execute(command);
 
+    String expectedViewLog = "Successfully executed command: " + command + "\n\n";
+    assertEquals(expectedViewLog, mockView.getLog());
+  }
 }
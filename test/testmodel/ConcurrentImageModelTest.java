@@ -0,0 +1,130 @@
+package testmodel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import model.ConcurrentImageModel;
+import model.Image;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit class for testing the model shared by several threads.
+ */
+public class ConcurrentImageModelTest {
+
+  private static Image uniform(int value, int height, int width) {
+    int[][] channel = new int[height][width];
+    for (int[] row : channel) {
+      Arrays.fill(row, value);
+    }
+    return new Image(channel, channel, channel);
+  }
+
+  @Test
+  public void testVersionsIncreaseOnEveryPut() {
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    assertEquals(0, model.getVersion("image"));
+
+    model.putImage("image", uniform(10, 2, 2));
+    assertEquals(1, model.getVersion("image"));
+    model.brightenImage(5, "image", "image");
+    assertEquals(2, model.getVersion("image"));
+    assertEquals(15, model.getImage("image").getRed(0, 0));
+  }
+
+  @Test
+  public void testConditionalPut() {
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    assertTrue(model.putImage("image", 0, uniform(1, 2, 2)));
+    assertFalse(model.putImage("image", 0, uniform(2, 2, 2)));
+    assertTrue(model.putImage("image", 1, uniform(3, 2, 2)));
+
+    assertEquals(2, model.getVersion("image"));
+    assertEquals(3, model.getImage("image").getRed(1, 1));
+  }
+
+  @Test
+  public void testRemovedNameKeepsItsVersion() {
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    model.putImage("image", uniform(1, 2, 2));
+    model.removeImage("image");
+
+    assertEquals(2, model.getVersion("image"));
+    assertFalse(model.putImage("image", 0, uniform(2, 2, 2)));
+    assertTrue(model.putImage("image", 2, uniform(3, 2, 2)));
+    assertEquals(3, model.getImage("image").getRed(0, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRemovedImageIsNotFound() {
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    model.putImage("image", uniform(1, 2, 2));
+    model.removeImage("image");
+    model.getImage("image");
+  }
+
+  @Test
+  public void testWritersToDifferentNames() throws Exception {
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    model.putImage("source", uniform(100, 40, 40));
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      int increment = i;
+      futures.add(executor.submit(() -> {
+        for (int round = 0; round < 10; round++) {
+          model.brightenImage(increment, "source", "bright-" + increment);
+          model.blurImage("bright-" + increment, "blur-" + increment);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 32; i++) {
+      assertEquals(10, model.getVersion("bright-" + i));
+      assertEquals(100 + i, model.getImage("blur-" + i).getGreen(20, 20));
+    }
+  }
+
+  @Test
+  public void testReadersNeverSeePartialImages() throws Exception {
+    ConcurrentImageModel model = new ConcurrentImageModel();
+    model.putImage("image", uniform(0, 30, 30));
+
+    Thread writer = new Thread(() -> {
+      for (int value = 1; value <= 200; value++) {
+        model.putImage("image", uniform(value, 30, 30));
+      }
+    });
+    writer.start();
+    while (writer.isAlive()) {
+      Image image = model.getImage("image");
+      int expected = image.getRed(0, 0);
+      int[] row = new int[30];
+      int[] uniformRow = new int[30];
+      Arrays.fill(uniformRow, (expected << 16) | (expected << 8) | expected);
+      for (int i = 0; i < 30; i++) {
+        image.getRow(i, row);
+        assertArrayEquals(uniformRow, row);
+      }
+    }
+    writer.join();
+    assertEquals(201, model.getVersion("image"));
+  }
+}
@@ -0,0 +1,135 @@
+package testmodel;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import model.BorderMode;
+import model.Image;
+import model.ImageModel;
+import model.ImageModelImpl;
+import model.ImageUtil;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit class for testing the convolution behind the blur and sharpen filters.
+ */
+public class ConvolutionTest {
+  private static final float[][] BLUR = {{1 / 16f, 1 / 8f, 1 / 16f},
+      {1 / 8f, 1 / 4f, 1 / 8f}, {1 / 16f, 1 / 8f, 1 / 16f}};
+
+  private static final float[][] SHARPEN = {{-1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f},
+      {-1 / 8f, 1 / 4f, 1 / 4f, 1 / 4f, -1 / 8f},
+      {-1 / 8f, 1 / 4f, 1f, 1 / 4f, -1 / 8f},
+      {-1 / 8f, 1 / 4f, 1 / 4f, 1 / 4f, -1 / 8f},
+      {-1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f, -1 / 8f}};
+
+  private final BorderMode defaultMode = ImageUtil.getBorderMode();
+
+  @After
+  public void restoreBorderMode() {
+    ImageUtil.setBorderMode(defaultMode);
+  }
+
+  private static int[][][] randomChannels(int height, int width) {
+    Random random = new Random(7);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < width; j++) {
+          row[j] = random.nextInt(256);
+        }
+      }
+    }
+    return channels;
+  }
+
+  /**
+   * Applies the kernel directly, one tap at a time, as a reference for the engine.
+   */
+  private static int[][] reference(int[][] channel, float[][] kernel, BorderMode border) {
+    int height = channel.length;
+    int width = channel[0].length;
+    int radius = kernel.length / 2;
+    int[][] result = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        float sum = 0;
+        for (int ki = -radius; ki <= radius; ki++) {
+          for (int kj = -radius; kj <= radius; kj++) {
+            int row = border.map(i + ki, height);
+            int col = border.map(j + kj, width);
+            if (row >= 0 && col >= 0) {
+              sum += kernel[ki + radius][kj + radius] * channel[row][col];
+            }
+          }
+        }
+        result[i][j] = ImageUtil.clampPixel(Math.round(sum));
+      }
+    }
+    return result;
+  }
+
+  private void assertFilterMatchesReference(boolean blur) {
+    int[][][] channels = randomChannels(7, 9);
+    float[][] kernel = blur ? BLUR : SHARPEN;
+
+    for (BorderMode border : BorderMode.values()) {
+      ImageUtil.setBorderMode(border);
+      ImageModel model = new ImageModelImpl();
+      model.putImage("image", new Image(channels[0], channels[1], channels[2]));
+      if (blur) {
+        model.blurImage("image", "filtered");
+      } else {
+        model.sharpenImage("image", "filtered");
+      }
+      Image filtered = model.getImage("filtered");
+
+      assertEquals(border.name(), reference(channels[0], kernel, border),
+              filtered.getRedChannel());
+      assertEquals(border.name(), reference(channels[1], kernel, border),
+              filtered.getGreenChannel());
+      assertEquals(border.name(), reference(channels[2], kernel, border),
+              filtered.getBlueChannel());
+    }
+  }
+
+  @Test
+  public void testSeparableBlurMatchesDirectConvolution() {
+    assertFilterMatchesReference(true);
+  }
+
+  @Test
+  public void testSharpenUsesWholeKernel() {
+    assertFilterMatchesReference(false);
+  }
+
+  @Test
+  public void testBordersKeepFlatImageFlat() {
+    int[][] flat = {{100, 100, 100}, {100, 100, 100}, {100, 100, 100}};
+    for (BorderMode border : new BorderMode[]{BorderMode.CLAMP, BorderMode.MIRROR,
+        BorderMode.WRAP}) {
+      ImageUtil.setBorderMode(border);
+      ImageModel model = new ImageModelImpl();
+      model.putImage("image", new Image(flat, flat, flat));
+      model.blurImage("image", "blurred");
+
+      assertEquals(border.name(), flat, model.getImage("blurred").getRedChannel());
+    }
+  }
+
+  @Test
+  public void testBorderMapping() {
+    assertEquals(0, BorderMode.CLAMP.map(-2, 4));
+    assertEquals(3, BorderMode.CLAMP.map(5, 4));
+    assertEquals(2, BorderMode.MIRROR.map(-2, 4));
+    assertEquals(1, BorderMode.MIRROR.map(5, 4));
+    assertEquals(0, BorderMode.MIRROR.map(3, 1));
+    assertEquals(2, BorderMode.WRAP.map(-2, 4));
+    assertEquals(1, BorderMode.WRAP.map(5, 4));
+    assertEquals(-1, BorderMode.ZERO.map(-1, 4));
+    assertEquals(2, BorderMode.ZERO.map(2, 4));
+  }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import java.io.IOException;
 
 import controller.ImageService;
+import model.ComponentType;
 import model.Image;
 import model.ImageModelImplV3;
 import model.ImageModelV3;
@@ -28,9 +29,9 @@ public class ImageModeIImplV3Test extends ImageModelImplV2Test {
 
     Image actualImage = imageModel.getImage("sample-mask-blur");
 
-    int[][] expectedRedChannel = {{0, 12}, {255, 0}};
-    int[][] expectedGreenChannel = {{0, 200}, {255, 0}};
-    int[][] expectedBlueChannel = {{0, 150}, {0, 0}};
+    int[][] expectedRedChannel = {{127, 12}, {255, 130}};
+    int[][] expectedGreenChannel = {{119, 200}, {255, 160}};
+    int[][] expectedBlueChannel = {{74, 150}, {0, 103}};
 
 
     assertEquals(expectedRedChannel, actualImage.getRedChannel());
@@ -48,9 +49,9 @@ public class ImageModeIImplV3Test extends ImageModelImplV2Test {
 
     Image actualImage = imageModel.getImage("sample-mask-sharpen");
 
-    int[][] expectedRedChannel = {{0, 12}, {255, 0}};
-    int[][] expectedGreenChannel = {{0, 200}, {255, 0}};
-    int[][] expectedBlueChannel = {{0, 150}, {0, 0}};
+    int[][] expectedRedChannel = {{122, 12}, {255, 129}};
+    int[][] expectedGreenChannel = {{35, 200}, {255, 138}};
+    int[][] expectedBlueChannel = {{60, 150}, {0, 132}};
 
 
     assertEquals(expectedRedChannel, actualImage.getRedChannel());
@@ -189,4 +190,57 @@ public class ImageModeIImplV3Test extends ImageModelImplV2Test {
     assertEquals(expectedGreenChannel, actualImage.getGreenChannel());
     assertEquals(expectedBlueChannel, actualImage.getBlueChannel());
   }
+
+  @Test
+  public void testPartialImageManipulationMatchesWholeImage() {
+    int height = 9;
+    int width = 11;
+    int[][] red = new int[height][width];
+    int[][] green = new int[height][width];
+    int[][] blue = new int[height][width];
+    int[][] mask = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        red[i][j] = (i * 37 + j * 11) % 256;
+        green[i][j] = (i * 13 + j * 71) % 256;
+        blue[i][j] = (i * j * 7) % 256;
+        // Two separate runs on some rows, and a pixel on the image border
+        boolean selected = (i >= 2 && i <= 5 && (j == 1 || (j >= 4 && j <= 7)))
+                || (i == 8 && j == 10);
+        mask[i][j] = selected ? 0 : 255;
+      }
+    }
+    imageModel.putImage("source", new Image(red, green, blue));
+    imageModel.putImage("mask", new Image(mask, mask, mask));
+
+    String[] operations = {"blur", "sharpen", "sepia", "luma-component"};
+    for (String operation : operations) {
+      imageModel.applyPartialImageManipulation(operation, "source", "mask", "masked");
+      switch (operation) {
+        case "blur":
+          imageModel.blurImage("source", "whole");
+          break;
+        case "sharpen":
+          imageModel.sharpenImage("source", "whole");
+          break;
+        case "sepia":
+          imageModel.applySepia("source", "whole");
+          break;
+        default:
+          imageModel.applyComponent("source", "whole", ComponentType.LUMA);
+          break;
+      }
+      Image whole = imageModel.getImage("whole");
+      Image original = imageModel.getImage("source");
+      Image masked = imageModel.getImage("masked");
+
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          Image expected = mask[i][j] == 0 ? whole : original;
+          assertEquals(operation + " at " + i + "," + j, expected.getRGB(i, j),
+                  masked.getRGB(i, j));
+        }
+      }
+    }
+  }
 }
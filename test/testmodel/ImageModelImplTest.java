@@ -319,9 +319,9 @@ public class ImageModelImplTest {
     imageModel.blurImage("sample", "sample-blur");
     Image actualImage = imageModel.getImage("sample-blur");
 
-    int[][] expectedRedChannel = {{0, 0}, {0, 0}};
-    int[][] expectedGreenChannel = {{0, 0}, {0, 0}};
-    int[][] expectedBlueChannel = {{0, 0}, {0, 0}};
+    int[][] expectedRedChannel = {{127, 70}, {191, 130}};
+    int[][] expectedGreenChannel = {{119, 161}, {188, 160}};
+    int[][] expectedBlueChannel = {{74, 120}, {45, 103}};
 
     assertEquals(expectedRedChannel, actualImage.getRedChannel());
     assertEquals(expectedGreenChannel, actualImage.getGreenChannel());
@@ -557,9 +557,9 @@ public class ImageModelImplTest {
     imageModel.sharpenImage("sample", "sample-sharpen");
     Image actualImage = imageModel.getImage("sample-sharpen");
 
-    int[][] expectedRedChannel = {{0, 0}, {0, 0}};
-    int[][] expectedGreenChannel = {{0, 0}, {0, 0}};
-    int[][] expectedBlueChannel = {{0, 0}, {0, 0}};
+    int[][] expectedRedChannel = {{122, 0}, {255, 129}};
+    int[][] expectedGreenChannel = {{35, 193}, {255, 138}};
+    int[][] expectedBlueChannel = {{60, 169}, {0, 132}};
 
     assertEquals(expectedRedChannel, actualImage.getRedChannel());
     assertEquals(expectedGreenChannel, actualImage.getGreenChannel());
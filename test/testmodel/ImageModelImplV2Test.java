@@ -61,9 +61,9 @@ public class ImageModelImplV2Test extends ImageModelImplTest {
     imageModel.applyCompression("sample", "sample-compress-seventy-five", 99);
     Image actualImage = imageModel.getImage("sample-compress-seventy-five");
 
-    int[][] expectedRedChannel = {{126, 8}, {249, 131}};
-    int[][] expectedGreenChannel = {{45, 198}, {253, 126}};
-    int[][] expectedBlueChannel = {{56, 159}, {10, 113}};
+    int[][] expectedRedChannel = {{67, 67}, {190, 190}};
+    int[][] expectedGreenChannel = {{86, 226}, {226, 86}};
+    int[][] expectedBlueChannel = {{33, 136}, {33, 136}};
 
     assertEquals(expectedRedChannel, actualImage.getRedChannel());
     assertEquals(expectedGreenChannel, actualImage.getGreenChannel());
@@ -71,6 +71,48 @@ public class ImageModelImplV2Test extends ImageModelImplTest {
 
   }
 
+  @Test
+  public void testCompressionDropsSmallestMagnitudes() {
+    // The large coefficients of red and green are negative, they are kept over the small ones
+    int[][] red = {{10, 250}, {250, 10}};
+    int[][] green = {{250, 10}, {10, 250}};
+    int[][] blue = {{100, 40}, {60, 100}};
+    imageModel.putImage("sample", new Image(red, green, blue));
+    imageModel.applyCompression("sample", "sample-compress-half", 50);
+    Image actualImage = imageModel.getImage("sample-compress-half");
+
+    int[][] expectedRedChannel = {{10, 248}, {248, 10}};
+    int[][] expectedGreenChannel = {{248, 10}, {10, 248}};
+    int[][] expectedBlueChannel = {{93, 45}, {55, 103}};
+
+    assertEquals(expectedRedChannel, actualImage.getRedChannel());
+    assertEquals(expectedGreenChannel, actualImage.getGreenChannel());
+    assertEquals(expectedBlueChannel, actualImage.getBlueChannel());
+  }
+
+  @Test
+  public void testCompressionZeroNotSquare() {
+    // Odd dimensions are transformed without padding, so no coefficient is lost at 0%
+    int[][] red = {{10, 250, 3, 90, 17}, {250, 10, 44, 0, 255}, {128, 64, 32, 16, 8}};
+    int[][] green = {{0, 0, 0, 0, 0}, {255, 255, 255, 255, 255}, {1, 2, 3, 4, 5}};
+    int[][] blue = {{100, 40, 60, 100, 40}, {60, 100, 40, 60, 100}, {7, 77, 177, 77, 7}};
+    imageModel.putImage("sample", new Image(red, green, blue));
+    imageModel.applyCompression("sample", "sample-compress-zero", 0);
+    Image actualImage = imageModel.getImage("sample-compress-zero");
+
+    int[][][] expected = {red, green, blue};
+    int[][][] actual = {actualImage.getRedChannel(), actualImage.getGreenChannel(),
+        actualImage.getBlueChannel()};
+    for (int c = 0; c < 3; c++) {
+      for (int i = 0; i < 3; i++) {
+        for (int j = 0; j < 5; j++) {
+          // The coefficients are truncated to integers, which moves the values slightly
+          assertEquals(expected[c][i][j], actual[c][i][j], 2);
+        }
+      }
+    }
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testCompressionNegativeInteger() throws IOException {
     imageService.loadImage("inputImages/test.ppm", "sample");
@@ -94,9 +136,9 @@ public class ImageModelImplV2Test extends ImageModelImplTest {
     Image actualImage = imageModel.getImage("sample-blur-half");
 
 
-    int[][] expectedRedChannel = {{0, 12}, {0, 128}};
-    int[][] expectedGreenChannel = {{0, 200}, {0, 128}};
-    int[][] expectedBlueChannel = {{0, 150}, {0, 125}};
+    int[][] expectedRedChannel = {{127, 12}, {191, 128}};
+    int[][] expectedGreenChannel = {{119, 200}, {188, 128}};
+    int[][] expectedBlueChannel = {{74, 150}, {45, 125}};
 
     assertEquals(expectedRedChannel, actualImage.getRedChannel());
     assertEquals(expectedGreenChannel, actualImage.getGreenChannel());
@@ -130,9 +172,9 @@ public class ImageModelImplV2Test extends ImageModelImplTest {
     Image actualImage = imageModel.getImage("sample-sharpen-half");
 
 
-    int[][] expectedRedChannel = {{0, 12}, {0, 128}};
-    int[][] expectedGreenChannel = {{0, 200}, {0, 128}};
-    int[][] expectedBlueChannel = {{0, 150}, {0, 125}};
+    int[][] expectedRedChannel = {{122, 12}, {255, 128}};
+    int[][] expectedGreenChannel = {{35, 200}, {255, 128}};
+    int[][] expectedBlueChannel = {{60, 150}, {0, 125}};
 
     assertEquals(expectedRedChannel, actualImage.getRedChannel());
     assertEquals(expectedGreenChannel, actualImage.getGreenChannel());
@@ -236,6 +278,42 @@ public class ImageModelImplV2Test extends ImageModelImplTest {
   }
 
 
+  @Test
+  public void testSplitFiltersOnlyTheLeftColumns() {
+    int height = 6;
+    int width = 20;
+    int[][] red = new int[height][width];
+    int[][] green = new int[height][width];
+    int[][] blue = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        red[i][j] = (i * 41 + j * 13) % 256;
+        green[i][j] = (i * 7 + j * 97) % 256;
+        blue[i][j] = (i * j * 5) % 256;
+      }
+    }
+    imageModel.putImage("source", new Image(red, green, blue));
+    imageModel.blurImage("source", "blurred");
+    imageModel.sharpenImage("source", "sharpened");
+    Image original = imageModel.getImage("source");
+
+    // The columns next to the split line are filtered with the original pixels right of it
+    for (double percentage : new double[]{0, 10, 30, 100}) {
+      imageModel.blurImageSplit("source", "blur-split", percentage);
+      imageModel.sharpenImageSplit("source", "sharpen-split", percentage);
+      int splitLine = (int) (width * percentage / 100);
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          Image blurred = j < splitLine ? imageModel.getImage("blurred") : original;
+          Image sharpened = j < splitLine ? imageModel.getImage("sharpened") : original;
+          assertEquals(blurred.getRGB(i, j), imageModel.getImage("blur-split").getRGB(i, j));
+          assertEquals(sharpened.getRGB(i, j),
+                  imageModel.getImage("sharpen-split").getRGB(i, j));
+        }
+      }
+    }
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidSplit() throws IOException {
     imageService.loadImage("inputImages/test.ppm", "sample");
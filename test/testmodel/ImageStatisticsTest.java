@@ -0,0 +1,113 @@
+package testmodel;
+
+import org.junit.Test;
+
+import model.ComponentType;
+import model.Image;
+import model.ImageStatistics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * JUnit class for testing the histograms and statistics kept with an image.
+ */
+public class ImageStatisticsTest {
+  private final Image image = new Image(
+          new int[][]{{10, 20, 20}, {30, 250, 20}},
+          new int[][]{{0, 0, 0}, {0, 0, 255}},
+          new int[][]{{100, 100, 100}, {100, 100, 100}});
+
+  @Test
+  public void testHistograms() {
+    ImageStatistics statistics = image.getStatistics();
+    int[] red = statistics.getHistogram(ComponentType.RED);
+    assertEquals(1, red[10]);
+    assertEquals(3, red[20]);
+    assertEquals(1, red[30]);
+    assertEquals(1, red[250]);
+    assertEquals(5, statistics.getHistogram(ComponentType.GREEN)[0]);
+    assertEquals(6, statistics.getHistogram(ComponentType.BLUE)[100]);
+    assertEquals(6, statistics.getPixelCount());
+
+    int lumaTotal = 0;
+    for (int count : statistics.getHistogram(ComponentType.LUMA)) {
+      lumaTotal += count;
+    }
+    assertEquals(6, lumaTotal);
+    // 0.2126 * 20 + 0.7152 * 255 + 0.0722 * 100
+    assertEquals(1, statistics.getHistogram(ComponentType.LUMA)[193]);
+  }
+
+  @Test
+  public void testMinMaxMean() {
+    ImageStatistics statistics = image.getStatistics();
+    assertEquals(10, statistics.getMin(ComponentType.RED));
+    assertEquals(250, statistics.getMax(ComponentType.RED));
+    assertEquals(350 / 6.0, statistics.getMean(ComponentType.RED), 1e-9);
+    assertEquals(100, statistics.getMin(ComponentType.BLUE));
+    assertEquals(100, statistics.getMax(ComponentType.BLUE));
+  }
+
+  @Test
+  public void testPeak() {
+    ImageStatistics statistics = image.getStatistics();
+    assertEquals(20, statistics.getPeak(ComponentType.RED, 10, 245));
+    assertEquals(30, statistics.getPeak(ComponentType.RED, 25, 245));
+    assertEquals(10, statistics.getPeak(ComponentType.GREEN, 10, 245));
+  }
+
+  @Test
+  public void testSuggestLevels() {
+    assertArrayEquals(new int[]{9, 101, 193}, image.getStatistics().suggestLevels());
+
+    Image flat = new Image(new int[][]{{5, 5}}, new int[][]{{5, 5}}, new int[][]{{5, 5}});
+    assertArrayEquals(new int[]{0, 128, 255}, flat.getStatistics().suggestLevels());
+  }
+
+  @Test
+  public void testStatisticsAreKept() {
+    assertSame(image.getStatistics(), image.getStatistics());
+  }
+
+  @Test
+  public void testHistogramCopies() {
+    image.getStatistics().getHistogram(ComponentType.RED)[10] = 99;
+    assertEquals(1, image.getStatistics().getHistogram(ComponentType.RED)[10]);
+  }
+
+  @Test
+  public void testRenderHistogram() {
+    int[] pixels = image.getStatistics().renderHistogram(128, 64);
+    assertEquals(128 * 64, pixels.length);
+    // Blue 100 is the most frequent value of all, it reaches the top row at column 50
+    assertEquals(0x0000FF, pixels[50]);
+    assertEquals(0xFFFFFF, pixels[0]);
+    // Green 0 is counted 5 times, 64 - 5 * 64 / 6 gives row 11
+    assertEquals(0x00FF00, pixels[11 * 128]);
+  }
+
+  @Test
+  public void testHistogramImageMatchesRaster() {
+    int[] pixels = image.getStatistics().renderHistogram(256, 256);
+    Image histogram = image.getStatistics().toHistogramImage();
+    assertEquals(256, histogram.getHeight());
+    assertEquals(256, histogram.getWidth());
+    for (int i = 0; i < 256; i++) {
+      for (int j = 0; j < 256; j++) {
+        assertEquals(pixels[i * 256 + j], histogram.getRGB(i, j));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRenderEmptyHistogram() {
+    image.getStatistics().renderHistogram(0, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoHistogramForValue() {
+    image.getStatistics().getHistogram(ComponentType.VALUE);
+  }
+}
@@ -0,0 +1,160 @@
+package testmodel;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import model.BoundedImageStore;
+import model.Image;
+import model.ImageModelImplV3;
+import model.ImageStore;
+import model.ImageStoreMetrics;
+import model.MapImageStore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit class for testing the stores images are kept in.
+ */
+public class ImageStoreTest {
+
+  private static Image image(int value, int height, int width) {
+    int[][] red = new int[height][width];
+    int[][] green = new int[height][width];
+    int[][] blue = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        red[i][j] = (value + i) % 256;
+        green[i][j] = (value + j) % 256;
+        blue[i][j] = (value + i * j) % 256;
+      }
+    }
+    return new Image(red, green, blue);
+  }
+
+  private static void assertSameImage(Image expected, Image actual) {
+    assertEquals(expected.getRedChannel(), actual.getRedChannel());
+    assertEquals(expected.getGreenChannel(), actual.getGreenChannel());
+    assertEquals(expected.getBlueChannel(), actual.getBlueChannel());
+  }
+
+  @Test
+  public void testMapStoreCountsHitsAndMisses() {
+    ImageStore store = new MapImageStore();
+    Image first = image(1, 4, 5);
+    store.put("first", first);
+
+    assertSame(first, store.get("first"));
+    assertNull(store.get("second"));
+
+    ImageStoreMetrics metrics = store.getMetrics();
+    assertEquals(1, metrics.getHits());
+    assertEquals(1, metrics.getMisses());
+    assertEquals(0, metrics.getEvictions());
+    assertEquals(first.getResidentBytes(), metrics.getResidentBytes());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedImageIsSpilledAndReloaded() throws IOException {
+    Image first = image(1, 10, 10);
+    Image second = image(2, 10, 10);
+    Image third = image(3, 10, 10);
+    // Room for two of the images
+    ImageStore store = new BoundedImageStore(2 * first.getResidentBytes());
+
+    store.put("first", first);
+    store.put("second", second);
+    store.get("first");
+    store.put("third", third);
+
+    // The second image was the least recently used one
+    ImageStoreMetrics metrics = store.getMetrics();
+    assertEquals(1, metrics.getEvictions());
+    assertEquals(2 * first.getResidentBytes(), metrics.getResidentBytes());
+    assertSame(first, store.get("first"));
+    assertSame(third, store.get("third"));
+
+    Image reloaded = store.get("second");
+    assertNotSame(second, reloaded);
+    assertSameImage(second, reloaded);
+    assertEquals(2, store.getMetrics().getEvictions());
+    assertEquals(1, store.getMetrics().getMisses());
+    assertTrue(store.getMetrics().getResidentBytes() <= 2 * first.getResidentBytes());
+  }
+
+  @Test
+  public void testReplacingSpilledImage() throws IOException {
+    ImageStore store = new BoundedImageStore(0);
+    store.put("image", image(1, 3, 3));
+    store.put("other", image(2, 3, 3));
+
+    Image replacement = image(9, 2, 2);
+    store.put("image", replacement);
+    store.get("other");
+
+    assertSameImage(replacement, store.get("image"));
+  }
+
+  @Test
+  public void testRemovingResidentAndSpilledImages() throws IOException {
+    ImageStore store = new BoundedImageStore(0);
+    store.put("image", image(1, 3, 3));
+    store.put("other", image(2, 3, 3));
+
+    store.remove("image");
+    store.remove("other");
+    store.remove("missing");
+
+    assertNull(store.get("image"));
+    assertNull(store.get("other"));
+    assertEquals(0, store.getMetrics().getResidentBytes());
+  }
+
+  @Test
+  public void testBudgetCountsDeferredImagesInLazyMode() throws IOException {
+    Image first = image(1, 10, 10);
+    // Room for two of the images once computed
+    long budget = 2 * first.getResidentBytes();
+    ImageModelImplV3 model = new ImageModelImplV3(new BoundedImageStore(budget));
+    model.setLazy(true);
+
+    model.putImage("first", first);
+    model.brightenImage(10, "first", "brighter");
+    assertEquals(budget, model.getStoreMetrics().getResidentBytes());
+    assertEquals(0, model.getStoreMetrics().getEvictions());
+
+    model.brightenImage(20, "first", "brightest");
+    model.flipVertically("brighter", "flipped");
+
+    // The deferred images were computed before spilling, so none holds on to a spilled one
+    ImageStoreMetrics metrics = model.getStoreMetrics();
+    assertTrue(metrics.getEvictions() >= 2);
+    assertTrue(metrics.getResidentBytes() <= budget);
+
+    ImageModelImplV3 eager = new ImageModelImplV3();
+    eager.setLazy(false);
+    eager.putImage("first", image(1, 10, 10));
+    eager.brightenImage(10, "first", "brighter");
+    eager.brightenImage(20, "first", "brightest");
+    eager.flipVertically("brighter", "flipped");
+    for (String name : new String[]{"first", "brighter", "brightest", "flipped"}) {
+      assertSameImage(eager.getImage(name), model.getImage(name));
+    }
+    assertTrue(model.getStoreMetrics().getResidentBytes() <= budget);
+  }
+
+  @Test
+  public void testModelOverBoundedStore() throws IOException {
+    ImageModelImplV3 model = new ImageModelImplV3(new BoundedImageStore(0));
+    model.putImage("image", image(5, 6, 7));
+    model.flipHorizontally("image", "flipped");
+    model.flipHorizontally("flipped", "restored");
+
+    assertSameImage(image(5, 6, 7), model.getImage("restored"));
+    assertTrue(model.getStoreMetrics().getEvictions() > 0);
+  }
+}
@@ -0,0 +1,202 @@
+package testmodel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.ImageService;
+import model.ComponentType;
+import model.ConcurrentImageModel;
+import model.ConcurrentImageStore;
+import model.Image;
+import model.ImageModelImplV2;
+import model.ImageStore;
+import model.MapImageStore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * JUnit class for testing the operations updating an image in place when it replaces itself.
+ */
+public class InPlaceOperationTest {
+  private List<Image> stored;
+  private ImageModelImplV2 model;
+
+  /**
+   * A store remembering every image put into it.
+   */
+  private class RecordingStore extends MapImageStore {
+    @Override
+    public void put(String name, Image image) {
+      stored.add(image);
+      super.put(name, image);
+    }
+  }
+
+  @Before
+  public void setUp() {
+    stored = new ArrayList<>();
+    model = new ImageModelImplV2(new RecordingStore());
+    model.setLazy(false);
+    model.putImage("source", gradient(7, 6));
+    model.adoptImage("image", gradient(7, 6));
+  }
+
+  @Test
+  public void testImagesGivenByTheCallerAreNotUpdated() {
+    Image source = model.getImage("source");
+    model.brightenImage(10, "source", "source");
+
+    assertNotSame(source, last());
+    assertEquals(0, source.getRed(0, 0));
+    assertEquals(10, model.getImage("source").getRed(0, 0));
+  }
+
+  @Test
+  public void testPointWiseOperationsUpdateInPlace() {
+    Image image = last();
+    ImageModelImplV2 eager = new ImageModelImplV2();
+    eager.putImage("image", gradient(7, 6));
+
+    model.brightenImage(25, "image", "image");
+    model.applySepia("image", "image");
+    model.applyLevelsAdjustment(10, 120, 240, "image", "image");
+    eager.brightenImage(25, "image", "image");
+    eager.applySepia("image", "image");
+    eager.applyLevelsAdjustment(10, 120, 240, "image", "image");
+
+    assertSame(image, last());
+    assertSameImage(eager.getImage("image"), model.getImage("image"));
+  }
+
+  @Test
+  public void testFlipsAndComponentsUpdateInPlace() {
+    Image image = last();
+    ImageModelImplV2 eager = new ImageModelImplV2();
+    eager.putImage("image", gradient(7, 6));
+
+    model.flipVertically("image", "image");
+    model.flipHorizontally("image", "image");
+    model.applyComponent("image", "image", ComponentType.LUMA);
+    eager.flipVertically("image", "flipped");
+    eager.flipHorizontally("flipped", "flipped");
+    eager.applyComponent("flipped", "flipped", ComponentType.LUMA);
+
+    assertSame(image, last());
+    assertSameImage(eager.getImage("flipped"), model.getImage("image"));
+  }
+
+  @Test
+  public void testLoadedImagesUpdateInPlaceAcrossSaves() throws IOException {
+    ImageService imageService = new ImageService(model);
+    File file = File.createTempFile("in-place-test", ".ppm");
+    file.deleteOnExit();
+    imageService.loadImage("inputImages/test.ppm", "loaded");
+    Image loaded = last();
+
+    model.brightenImage(10, "loaded", "loaded");
+    imageService.saveImage(file.getPath(), "loaded");
+    model.brightenImage(10, "loaded", "loaded");
+    imageService.saveImage(file.getPath(), "loaded");
+    model.applySepia("loaded", "loaded");
+
+    ImageModelImplV2 eager = new ImageModelImplV2();
+    ImageService eagerService = new ImageService(eager);
+    eagerService.loadImage("inputImages/test.ppm", "original");
+    eager.brightenImage(20, "original", "brightened");
+    eager.applySepia("brightened", "expected");
+    eagerService.loadImage(file.getPath(), "saved");
+
+    assertSame(loaded, last());
+    assertSameImage(eager.getImage("brightened"), eager.getImage("saved"));
+    assertSameImage(eager.getImage("expected"), model.getImage("loaded"));
+  }
+
+  @Test
+  public void testOtherNamesAreNotUpdated() {
+    model.brightenImage(10, "image", "other");
+    Image other = last();
+    model.brightenImage(10, "image", "image");
+
+    assertNotSame(other, last());
+    assertEquals(10, model.getImage("other").getRed(0, 0));
+    assertEquals(10, model.getImage("image").getRed(0, 0));
+  }
+
+  @Test
+  public void testImagesCapturedByDeferredImagesAreNotUpdated() {
+    model.setLazy(true);
+    model.brightenImage(10, "image", "deferred");
+    model.setLazy(false);
+    model.brightenImage(50, "image", "image");
+
+    assertEquals(10, model.getImage("deferred").getRed(0, 0));
+    assertEquals(50, model.getImage("image").getRed(0, 0));
+  }
+
+  @Test
+  public void testConcurrentModelNeverUpdatesInPlace() {
+    ConcurrentImageModel concurrent = new ConcurrentImageModel(new ConcurrentImageStore() {
+      @Override
+      public void put(String name, Image image) {
+        stored.add(image);
+        super.put(name, image);
+      }
+    });
+    concurrent.setLazy(false);
+    concurrent.putImage("source", gradient(3, 3));
+    concurrent.brightenImage(0, "source", "image");
+    Image image = last();
+    concurrent.brightenImage(10, "image", "image");
+
+    assertNotSame(image, last());
+    assertEquals(0, image.getRed(0, 0));
+    assertEquals(10, concurrent.getImage("image").getRed(0, 0));
+  }
+
+  @Test
+  public void testStatisticsFollowInPlaceUpdates() {
+    // Color correction keeps the statistics of the image, which the update must drop
+    model.applyColorCorrection("image", "first");
+    model.brightenImage(60, "image", "image");
+    model.applyColorCorrection("image", "second");
+
+    Image image = model.getImage("image");
+    model.putImage("copy", new Image(image.getRedChannel(), image.getGreenChannel(),
+            image.getBlueChannel()));
+    model.applyColorCorrection("copy", "expected");
+    assertSameImage(model.getImage("expected"), model.getImage("second"));
+  }
+
+  private static Image gradient(int height, int width) {
+    int[][] red = new int[height][width];
+    int[][] green = new int[height][width];
+    int[][] blue = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        red[i][j] = i * 30;
+        green[i][j] = j * 40;
+        blue[i][j] = (i * 11 + j * 17) % 256;
+      }
+    }
+    return new Image(red, green, blue);
+  }
+
+  private Image last() {
+    return stored.get(stored.size() - 1);
+  }
+
+  private static void assertSameImage(Image expected, Image actual) {
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getRGB(i, j), actual.getRGB(i, j));
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package testmodel;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import controller.ImageService;
+import model.ComponentType;
+import model.Image;
+import model.ImageModelImplV3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit class for testing the lazy mode of the model.
+ */
+public class LazyEvaluationTest {
+
+  private static ImageModelImplV3 loadedModel(boolean lazy) throws IOException {
+    ImageModelImplV3 model = new ImageModelImplV3();
+    model.setLazy(lazy);
+    new ImageService(model).loadImage("inputImages/sample.ppm", "sample");
+
+    int[][] mask = new int[10][10];
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j < 10; j++) {
+        mask[i][j] = (i + j) % 3 == 0 ? 0 : 255;
+      }
+    }
+    model.putImage("mask", new Image(mask, mask, mask));
+    return model;
+  }
+
+  private static void runScript(ImageModelImplV3 model) {
+    model.brightenImage(25, "sample", "bright");
+    model.applySepia("bright", "sepia");
+    model.applyComponent("sepia", "luma", ComponentType.LUMA);
+    model.applyLevelsAdjustment(20, 100, 230, "luma", "levels");
+    model.flipHorizontally("levels", "flipped");
+    model.blurImageSplit("flipped", "split", 40);
+    model.rgbSplit("sample", "red", "green", "blue");
+    model.rgbCombine("combined", "blue", "green", "red");
+    model.applyCompression("sample", "compressed", 50);
+    model.applyHistogramVisualization("sample", "histogram");
+    model.applyColorCorrection("sample", "corrected");
+  }
+
+  private static void assertSameImage(Image expected, Image actual) {
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getRedChannel(), actual.getRedChannel());
+    assertEquals(expected.getGreenChannel(), actual.getGreenChannel());
+    assertEquals(expected.getBlueChannel(), actual.getBlueChannel());
+  }
+
+  @Test
+  public void testLazyMatchesEager() throws IOException {
+    ImageModelImplV3 eager = loadedModel(false);
+    ImageModelImplV3 lazy = loadedModel(true);
+    runScript(eager);
+    runScript(lazy);
+
+    for (String name : new String[]{"levels", "split", "combined", "compressed", "histogram",
+        "corrected", "sepia"}) {
+      assertSameImage(eager.getImage(name), lazy.getImage(name));
+    }
+  }
+
+  @Test
+  public void testUnusedImagesAreNeverComputed() throws IOException {
+    ImageModelImplV3 model = loadedModel(true);
+    runScript(model);
+
+    assertFalse(model.getImage("split").isMaterialized());
+    model.getImage("split").getRGB(0, 0);
+
+    assertTrue(model.getImage("split").isMaterialized());
+    assertTrue(model.getImage("flipped").isMaterialized());
+    // The point-wise chain read by the flip is computed in one pass from the sample
+    assertTrue(model.getImage("levels").isMaterialized());
+    assertFalse(model.getImage("bright").isMaterialized());
+    assertFalse(model.getImage("sepia").isMaterialized());
+    assertFalse(model.getImage("luma").isMaterialized());
+    assertFalse(model.getImage("combined").isMaterialized());
+    assertFalse(model.getImage("compressed").isMaterialized());
+  }
+
+  @Test
+  public void testReplacedNamesDoNotChangeDeferredImages() throws IOException {
+    ImageModelImplV3 model = loadedModel(true);
+    model.brightenImage(50, "sample", "bright");
+    model.flipVertically("sample", "sample");
+
+    ImageModelImplV3 eager = loadedModel(false);
+    eager.brightenImage(50, "sample", "bright");
+
+    assertSameImage(eager.getImage("bright"), model.getImage("bright"));
+  }
+
+  @Test
+  public void testPartialManipulationMatchesEager() throws IOException {
+    ImageModelImplV3 eager = loadedModel(false);
+    ImageModelImplV3 lazy = loadedModel(true);
+    eager.applyPartialImageManipulation("blur", "sample", "mask", "masked");
+    lazy.applyPartialImageManipulation("blur", "sample", "mask", "masked");
+
+    assertFalse(lazy.getImage("masked").isMaterialized());
+    assertSameImage(eager.getImage("masked"), lazy.getImage("masked"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLevelsFailImmediately() throws IOException {
+    loadedModel(true).applyLevelsAdjustment(200, 100, 50, "sample", "levels");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSplitFailsImmediately() throws IOException {
+    loadedModel(true).blurImageSplit("sample", "split", 120);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownPartialOperationFailsImmediately() throws IOException {
+    loadedModel(true).applyPartialImageManipulation("emboss", "sample", "mask", "masked");
+  }
+}
@@ -0,0 +1,98 @@
+package testmodel;
+
+import org.junit.Test;
+
+import model.ComponentType;
+import model.LookupTable;
+import model.PixelPipeline;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit class for testing the tone mappings compiled into lookup tables.
+ */
+public class LookupTableTest {
+
+  private static int pixel(int red, int green, int blue) {
+    return (red << 16) | (green << 8) | blue;
+  }
+
+  @Test
+  public void testBrightenClamps() {
+    LookupTable table = LookupTable.brighten(50);
+    assertEquals(pixel(50, 150, 255), table.apply(pixel(0, 100, 230)));
+    assertEquals(pixel(0, 0, 155), LookupTable.brighten(-100).apply(pixel(20, 100, 255)));
+  }
+
+  @Test
+  public void testOffsetsPerChannel() {
+    LookupTable table = LookupTable.offsets(10, -20, 300);
+    assertEquals(pixel(110, 80, 255), table.apply(pixel(100, 100, 0)));
+    assertEquals(0, table.map(ComponentType.GREEN, 5));
+  }
+
+  @Test
+  public void testLevelsEndPoints() {
+    LookupTable table = LookupTable.levels(20, 100, 200);
+    assertEquals(0, table.map(ComponentType.RED, 20));
+    assertEquals(128, table.map(ComponentType.GREEN, 100));
+    assertEquals(255, table.map(ComponentType.BLUE, 200));
+    assertEquals(0, table.map(ComponentType.RED, 3));
+    assertEquals(255, table.map(ComponentType.RED, 250));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLevels() {
+    LookupTable.levels(100, 50, 200);
+  }
+
+  @Test
+  public void testGamma() {
+    LookupTable table = LookupTable.gamma(2.2);
+    assertEquals(0, table.map(ComponentType.RED, 0));
+    assertEquals(255, table.map(ComponentType.RED, 255));
+    assertEquals(186, table.map(ComponentType.RED, 128));
+    assertEquals(LookupTable.identity().apply(0x123456), LookupTable.gamma(1).apply(0x123456));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidGamma() {
+    LookupTable.gamma(0);
+  }
+
+  @Test
+  public void testCustomMappingIsClamped() {
+    LookupTable table = LookupTable.of(value -> value * 2 - 100);
+    assertEquals(pixel(0, 100, 255), table.apply(pixel(10, 100, 200)));
+  }
+
+  @Test
+  public void testCompositionMatchesSequentialApplication() {
+    LookupTable first = LookupTable.brighten(40);
+    LookupTable second = LookupTable.levels(30, 120, 220);
+    LookupTable third = LookupTable.offsets(-15, 5, 25);
+    LookupTable composed = first.then(second).then(third);
+
+    for (int value = 0; value < 256; value++) {
+      int rgb = pixel(value, 255 - value, (value * 7) % 256);
+      assertEquals(third.apply(second.apply(first.apply(rgb))), composed.apply(rgb));
+    }
+  }
+
+  @Test
+  public void testPipelineComposesConsecutiveTables() {
+    PixelPipeline pipeline = new PixelPipeline().brighten(10).levels(20, 100, 200)
+            .then(LookupTable.gamma(1.8)).brighten(-5);
+    assertEquals(1, pipeline.size());
+
+    PixelPipeline split = new PixelPipeline().brighten(10).sepia().brighten(-5)
+            .then(new PixelPipeline().brighten(3).sepia());
+    assertEquals(4, split.size());
+    int rgb = pixel(90, 160, 30);
+    int expected = LookupTable.brighten(10).apply(rgb);
+    expected = new PixelPipeline().sepia().apply(expected);
+    expected = LookupTable.brighten(3).apply(LookupTable.brighten(-5).apply(expected));
+    expected = new PixelPipeline().sepia().apply(expected);
+    assertEquals(expected, split.apply(rgb));
+  }
+}
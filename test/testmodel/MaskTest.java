@@ -0,0 +1,115 @@
+package testmodel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Image;
+import model.ImageModelImplV3;
+import model.Mask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the Mask class.
+ */
+public class MaskTest {
+
+  private static Mask mask(String... rows) {
+    int height = rows.length;
+    int width = rows[0].length();
+    int[][] channel = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        channel[i][j] = rows[i].charAt(j) == '#' ? 0 : 255;
+      }
+    }
+    return Mask.of(new Image(channel, channel, channel));
+  }
+
+  @Test
+  public void testSpansAndContains() {
+    Mask mask = mask("##..#.", "......", ".#####");
+
+    List<String> spans = new ArrayList<>();
+    mask.forEachSpan((row, start, end) -> spans.add(row + ":" + start + "-" + end));
+    assertEquals("[0:0-2, 0:4-5, 2:1-6]", spans.toString());
+    assertEquals(8, mask.getSelectedCount());
+
+    assertTrue(mask.contains(0, 1));
+    assertFalse(mask.contains(0, 2));
+    assertTrue(mask.contains(0, 4));
+    assertFalse(mask.contains(0, 5));
+    assertFalse(mask.contains(1, 3));
+    assertFalse(mask.contains(2, 0));
+    assertTrue(mask.contains(2, 5));
+  }
+
+  @Test
+  public void testSetOperations() {
+    Mask a = mask("##..#.", "..##..");
+    Mask b = mask(".###..", "......");
+
+    assertEquals(mask("#####.", "..##.."), a.union(b));
+    assertEquals(mask(".#....", "......"), a.intersect(b));
+    assertEquals(mask("..##.#", "##..##"), a.invert());
+    assertEquals(a, a.invert().invert());
+    assertTrue(a.intersect(a.invert()).isEmpty());
+    assertEquals(12, a.union(a.invert()).getSelectedCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnionOfDifferentSizes() {
+    mask("#.", "..").union(mask("#..", "..."));
+  }
+
+  @Test
+  public void testMaskIsKeptWithImage() {
+    int[][] channel = {{0, 255}, {255, 0}};
+    Image image = new Image(channel, channel, channel);
+
+    assertSame(Mask.of(image), Mask.of(image));
+  }
+
+  @Test
+  public void testMaskFollowsInPlaceUpdates() {
+    ImageModelImplV3 model = new ImageModelImplV3();
+    model.setLazy(false);
+    int[][] channel = {{0, 255}, {255, 0}};
+    int[][] red = {{10, 20}, {30, 40}};
+    int[][] zero = {{0, 0}, {0, 0}};
+    model.putImage("image", new Image(red, zero, zero));
+    model.putImage("source", new Image(channel, channel, channel));
+    // The image put by the caller is shared, so the mask is a new image the model may update
+    model.brightenImage(0, "source", "mask");
+
+    model.applyPartialImageManipulation("red-component", "image", "mask", "first");
+    model.brightenImage(255, "mask", "mask");
+    model.applyPartialImageManipulation("red-component", "image", "mask", "second");
+
+    assertEquals(10, model.getImage("first").getGreen(0, 0));
+    assertEquals(0, model.getImage("second").getGreen(0, 0));
+    assertTrue(Mask.of(model.getImage("mask")).isEmpty());
+  }
+
+  @Test
+  public void testImageOfMask() {
+    Mask mask = mask("#..", ".##");
+    Image image = mask.toImage();
+
+    assertFalse(image.isMaterialized());
+    assertSame(mask, Mask.of(image));
+    assertFalse(image.isMaterialized());
+
+    int[][] expected = {{0, 255, 255}, {255, 0, 0}};
+    assertEquals(expected, image.getRedChannel());
+    assertEquals(expected, image.getBlueChannel());
+    assertNotSame(mask, Mask.of(new Image(expected, expected, expected)));
+    assertEquals(mask, Mask.of(new Image(expected, expected, expected)));
+  }
+}
@@ -93,6 +93,12 @@ public class MockImageModel implements ImageModel {
     log.append("Image with name: ").append(imageName).append(" stored.\n");
   }
 
+  @Override
+  public void removeImage(String imageName) {
+    imageStorage.remove(imageName);
+    log.append("Image with name: ").append(imageName).append(" removed.\n");
+  }
+
   public String getLog() {
     return log.toString();
   }
@@ -99,4 +99,19 @@ public class MockImageModelV2 extends MockImageModel implements ImageModelV2 {
             .append("\n");
   }
 
-}
\ No newline at end of file
+  @Override
+  public void applyOperation(String operationName, String imageName, String newImageName,
+                             int... parameters) {
+    log.append("applyOperation called with operation: ").append(operationName)
+            .append(", imageName: ").append(imageName).append(" and newImageName: ")
+            .append(newImageName).append("\n");
+  }
+
+  @Override
+  public void applyOperationSplit(String operationName, String imageName, String newImageName,
+                                  double percentage, int... parameters) {
+    log.append("applyOperationSplit called with operation: ").append(operationName)
+            .append(", imageName: ").append(imageName).append(" and newImageName: ")
+            .append(newImageName).append(" with percentage: ").append(percentage).append("\n");
+  }
+}
@@ -0,0 +1,131 @@
+package testmodel;
+
+import org.junit.Test;
+
+import model.Image;
+import model.ImageModelImplV3;
+import model.Operation;
+import model.OperationRegistry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the OperationRegistry class.
+ */
+public class OperationRegistryTest {
+
+  private static Image gradient(int height, int width) {
+    int[][] red = new int[height][width];
+    int[][] green = new int[height][width];
+    int[][] blue = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        red[i][j] = (i * 29 + j * 11) % 256;
+        green[i][j] = (i * 3 + j * 53) % 256;
+        blue[i][j] = (i * j * 13) % 256;
+      }
+    }
+    return new Image(red, green, blue);
+  }
+
+  private static void assertSameImage(Image expected, Image actual) {
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getWidth(), actual.getWidth());
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getRGB(i, j), actual.getRGB(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testTraits() {
+    Operation blur = OperationRegistry.get("blur");
+    assertFalse(blur.isPointWise());
+    assertEquals(1, blur.getRadius());
+    assertTrue(blur.isChannelSeparable());
+    assertEquals(2, OperationRegistry.get("sharpen").getRadius());
+
+    Operation sepia = OperationRegistry.get("Sepia");
+    assertEquals("sepia", sepia.getName());
+    assertTrue(sepia.isPointWise());
+    assertEquals(0, sepia.getRadius());
+    assertFalse(sepia.isChannelSeparable());
+    assertFalse(sepia.isLookupTable());
+
+    Operation levels = OperationRegistry.get("levels-adjust", 20, 100, 230);
+    assertTrue(levels.isLookupTable());
+    assertTrue(levels.isChannelSeparable());
+    assertFalse(levels.isAdaptive());
+    assertTrue(OperationRegistry.get("color-correct").isAdaptive());
+  }
+
+  @Test
+  public void testNames() {
+    assertTrue(OperationRegistry.getNames().contains("luma-component"));
+    assertTrue(OperationRegistry.getNames().contains("brighten"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownOperation() {
+    OperationRegistry.get("emboss");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingParameters() {
+    OperationRegistry.get("levels-adjust", 20, 100);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidParameters() {
+    OperationRegistry.get("levels-adjust", 200, 100, 30);
+  }
+
+  @Test
+  public void testOperationsByName() {
+    ImageModelImplV3 model = new ImageModelImplV3();
+    model.putImage("image", gradient(7, 9));
+
+    model.applyOperation("brighten", "image", "by-name", 40);
+    model.brightenImage(40, "image", "expected");
+    assertSameImage(model.getImage("expected"), model.getImage("by-name"));
+
+    model.applyOperation("blur", "image", "by-name");
+    model.blurImage("image", "expected");
+    assertSameImage(model.getImage("expected"), model.getImage("by-name"));
+
+    model.applyOperation("color-correct", "image", "by-name");
+    model.applyColorCorrection("image", "expected");
+    assertSameImage(model.getImage("expected"), model.getImage("by-name"));
+
+    model.applyOperationSplit("levels-adjust", "image", "by-name", 40, 20, 100, 230);
+    model.applyLevelsAdjustmentSplit(20, 100, 230, "image", "expected", 40);
+    assertSameImage(model.getImage("expected"), model.getImage("by-name"));
+  }
+
+  @Test
+  public void testRegisteredOperationIsMaskable() {
+    ImageModelImplV3 model = new ImageModelImplV3();
+    model.putImage("image", gradient(4, 5));
+    int[][] mask = new int[4][5];
+    for (int[] row : mask) {
+      row[0] = 255;
+    }
+    model.putImage("mask", new Image(mask, mask, mask));
+
+    // Color correction has no masked command, but the masked operations find it by name
+    model.applyPartialImageManipulation("color-correct", "image", "mask", "masked");
+    model.applyColorCorrection("image", "whole");
+    Image image = model.getImage("image");
+    Image whole = model.getImage("whole");
+    Image masked = model.getImage("masked");
+    for (int i = 0; i < 4; i++) {
+      assertEquals(image.getRGB(i, 0), masked.getRGB(i, 0));
+      for (int j = 1; j < 5; j++) {
+        assertEquals(whole.getRGB(i, j), masked.getRGB(i, j));
+      }
+    }
+  }
+}
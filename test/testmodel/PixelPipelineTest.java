@@ -0,0 +1,80 @@
+package testmodel;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import controller.ImageService;
+import model.ComponentType;
+import model.Image;
+import model.ImageModelImplV2;
+import model.PixelPipeline;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit class for testing the fused point-wise pipeline.
+ */
+public class PixelPipelineTest {
+  private final ImageModelImplV2 imageModel = new ImageModelImplV2();
+  private final ImageService imageService = new ImageService(imageModel);
+
+  private static void assertSameImage(Image expected, Image actual) {
+    assertEquals(expected.getRedChannel(), actual.getRedChannel());
+    assertEquals(expected.getGreenChannel(), actual.getGreenChannel());
+    assertEquals(expected.getBlueChannel(), actual.getBlueChannel());
+  }
+
+  @Test
+  public void testFusedChainMatchesSteps() throws IOException {
+    imageService.loadImage("inputImages/sample.ppm", "sample");
+    imageModel.brightenImage(30, "sample", "bright");
+    imageModel.applySepia("bright", "sepia");
+    imageModel.applyComponent("sepia", "luma", ComponentType.LUMA);
+    imageModel.applyLevelsAdjustment(20, 100, 230, "luma", "levels");
+
+    PixelPipeline pipeline = new PixelPipeline().brighten(30).sepia()
+            .component(ComponentType.LUMA).levels(20, 100, 230);
+    imageModel.applyPipeline("sample", "fused", pipeline);
+
+    assertEquals(4, pipeline.size());
+    assertSameImage(imageModel.getImage("levels"), imageModel.getImage("fused"));
+  }
+
+  @Test
+  public void testEveryComponentMatches() throws IOException {
+    imageService.loadImage("inputImages/sample.ppm", "sample");
+    for (ComponentType type : ComponentType.values()) {
+      imageModel.applyComponent("sample", "expected", type);
+      imageModel.applyPipeline("sample", "fused", new PixelPipeline().component(type));
+
+      assertSameImage(imageModel.getImage("expected"), imageModel.getImage("fused"));
+    }
+  }
+
+  @Test
+  public void testStepsClampBetweenThemselves() {
+    Image pixel = new Image(new int[][]{{200}}, new int[][]{{100}}, new int[][]{{0}});
+    Image result = new PixelPipeline().brighten(100).brighten(-100).apply(pixel);
+
+    assertEquals(155, result.getRed(0, 0));
+    assertEquals(100, result.getGreen(0, 0));
+    assertEquals(0, result.getBlue(0, 0));
+  }
+
+  @Test
+  public void testPipelinesAreImmutable() {
+    PixelPipeline empty = new PixelPipeline();
+    PixelPipeline brighter = empty.brighten(10);
+
+    assertEquals(0, empty.size());
+    assertEquals(1, brighter.size());
+    assertEquals(2, brighter.then(empty.sepia()).size());
+    assertEquals(0x123456, empty.apply(0x123456));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLevels() {
+    new PixelPipeline().levels(100, 50, 200);
+  }
+}
@@ -0,0 +1,163 @@
+package testmodel;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import controller.ImageService;
+import model.ChannelView;
+import model.ComponentType;
+import model.Image;
+import model.ImageModelImplV2;
+import model.ImageModelV2;
+import model.ImageUtil;
+import model.PixelStorage;
+import model.StorageType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * JUnit class for testing the pixel storage backends behind Image.
+ */
+public class PixelStorageTest {
+  private final StorageType defaultType = ImageUtil.getStorageType();
+
+  @After
+  public void restoreStorageType() {
+    ImageUtil.setStorageType(defaultType);
+  }
+
+  @Test
+  public void testSetAndGetPixel() {
+    for (StorageType type : StorageType.values()) {
+      PixelStorage storage = type.create(2, 3);
+      storage.setRGB(1, 2, 10, 20, 30);
+
+      assertEquals(type.name(), 2, storage.getHeight());
+      assertEquals(type.name(), 3, storage.getWidth());
+      assertEquals(type.name(), 10, storage.getRed(1, 2));
+      assertEquals(type.name(), 20, storage.getGreen(1, 2));
+      assertEquals(type.name(), 30, storage.getBlue(1, 2));
+      assertEquals(type.name(), 0x0A141E, storage.getRGB(1, 2));
+      assertEquals(type.name(), 0, storage.getRGB(0, 0));
+    }
+  }
+
+  @Test
+  public void testWritesAreClamped() {
+    for (StorageType type : StorageType.values()) {
+      PixelStorage storage = type.create(1, 1);
+      storage.setRGB(0, 0, 300, -20, 255);
+
+      assertEquals(type.name(), 255, storage.getRed(0, 0));
+      assertEquals(type.name(), 0, storage.getGreen(0, 0));
+      assertEquals(type.name(), 255, storage.getBlue(0, 0));
+    }
+  }
+
+  @Test
+  public void testRowAccess() {
+    for (StorageType type : StorageType.values()) {
+      PixelStorage storage = type.create(2, 3);
+      storage.setRow(1, new int[]{0x010203, 0xFFFFFF, 0x800000});
+
+      int[] row = new int[3];
+      storage.getRow(1, row);
+      assertEquals(type.name(), 0x010203, row[0]);
+      assertEquals(type.name(), 0xFFFFFF, row[1]);
+      assertEquals(type.name(), 0x800000, row[2]);
+      assertEquals(type.name(), 128, storage.getRed(1, 2));
+
+      storage.getRow(0, row);
+      assertEquals(type.name(), 0, row[1]);
+    }
+  }
+
+  @Test
+  public void testChannelConstructorUsesSelectedBackend() {
+    int[][] red = {{123, 12}, {255, 128}};
+    int[][] green = {{45, 200}, {255, 128}};
+    int[][] blue = {{67, 150}, {0, 125}};
+
+    for (StorageType type : StorageType.values()) {
+      ImageUtil.setStorageType(type);
+      Image image = new Image(red, green, blue);
+
+      assertEquals(type, image.getStorageType());
+      assertEquals(2, image.getHeight());
+      assertEquals(2, image.getWidth());
+      assertEquals(red, image.getRedChannel());
+      assertEquals(green, image.getGreenChannel());
+      assertEquals(blue, image.getBlueChannel());
+    }
+  }
+
+  @Test
+  public void testOperationsMatchAcrossBackends() throws IOException {
+    Image[] expected = null;
+
+    for (StorageType type : StorageType.values()) {
+      ImageUtil.setStorageType(type);
+      ImageModelV2 imageModel = new ImageModelImplV2();
+      ImageService imageService = new ImageService(imageModel);
+      imageService.loadImage("inputImages/sample.ppm", "sample");
+
+      imageModel.flipHorizontally("sample", "horizontal");
+      imageModel.flipVertically("sample", "vertical");
+      imageModel.brightenImage(50, "sample", "brighter");
+      imageModel.applyComponent("sample", "luma", ComponentType.LUMA);
+      imageModel.applySepia("sample", "sepia");
+      imageModel.applyLevelsAdjustment(20, 100, 230, "sample", "levels");
+
+      Image[] actual = new Image[]{imageModel.getImage("horizontal"),
+          imageModel.getImage("vertical"), imageModel.getImage("brighter"),
+          imageModel.getImage("luma"), imageModel.getImage("sepia"),
+          imageModel.getImage("levels")};
+
+      if (expected == null) {
+        expected = actual;
+        continue;
+      }
+      for (int i = 0; i < actual.length; i++) {
+        assertEquals(expected[i].getRedChannel(), actual[i].getRedChannel());
+        assertEquals(expected[i].getGreenChannel(), actual[i].getGreenChannel());
+        assertEquals(expected[i].getBlueChannel(), actual[i].getBlueChannel());
+      }
+    }
+  }
+
+  @Test
+  public void testChannelViewsMatchChannels() {
+    int[][] red = {{123, 12, 7}, {255, 128, 0}};
+    int[][] green = {{45, 200, 8}, {255, 128, 1}};
+    int[][] blue = {{67, 150, 9}, {0, 125, 2}};
+    Image image = new Image(red, green, blue);
+
+    ChannelView[] views = {image.getRedView(), image.getGreenView(), image.getBlueView()};
+    int[][][] channels = {red, green, blue};
+    int[] row = new int[3];
+
+    for (int c = 0; c < views.length; c++) {
+      assertEquals(2, views[c].height());
+      assertEquals(3, views[c].width());
+      for (int i = 0; i < 2; i++) {
+        views[c].getRow(i, row);
+        for (int j = 0; j < 3; j++) {
+          assertEquals(channels[c][i][j], views[c].get(i, j));
+          assertEquals(channels[c][i][j], row[j]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testGetImageDoesNotCopy() {
+    ImageModelV2 imageModel = new ImageModelImplV2();
+    Image image = new Image(new int[][]{{1}}, new int[][]{{2}}, new int[][]{{3}});
+    imageModel.putImage("pixel", image);
+
+    assertSame(image, imageModel.getImage("pixel"));
+  }
+}
@@ -0,0 +1,207 @@
+package testmodel;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import model.ComponentType;
+import model.Image;
+import model.ImageModelImpl;
+import model.ImageModelImplV2;
+import model.ImageModelV2;
+import model.RowExecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit class for testing that the operations give the same result on any number of threads.
+ */
+public class RowExecutorTest {
+  private final int defaultParallelism = RowExecutor.getParallelism();
+  private final int defaultMinimumPixels = RowExecutor.getMinimumPixels();
+
+  @After
+  public void restoreExecutor() {
+    RowExecutor.setParallelism(defaultParallelism);
+    RowExecutor.setMinimumPixels(defaultMinimumPixels);
+  }
+
+  private static Image randomImage(int height, int width) {
+    Random random = new Random(11);
+    int[][][] channels = new int[3][height][width];
+    for (int[][] channel : channels) {
+      for (int[] row : channel) {
+        for (int j = 0; j < width; j++) {
+          row[j] = random.nextInt(256);
+        }
+      }
+    }
+    return new Image(channels[0], channels[1], channels[2]);
+  }
+
+  private static Image[] runOperations(Image source) {
+    ImageModelV2 model = new ImageModelImplV2();
+    model.putImage("source", source);
+
+    model.flipHorizontally("source", "horizontal");
+    model.flipVertically("source", "vertical");
+    model.brightenImage(40, "source", "brighter");
+    model.applyComponent("source", "value", ComponentType.VALUE);
+    model.applyComponent("source", "intensity", ComponentType.INTENSITY);
+    model.applyComponent("source", "luma", ComponentType.LUMA);
+    model.applySepia("source", "sepia");
+    model.blurImage("source", "blur");
+    model.sharpenImage("source", "sharpen");
+    model.applyColorCorrection("source", "corrected");
+    model.applyLevelsAdjustment(20, 100, 230, "source", "levels");
+    model.applyHistogramVisualization("source", "histogram");
+    model.blurImageSplit("source", "split", 37);
+    model.applyCompression("source", "compressed", 60);
+
+    String[] names = {"horizontal", "vertical", "brighter", "value", "intensity", "luma", "sepia",
+        "blur", "sharpen", "corrected", "levels", "histogram", "split", "compressed"};
+    Image[] results = new Image[names.length];
+    for (int i = 0; i < names.length; i++) {
+      results[i] = model.getImage(names[i]);
+    }
+    return results;
+  }
+
+  @Test
+  public void testParallelMatchesSequential() {
+    Image source = randomImage(203, 157);
+
+    RowExecutor.setParallelism(1);
+    Image[] expected = runOperations(source);
+
+    RowExecutor.setParallelism(4);
+    RowExecutor.setMinimumPixels(0);
+    Image[] actual = runOperations(source);
+
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i].getRedChannel(), actual[i].getRedChannel());
+      assertEquals(expected[i].getGreenChannel(), actual[i].getGreenChannel());
+      assertEquals(expected[i].getBlueChannel(), actual[i].getBlueChannel());
+    }
+  }
+
+  @Test
+  public void testEveryRowRunsOnce() {
+    RowExecutor.setParallelism(3);
+    RowExecutor.setMinimumPixels(0);
+    AtomicIntegerArray visits = new AtomicIntegerArray(1001);
+
+    RowExecutor.forEachBand(1001, 10, (rowStart, rowEnd) -> {
+      for (int i = rowStart; i < rowEnd; i++) {
+        visits.incrementAndGet(i);
+      }
+    });
+
+    for (int i = 0; i < visits.length(); i++) {
+      assertEquals(1, visits.get(i));
+    }
+  }
+
+  @Test
+  public void testChangingParallelismDuringOperations() throws Exception {
+    RowExecutor.setParallelism(2);
+    RowExecutor.setMinimumPixels(0);
+    long end = System.nanoTime() + 500_000_000L;
+    Thread changer = new Thread(() -> {
+      for (int i = 0; System.nanoTime() < end; i++) {
+        RowExecutor.setParallelism(2 + i % 2);
+        Thread.yield();
+      }
+    });
+    changer.start();
+
+    // An operation that got the pool just before it was replaced still runs on it
+    AtomicInteger rows = new AtomicInteger();
+    int operations = 0;
+    while (changer.isAlive()) {
+      RowExecutor.forEachBand(64, 4, (rowStart, rowEnd) -> rows.addAndGet(rowEnd - rowStart));
+      operations++;
+    }
+    changer.join();
+
+    assertEquals(64L * operations, rows.get());
+  }
+
+  private static int countRowsUntilCancelled(int height) {
+    Thread caller = Thread.currentThread();
+    AtomicInteger rows = new AtomicInteger();
+    try {
+      RowExecutor.forEachBand(height, 10, (rowStart, rowEnd) -> {
+        rows.addAndGet(rowEnd - rowStart);
+        caller.interrupt();
+      });
+      fail("The operation should have been cancelled.");
+    } catch (CancellationException ex) {
+      assertTrue(Thread.currentThread().isInterrupted());
+    } finally {
+      Thread.interrupted();
+    }
+    return rows.get();
+  }
+
+  @Test
+  public void testInterruptCancelsSequentialBands() {
+    RowExecutor.setParallelism(1);
+    RowExecutor.setMinimumPixels(0);
+
+    // Only the band running when the caller was interrupted completes
+    assertEquals(1600 / 16, countRowsUntilCancelled(1600));
+  }
+
+  @Test
+  public void testInterruptCancelsPoolBands() {
+    RowExecutor.setParallelism(3);
+    RowExecutor.setMinimumPixels(0);
+
+    int rows = countRowsUntilCancelled(1600);
+    assertTrue(rows > 0);
+    assertTrue(rows < 1600);
+  }
+
+  @Test
+  public void testCancelledOperationStoresNothing() {
+    RowExecutor.setMinimumPixels(0);
+    ImageModelImpl model = new ImageModelImplV2();
+    model.setLazy(false);
+    model.putImage("source", randomImage(64, 48));
+
+    Thread.currentThread().interrupt();
+    try {
+      model.blurImage("source", "blur");
+      fail("The operation should have been cancelled.");
+    } catch (CancellationException ex) {
+      assertTrue(Thread.currentThread().isInterrupted());
+    } finally {
+      Thread.interrupted();
+    }
+
+    boolean stored;
+    try {
+      model.getImage("blur");
+      stored = true;
+    } catch (IllegalArgumentException ex) {
+      stored = false;
+    }
+    assertFalse(stored);
+
+    model.blurImage("source", "blur");
+    assertEquals(64, model.getImage("blur").getHeight());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidParallelism() {
+    RowExecutor.setParallelism(0);
+  }
+}
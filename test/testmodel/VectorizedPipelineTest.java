@@ -0,0 +1,156 @@
+package testmodel;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import model.ComponentType;
+import model.Image;
+import model.ImageModelImplV3;
+import model.PixelPipeline;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit class checking that processing rows one channel array at a time gives exactly the same
+ * pixels as processing them one pixel at a time.
+ */
+public class VectorizedPipelineTest {
+  private static final Image IMAGE = createImage();
+  private static final Image MASK = createMask();
+
+  @After
+  public void tearDown() {
+    PixelPipeline.setVectorized(true);
+  }
+
+  /**
+   * Every value of each channel against random other channels, followed by random pixels, with a
+   * width that is not a multiple of any vector length.
+   */
+  private static Image createImage() {
+    int height = 97;
+    int width = 131;
+    Random random = new Random(7);
+    int[][] red = new int[height][width];
+    int[][] green = new int[height][width];
+    int[][] blue = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        int index = i * width + j;
+        red[i][j] = index < 256 ? index : random.nextInt(256);
+        green[i][j] = index >= 256 && index < 512 ? index - 256 : random.nextInt(256);
+        blue[i][j] = index >= 512 && index < 768 ? index - 512 : random.nextInt(256);
+      }
+    }
+    return new Image(red, green, blue);
+  }
+
+  /**
+   * Runs of selected pixels of random lengths, some of a single pixel.
+   */
+  private static Image createMask() {
+    Random random = new Random(13);
+    int[][] red = new int[IMAGE.getHeight()][IMAGE.getWidth()];
+    for (int[] row : red) {
+      int value = 0;
+      for (int j = 0; j < row.length; j++) {
+        if (random.nextInt(4) == 0) {
+          value = 255 - value;
+        }
+        row[j] = value;
+      }
+    }
+    return new Image(red, red, red);
+  }
+
+  private static Image[] applySplitAndMasked() {
+    ImageModelImplV3 model = new ImageModelImplV3();
+    model.setLazy(false);
+    model.putImage("image", IMAGE);
+    model.putImage("mask", MASK);
+    model.applyOperationSplit("sepia", "image", "sepia-split", 37);
+    model.applyOperationSplit("levels-adjust", "image", "levels-split", 61, 20, 100, 240);
+    model.applyPartialImageManipulation("sepia", "image", "mask", "sepia-masked");
+    model.applyPartialImageManipulation("luma-component", "image", "mask", "luma-masked");
+    return new Image[]{model.getImage("sepia-split"), model.getImage("levels-split"),
+        model.getImage("sepia-masked"), model.getImage("luma-masked")};
+  }
+
+  private static void assertSameAsScalar(PixelPipeline pipeline) {
+    PixelPipeline.setVectorized(false);
+    Image scalar = pipeline.apply(IMAGE);
+    PixelPipeline.setVectorized(true);
+    Image vectorized = pipeline.apply(IMAGE);
+
+    for (int i = 0; i < IMAGE.getHeight(); i++) {
+      for (int j = 0; j < IMAGE.getWidth(); j++) {
+        assertEquals("pixel " + i + "," + j, scalar.getRGB(i, j), vectorized.getRGB(i, j));
+        assertEquals(pipeline.apply(IMAGE.getRGB(i, j)), vectorized.getRGB(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testBrighten() {
+    for (int value : new int[]{-300, -255, -40, -1, 0, 1, 17, 128, 255, 300}) {
+      assertSameAsScalar(new PixelPipeline().brighten(value));
+    }
+  }
+
+  @Test
+  public void testComponents() {
+    for (ComponentType type : ComponentType.values()) {
+      assertSameAsScalar(new PixelPipeline().component(type));
+    }
+  }
+
+  @Test
+  public void testSepia() {
+    assertSameAsScalar(new PixelPipeline().sepia());
+  }
+
+  @Test
+  public void testTransformWithNegativeAndLargeCoefficients() {
+    assertSameAsScalar(new PixelPipeline().transform(new double[][]{{1.5, -0.25, 0.1},
+        {-1, 2, 0.333}, {0.0722, 0.7152, 0.2126}}));
+  }
+
+  @Test
+  public void testLevels() {
+    int[][] points = {{0, 128, 255}, {10, 20, 30}, {20, 100, 255}, {0, 1, 2}, {253, 254, 255},
+        {50, 200, 210}};
+    for (int[] point : points) {
+      assertSameAsScalar(new PixelPipeline().levels(point[0], point[1], point[2]));
+    }
+  }
+
+  @Test
+  public void testChainedSteps() {
+    assertSameAsScalar(new PixelPipeline().brighten(30).sepia().component(ComponentType.LUMA)
+            .levels(10, 90, 240).brighten(-20));
+  }
+
+  @Test
+  public void testSplitAndMaskedRanges() {
+    PixelPipeline.setVectorized(false);
+    Image[] scalar = applySplitAndMasked();
+    PixelPipeline.setVectorized(true);
+    Image[] vectorized = applySplitAndMasked();
+
+    for (int k = 0; k < scalar.length; k++) {
+      for (int i = 0; i < IMAGE.getHeight(); i++) {
+        for (int j = 0; j < IMAGE.getWidth(); j++) {
+          assertEquals("image " + k + " pixel " + i + "," + j, scalar[k].getRGB(i, j),
+                  vectorized[k].getRGB(i, j));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCustomStepFallsBackToPixels() {
+    assertSameAsScalar(new PixelPipeline().brighten(10).then(rgb -> rgb ^ 0x00FF00).sepia());
+  }
+}